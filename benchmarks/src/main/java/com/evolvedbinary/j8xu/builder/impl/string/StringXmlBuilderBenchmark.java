@@ -0,0 +1,190 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.string;
+
+import com.evolvedbinary.j8xu.builder.api.XmlAttribute;
+import com.evolvedbinary.j8xu.builder.api.XmlChildNodeBuilder;
+import com.evolvedbinary.j8xu.builder.api.XmlElementBuilder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.evolvedbinary.j8xu.builder.api.XmlBuilder.attribute;
+
+/**
+ * Benchmarks for the {@link StringXmlBuilder} over trees of representative shapes,
+ * with and without indentation.
+ *
+ * {@link #build()} measures just building an already constructed tree, whereas
+ * {@link #constructAndBuild()} measures the typical usage of constructing a tree and
+ * then building it once.
+ *
+ * Run with the GC profiler to also report the allocation rate, e.g.
+ * {@code java -jar benchmarks/target/benchmarks.jar StringXmlBuilderBenchmark -prof gc},
+ * or via {@link #main(String[])} which adds it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class StringXmlBuilderBenchmark {
+
+  public enum Shape {
+    /**
+     * A single chain of nested elements.
+     */
+    DEEP_NARROW {
+      @Override
+      XmlElementBuilder<String> create(final StringXmlBuilder x) {
+        XmlElementBuilder<String> element = x.element("leaf", x.text("value"));
+        for (int i = 0; i < 200; i++) {
+          element = x.element("level", element);
+        }
+        return element;
+      }
+    },
+
+    /**
+     * Many sibling elements with a single text child.
+     */
+    WIDE_FLAT {
+      @Override
+      XmlElementBuilder<String> create(final StringXmlBuilder x) {
+        final XmlChildNodeBuilder<String>[] rows = children(2_000);
+        for (int i = 0; i < rows.length; i++) {
+          rows[i] = x.element("row", x.text("row value " + i));
+        }
+        return x.element("rows", rows);
+      }
+    },
+
+    /**
+     * Elements with many attributes, some of which need escaping.
+     */
+    ATTRIBUTE_HEAVY {
+      @Override
+      XmlElementBuilder<String> create(final StringXmlBuilder x) {
+        final XmlChildNodeBuilder<String>[] items = children(500);
+        for (int i = 0; i < items.length; i++) {
+          final XmlAttribute[] attributes = new XmlAttribute[12];
+          for (int j = 0; j < attributes.length; j++) {
+            attributes[j] = attribute("attr" + j, j % 4 == 0 ? "a \"quoted\" & <escaped> value" : "value" + i);
+          }
+          items[i] = x.element("item", x.attributes(attributes));
+        }
+        return x.element("items", items);
+      }
+    },
+
+    /**
+     * Elements in many different namespaces, with prefixes that are rebound as the tree deepens.
+     */
+    MANY_NAMESPACES {
+      @Override
+      XmlElementBuilder<String> create(final StringXmlBuilder x) {
+        final XmlChildNodeBuilder<String>[] sections = children(100);
+        for (int i = 0; i < sections.length; i++) {
+          XmlElementBuilder<String> element = x.element("http://example.com/leaf", "leaf", "l", x.text("value"));
+          for (int j = 0; j < 10; j++) {
+            element = x.element("http://example.com/ns" + ((i + j) % 20), "section", "p" + (j % 5), element);
+          }
+          sections[i] = element;
+        }
+        return x.element("http://example.com/root", "root", "r", sections);
+      }
+    },
+
+    /**
+     * Paragraphs of text interspersed with inline elements.
+     */
+    MIXED_CONTENT {
+      @Override
+      XmlElementBuilder<String> create(final StringXmlBuilder x) {
+        final XmlChildNodeBuilder<String>[] paragraphs = children(500);
+        for (int i = 0; i < paragraphs.length; i++) {
+          paragraphs[i] = x.element("p",
+              x.text("Some text with "),
+              x.element("b", x.text("bold")),
+              x.text(" and "),
+              x.element("i", x.text("italic & escaped")),
+              x.text(" words, followed by a "),
+              x.element("a", x.attributes(attribute("href", "http://example.com/" + i)), x.text("link")),
+              x.text(".")
+          );
+        }
+        return x.element("body", paragraphs);
+      }
+    };
+
+    abstract XmlElementBuilder<String> create(final StringXmlBuilder x);
+
+    @SuppressWarnings("unchecked")
+    private static XmlChildNodeBuilder<String>[] children(final int count) {
+      return new XmlChildNodeBuilder[count];
+    }
+  }
+
+  @Param
+  public Shape shape;
+
+  @Param({"true", "false"})
+  public boolean indent;
+
+  private StringXmlBuilder builder;
+  private XmlElementBuilder<String> tree;
+
+  @Setup
+  public void setup() {
+    this.builder = new StringXmlBuilder(indent ? "  " : null);
+    this.tree = shape.create(builder);
+  }
+
+  @Benchmark
+  public String build() {
+    return tree.build();
+  }
+
+  @Benchmark
+  public String constructAndBuild() {
+    return shape.create(builder).build();
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    final Options options = new OptionsBuilder()
+        .include(StringXmlBuilderBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(options).run();
+  }
+}
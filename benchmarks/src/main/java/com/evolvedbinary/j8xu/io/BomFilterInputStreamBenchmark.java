@@ -0,0 +1,265 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.io;
+
+import com.evolvedbinary.j8xu.BOM;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link BomFilterInputStream#parseBom()} and reading through
+ * a {@link BomFilterInputStream}, compared with reading the same source directly.
+ *
+ * Each benchmark opens a new stream over the source for each invocation, as is done
+ * for each inbound file, and then consumes all of it. The input starts with each
+ * {@link BOM}, or with no BOM at all.
+ *
+ * NOTE(AR) each benchmark takes the state which has only the parameters that it uses,
+ * so that the run matrix is not multiplied by parameters that would measure nothing new.
+ *
+ * Run with the GC profiler to also report the allocation rate, e.g.
+ * {@code java -jar benchmarks/target/benchmarks.jar BomFilterInputStreamBenchmark -prof gc},
+ * or via {@link #main(String[])} which adds it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BomFilterInputStreamBenchmark {
+
+    private static final String NO_BOM = "NONE";
+    private static final byte[] CONTENT = "<?xml version=\"1.0\"?><doc>some content</doc>\n".getBytes(StandardCharsets.UTF_8);
+
+    public enum Source {
+        BYTE_ARRAY {
+            @Override
+            InputStream open(final Input input) {
+                return new ByteArrayInputStream(input.input);
+            }
+        },
+        BUFFERED {
+            @Override
+            InputStream open(final Input input) {
+                return new BufferedInputStream(new ByteArrayInputStream(input.input));
+            }
+        },
+        FILE {
+            @Override
+            InputStream open(final Input input) throws IOException {
+                return new FileInputStream(input.file.toFile());
+            }
+        };
+
+        abstract InputStream open(final Input input) throws IOException;
+    }
+
+    /**
+     * An input which starts with a BOM, followed by a single copy of the content.
+     */
+    @State(Scope.Thread)
+    public static class Input {
+        @Param({NO_BOM, "UTF_8", "UTF_16_BE", "UTF_16_LE", "UTF_32_BE", "UTF_32_LE", "SCSU", "BOCU_1", "GB_18030"})
+        public String bom;
+
+        @Param
+        public Source source;
+
+        byte[] input;
+        @Nullable Path file;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            final byte[] bomBytes = NO_BOM.equals(bom) ? new byte[0] : BOM.valueOf(bom).getBomBytes();
+            this.input = new byte[bomBytes.length + contentSize()];
+            System.arraycopy(bomBytes, 0, input, 0, bomBytes.length);
+            for (int i = bomBytes.length; i < input.length; i += CONTENT.length) {
+                System.arraycopy(CONTENT, 0, input, i, Math.min(CONTENT.length, input.length - i));
+            }
+
+            if (source == Source.FILE) {
+                this.file = Files.createTempFile("j8xu-bom-benchmark", ".xml");
+                Files.write(file, input);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            if (file != null) {
+                Files.delete(file);
+            }
+        }
+
+        /**
+         * Get the number of bytes in the input after the BOM.
+         *
+         * @return the number of bytes.
+         */
+        int contentSize() {
+            return CONTENT.length;
+        }
+
+        InputStream open() throws IOException {
+            return source.open(this);
+        }
+    }
+
+    /**
+     * An input of a parameterized size.
+     */
+    public static class SizedInput extends Input {
+        /**
+         * The total number of bytes in the input after the BOM.
+         */
+        @Param({"64", "65536"})
+        public int inputSize;
+
+        @Override
+        int contentSize() {
+            return inputSize;
+        }
+    }
+
+    /**
+     * An input of a parameterized size, which is read or skipped in chunks of a parameterized size.
+     */
+    public static class ChunkedInput extends SizedInput {
+        /**
+         * The number of bytes requested by each read or skip.
+         */
+        @Param({"16", "8192"})
+        public int readSize;
+
+        byte[] readBuffer;
+
+        @Override
+        public void setup() throws IOException {
+            super.setup();
+            this.readBuffer = new byte[readSize];
+        }
+    }
+
+    @Benchmark
+    public BOM parseBom(final Input input) throws IOException {
+        try (final BomFilterInputStream is = new BomFilterInputStream(input.open())) {
+            return is.parseBom();
+        }
+    }
+
+    @Benchmark
+    public long readBare(final ChunkedInput input) throws IOException {
+        try (final InputStream is = input.open()) {
+            return readAll(is, input);
+        }
+    }
+
+    @Benchmark
+    public long readFiltered(final ChunkedInput input, final Blackhole blackhole) throws IOException {
+        try (final BomFilterInputStream is = new BomFilterInputStream(input.open())) {
+            blackhole.consume(is.parseBom());
+            return readAll(is, input);
+        }
+    }
+
+    @Benchmark
+    public long readSingleBytesBare(final SizedInput input) throws IOException {
+        try (final InputStream is = input.open()) {
+            return readAllSingleBytes(is);
+        }
+    }
+
+    @Benchmark
+    public long readSingleBytesFiltered(final SizedInput input, final Blackhole blackhole) throws IOException {
+        try (final BomFilterInputStream is = new BomFilterInputStream(input.open())) {
+            blackhole.consume(is.parseBom());
+            return readAllSingleBytes(is);
+        }
+    }
+
+    @Benchmark
+    public long skipBare(final ChunkedInput input) throws IOException {
+        try (final InputStream is = input.open()) {
+            return skipAll(is, input);
+        }
+    }
+
+    @Benchmark
+    public long skipFiltered(final ChunkedInput input, final Blackhole blackhole) throws IOException {
+        try (final BomFilterInputStream is = new BomFilterInputStream(input.open())) {
+            blackhole.consume(is.parseBom());
+            return skipAll(is, input);
+        }
+    }
+
+    private static long readAll(final InputStream is, final ChunkedInput input) throws IOException {
+        long total = 0;
+        int read;
+        while ((read = is.read(input.readBuffer, 0, input.readSize)) != -1) {
+            total += read;
+        }
+        return total;
+    }
+
+    private static long readAllSingleBytes(final InputStream is) throws IOException {
+        long total = 0;
+        int b;
+        while ((b = is.read()) != -1) {
+            total += b;
+        }
+        return total;
+    }
+
+    private static long skipAll(final InputStream is, final ChunkedInput input) throws IOException {
+        // NOTE(AR) skip may legitimately skip beyond the end of some streams, so stop at the size of the input
+        long total = 0;
+        long skipped;
+        while (total < input.input.length && (skipped = is.skip(input.readSize)) > 0) {
+            total += skipped;
+        }
+        return total;
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final Options options = new OptionsBuilder()
+                .include(BomFilterInputStreamBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.api;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Policy which decides when output that is streamed to a slow consumer should be flushed,
+ * so that the time to the first byte can be traded against the number of flushes (e.g. syscalls).
+ *
+ * The policy is consulted each time an element ends, so a flush never splits a tag.
+ * There is no background timer, so a time based policy flushes at the first element
+ * that ends after the time has elapsed.
+ */
+@FunctionalInterface
+public interface FlushPolicy {
+
+  /**
+   * Decide whether to flush the output.
+   *
+   * @param unflushed the length of the output written since the last flush, in the units of the builder (e.g. chars or bytes), always greater than zero.
+   * @param nanosSinceFlush the wall clock time since the last flush, or since the build started if there has not been a flush, in nanoseconds.
+   * @param depth the depth of the element that has just ended, the root is at depth 0.
+   *
+   * @return true if the output should be flushed.
+   */
+  boolean shouldFlush(long unflushed, long nanosSinceFlush, int depth);
+
+  /**
+   * Combine this policy with another, so that the output is flushed when either of them would flush it.
+   *
+   * @param other the other policy.
+   *
+   * @return the combined policy.
+   */
+  default FlushPolicy or(final FlushPolicy other) {
+    return (unflushed, nanosSinceFlush, depth) -> shouldFlush(unflushed, nanosSinceFlush, depth) || other.shouldFlush(unflushed, nanosSinceFlush, depth);
+  }
+
+  /**
+   * Flush whenever at least a given length of output has been written since the last flush.
+   *
+   * @param length the length, in the units of the builder (e.g. chars or bytes).
+   *
+   * @return the policy.
+   */
+  static FlushPolicy afterLength(final long length) {
+    if (length <= 0) {
+      throw new IllegalArgumentException("length must be greater than zero");
+    }
+    return (unflushed, nanosSinceFlush, depth) -> unflushed >= length;
+  }
+
+  /**
+   * Flush whenever an element at or above a given depth ends, e.g. a depth of 1
+   * flushes after each child of the root element.
+   *
+   * @param depth the depth, the root is at depth 0.
+   *
+   * @return the policy.
+   */
+  static FlushPolicy atDepth(final int depth) {
+    if (depth < 0) {
+      throw new IllegalArgumentException("depth must not be negative");
+    }
+    return (unflushed, nanosSinceFlush, elementDepth) -> elementDepth <= depth;
+  }
+
+  /**
+   * Flush whenever at least a given time has elapsed since the last flush.
+   *
+   * @param time the time.
+   * @param unit the unit of the time.
+   *
+   * @return the policy.
+   */
+  static FlushPolicy afterTime(final long time, final TimeUnit unit) {
+    final long nanos = unit.toNanos(time);
+    return (unflushed, nanosSinceFlush, depth) -> nanosSinceFlush >= nanos;
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.api;
+
+import javax.annotation.Nullable;
+
+/**
+ * Listener which is notified as nodes are built, for example to collect metrics
+ * about the cost of building documents.
+ *
+ * All of the methods have empty default implementations, so a listener need
+ * only override those that it is interested in. When no listener is registered
+ * with a builder, none of these methods are called.
+ *
+ * If a builder that a listener is registered with is shared between threads,
+ * or builds the children of elements in parallel, then the listener may be
+ * notified concurrently from several threads, and so must be thread-safe.
+ */
+public interface XmlBuildListener {
+
+  /**
+   * Called when a build of a tree of nodes starts.
+   */
+  default void startBuild() {
+  }
+
+  /**
+   * Called when a build of a tree of nodes completes successfully.
+   *
+   * @param length the length of the output, in the units of the builder (e.g. chars or bytes),
+   *     or -1 if it is not known, which is only the case when compiling a template.
+   * @param nanos the wall clock time taken by the build, in nanoseconds.
+   */
+  default void endBuild(final long length, final long nanos) {
+  }
+
+  /**
+   * Called when a document starts to be built.
+   */
+  default void startDocument() {
+  }
+
+  /**
+   * Called when a document has been built.
+   */
+  default void endDocument() {
+  }
+
+  /**
+   * Called when an element starts to be built.
+   *
+   * @param namespace the namespace of the element, or null.
+   * @param localName the local name of the element.
+   * @param prefix the prefix of the element, or null.
+   * @param depth the depth of the element within the tree, the root is at depth 0.
+   */
+  default void startElement(@Nullable final String namespace, final String localName, @Nullable final String prefix, final int depth) {
+  }
+
+  /**
+   * Called when an element has been built.
+   *
+   * @param namespace the namespace of the element, or null.
+   * @param localName the local name of the element.
+   * @param prefix the prefix of the element, or null.
+   * @param depth the depth of the element within the tree, the root is at depth 0.
+   */
+  default void endElement(@Nullable final String namespace, final String localName, @Nullable final String prefix, final int depth) {
+  }
+
+  /**
+   * Called when a namespace declaration is written.
+   *
+   * @param namespace the namespace.
+   * @param prefix the prefix bound to the namespace, or null for the default namespace.
+   */
+  default void namespaceDeclared(final String namespace, @Nullable final String prefix) {
+  }
+
+  /**
+   * Called when a text node is built.
+   */
+  default void text() {
+  }
+
+  /**
+   * Called when a comment node is built.
+   */
+  default void comment() {
+  }
+
+  /**
+   * Called when a CDATA section is built.
+   */
+  default void cdata() {
+  }
+}
@@ -26,6 +26,13 @@
  */
 package com.evolvedbinary.j8xu.builder.api;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
 /**
  * Interface for a builder class that builds an XML document or fragment.
  *
@@ -135,7 +142,7 @@ public interface XmlBuilder<T> {
    * @return the element node builder.
    */
   @SuppressWarnings("unchecked")
-  XmlElementBuilder<T> element(final String localName, final XmlChildNodeBuilder<String>... children);
+  XmlElementBuilder<T> element(final String localName, final XmlChildNodeBuilder<T>... children);
 
   /**
    * Create a builder for building an XML Element Node.
@@ -183,6 +190,133 @@ public interface XmlBuilder<T> {
   @SuppressWarnings("unchecked")
   XmlElementBuilder<T> element(final String namespace, final String localName, final String prefix, final XmlChildNodeBuilder<T>... children);
 
+  /**
+   * Create a builder for building an XML Element Node whose children are pulled lazily.
+   *
+   * The children are only requested from the {@link Iterable} whilst the element is being built,
+   * and so do not need to all be created up-front. This allows very large documents to be built
+   * with memory bounded by the depth of the document rather than its size.
+   *
+   * The default implementation collects the children up-front and then calls
+   * {@link #element(String, String, String, XmlAttributesBuilder, XmlChildNodeBuilder[])},
+   * implementations should override it to pull the children lazily.
+   *
+   * @param namespace the namespace in which the element resides, or null.
+   * @param localName the local name of the element.
+   * @param prefix the namespace prefix for the element, or null.
+   * @param attributes the attributes of the element, or null.
+   * @param children the child nodes (builders) of the element.
+   *
+   * @return the element node builder.
+   */
+  @SuppressWarnings("unchecked")
+  default XmlElementBuilder<T> element(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<T> attributes, final Iterable<? extends XmlChildNodeBuilder<T>> children) {
+    final List<XmlChildNodeBuilder<T>> list = new ArrayList<>();
+    for (final XmlChildNodeBuilder<T> child : children) {
+      list.add(child);
+    }
+    return element(namespace, localName, prefix, attributes, list.toArray(new XmlChildNodeBuilder[0]));
+  }
+
+  /**
+   * Create a builder for building an XML Element Node whose children are pulled lazily.
+   *
+   * See {@link #element(String, String, String, XmlAttributesBuilder, Iterable)}.
+   *
+   * @param localName the local name of the element.
+   * @param children the child nodes (builders) of the element.
+   *
+   * @return the element node builder.
+   */
+  default XmlElementBuilder<T> element(final String localName, final Iterable<? extends XmlChildNodeBuilder<T>> children) {
+    return element(null, localName, null, null, children);
+  }
+
+  /**
+   * Create a builder for building an XML Element Node whose children are pulled lazily.
+   *
+   * As an Iterator can only be consumed once, the element builder can only be built once.
+   * See {@link #element(String, String, String, XmlAttributesBuilder, Iterable)}.
+   *
+   * @param namespace the namespace in which the element resides, or null.
+   * @param localName the local name of the element.
+   * @param prefix the namespace prefix for the element, or null.
+   * @param attributes the attributes of the element, or null.
+   * @param children the child nodes (builders) of the element.
+   *
+   * @return the element node builder.
+   */
+  default XmlElementBuilder<T> element(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<T> attributes, final Iterator<? extends XmlChildNodeBuilder<T>> children) {
+    return element(namespace, localName, prefix, attributes, new SingleUseIterable<>(children));
+  }
+
+  /**
+   * Create a builder for building an XML Element Node whose children are pulled lazily.
+   *
+   * As an Iterator can only be consumed once, the element builder can only be built once.
+   * See {@link #element(String, String, String, XmlAttributesBuilder, Iterable)}.
+   *
+   * @param localName the local name of the element.
+   * @param children the child nodes (builders) of the element.
+   *
+   * @return the element node builder.
+   */
+  default XmlElementBuilder<T> element(final String localName, final Iterator<? extends XmlChildNodeBuilder<T>> children) {
+    return element(null, localName, null, null, children);
+  }
+
+  /**
+   * Create a builder for building an XML Element Node whose children are pulled lazily.
+   *
+   * As a Stream can only be consumed once, the element builder can only be built once.
+   * The stream is not closed by the element builder.
+   * See {@link #element(String, String, String, XmlAttributesBuilder, Iterable)}.
+   *
+   * @param namespace the namespace in which the element resides, or null.
+   * @param localName the local name of the element.
+   * @param prefix the namespace prefix for the element, or null.
+   * @param attributes the attributes of the element, or null.
+   * @param children the child nodes (builders) of the element.
+   *
+   * @return the element node builder.
+   */
+  default XmlElementBuilder<T> element(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<T> attributes, final Stream<? extends XmlChildNodeBuilder<T>> children) {
+    return element(namespace, localName, prefix, attributes, new SingleUseIterable<>(children.iterator()));
+  }
+
+  /**
+   * Create a builder for building an XML Element Node whose children are pulled lazily.
+   *
+   * As a Stream can only be consumed once, the element builder can only be built once.
+   * The stream is not closed by the element builder.
+   * See {@link #element(String, String, String, XmlAttributesBuilder, Iterable)}.
+   *
+   * @param localName the local name of the element.
+   * @param children the child nodes (builders) of the element.
+   *
+   * @return the element node builder.
+   */
+  default XmlElementBuilder<T> element(final String localName, final Stream<? extends XmlChildNodeBuilder<T>> children) {
+    return element(null, localName, null, null, children);
+  }
+
+  /**
+   * Utility method for lazily supplying the children of an element,
+   * for use with {@link #element(String, String, String, XmlAttributesBuilder, Iterable)}.
+   *
+   * The supplier is called for each child whilst the element is being built,
+   * until it returns null. As a supplier is typically stateful, the element
+   * builder can only be built once.
+   *
+   * @param <T> the result of the build.
+   * @param supplier the supplier of the child nodes (builders), which returns null when there are no more.
+   *
+   * @return the child nodes (builders).
+   */
+  static <T> Iterable<XmlChildNodeBuilder<T>> children(final Supplier<? extends XmlChildNodeBuilder<T>> supplier) {
+    return new SingleUseIterable<>(new SupplierIterator<>(supplier));
+  }
+
   /**
    * Create a builder for building an XML Attribute Node(s).
    *
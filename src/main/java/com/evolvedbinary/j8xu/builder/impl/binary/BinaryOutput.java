@@ -0,0 +1,122 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.binary;
+
+import com.evolvedbinary.j8xu.builder.impl.utf8.Utf8Output;
+
+import javax.annotation.Nullable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.evolvedbinary.j8xu.builder.impl.binary.BinaryXmlFormat.MAGIC;
+import static com.evolvedbinary.j8xu.builder.impl.binary.BinaryXmlFormat.VERSION;
+import static com.evolvedbinary.j8xu.builder.impl.binary.BinaryXmlFormat.isTableable;
+
+/**
+ * Encodes nodes in the compact binary XML format (see {@link BinaryXmlFormat})
+ * to a {@link Utf8Output}.
+ *
+ * The string table is held by the output, so all nodes written to the same output share it.
+ */
+public class BinaryOutput implements Flushable {
+  private final Utf8Output out;
+  private final Map<String, Integer> table = new HashMap<>();
+
+  /**
+   * Constructor.
+   *
+   * Writes the header of the stream to the output.
+   *
+   * @param out the output to write to.
+   *
+   * @throws IOException if an error occurs whilst writing the header.
+   */
+  public BinaryOutput(final Utf8Output out) throws IOException {
+    this.out = out;
+    out.write(MAGIC);
+    out.write(VERSION);
+  }
+
+  void writeToken(final byte token) throws IOException {
+    out.write(token);
+  }
+
+  /**
+   * Write a string, either as a reference to the string table,
+   * or if it is not yet in the table, then in full.
+   *
+   * @param s the string, may be null.
+   *
+   * @throws IOException if an error occurs whilst writing.
+   */
+  void writeString(@Nullable final String s) throws IOException {
+    if (s == null) {
+      writeVarint(0);
+      return;
+    }
+
+    @Nullable final Integer index = table.get(s);
+    if (index != null) {
+      writeVarint((index << 1) | 1);
+      return;
+    }
+
+    final int length = Utf8Output.encodedLength(s);
+    writeVarint((length + 1) << 1);
+    out.write(s);
+    if (isTableable(table.size(), length)) {
+      table.put(s, table.size());
+    }
+  }
+
+  /**
+   * Write a string in full.
+   *
+   * @param s the string.
+   *
+   * @throws IOException if an error occurs whilst writing.
+   */
+  void writeLiteral(final String s) throws IOException {
+    writeVarint(Utf8Output.encodedLength(s));
+    out.write(s);
+  }
+
+  private void writeVarint(int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.write((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.write((byte) value);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    out.flush();
+  }
+}
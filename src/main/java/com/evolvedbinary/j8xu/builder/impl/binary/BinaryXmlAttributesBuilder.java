@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.binary;
+
+import com.evolvedbinary.j8xu.builder.api.XmlAttribute;
+import com.evolvedbinary.j8xu.builder.api.XmlAttributesBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static com.evolvedbinary.j8xu.builder.impl.binary.BinaryXmlFormat.ATTRIBUTE;
+
+public class BinaryXmlAttributesBuilder implements XmlAttributesBuilder<ByteBuffer>, BinaryXmlNodeBuilder {
+  private final XmlAttribute[] attributes;
+
+  BinaryXmlAttributesBuilder(final XmlAttribute[] attributes) {
+    this.attributes = attributes;
+  }
+
+  @Override
+  public void buildTo(final BinaryOutput out) throws IOException {
+    for (int i = 0; i < attributes.length; i++) {
+      final XmlAttribute attribute = attributes[i];
+      out.writeToken(ATTRIBUTE);
+      out.writeString(attribute.name);
+      // NOTE(AR) attribute values are often repeated, so they are also candidates for the string table
+      out.writeString(String.valueOf(attribute.value));
+    }
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.binary;
+
+import com.evolvedbinary.j8xu.builder.api.*;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+
+/**
+ * An implementation of an XML Builder that builds a compact binary representation.
+ *
+ * Names, namespaces, and attribute values are written to a string table the first time
+ * they are encountered, and thereafter are only referenced by their index in the table.
+ * Nothing is escaped, and lengths are written as variable length integers.
+ *
+ * The node builders produced by this builder may also be written directly
+ * to an {@link java.io.OutputStream} via {@link BinaryXmlNodeBuilder#buildTo(java.io.OutputStream)},
+ * or to a reusable {@link BinaryOutput} via {@link BinaryXmlNodeBuilder#buildTo(BinaryOutput)}.
+ *
+ * The binary representation may be replayed into any other XML Builder by a {@link BinaryXmlDecoder}.
+ */
+public class BinaryXmlBuilder implements XmlBuilder<ByteBuffer> {
+
+  @SuppressWarnings("unchecked")
+  private static final XmlChildNodeBuilder<ByteBuffer>[] NO_CHILDREN = new XmlChildNodeBuilder[0];
+
+  @SafeVarargs
+  @Override
+  public final BinaryXmlDocumentBuilder document(final XmlChildNodeBuilder<ByteBuffer>... children) {
+    return new BinaryXmlDocumentBuilder(children);
+  }
+
+  @Override
+  public final BinaryXmlElementBuilder element(final String localName, final XmlAttributesBuilder<ByteBuffer> attributes) {
+    return element(null, localName, null, attributes, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final BinaryXmlElementBuilder element(final String localName, final XmlAttributesBuilder<ByteBuffer> attributes, final XmlChildNodeBuilder<ByteBuffer>... children) {
+    return element(null, localName, null, attributes, children);
+  }
+
+  @Override
+  public final BinaryXmlElementBuilder element(final String namespace, final String localName, final XmlAttributesBuilder<ByteBuffer> attributes) {
+    return element(namespace, localName, null, attributes, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final BinaryXmlElementBuilder element(final String namespace, final String localName, final XmlAttributesBuilder<ByteBuffer> attributes, final XmlChildNodeBuilder<ByteBuffer>... children) {
+    return element(namespace, localName, null, attributes, children);
+  }
+
+  @Override
+  public final BinaryXmlElementBuilder element(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<ByteBuffer> attributes) {
+    return new BinaryXmlElementBuilder(namespace, localName, prefix, attributes, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final BinaryXmlElementBuilder element(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<ByteBuffer> attributes, final XmlChildNodeBuilder<ByteBuffer>... children) {
+    return new BinaryXmlElementBuilder(namespace, localName, prefix, attributes, children);
+  }
+
+  @Override
+  public final BinaryXmlElementBuilder element(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<ByteBuffer> attributes, final Iterable<? extends XmlChildNodeBuilder<ByteBuffer>> children) {
+    return new BinaryXmlElementBuilder(namespace, localName, prefix, attributes, children);
+  }
+
+  @Override
+  public final BinaryXmlElementBuilder element(final String localName) {
+    return element(null, localName, null, null, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final BinaryXmlElementBuilder element(final String localName, final XmlChildNodeBuilder<ByteBuffer>... children) {
+    return element(null, localName, null, null, children);
+  }
+
+  @Override
+  public final BinaryXmlElementBuilder element(final String namespace, final String localName) {
+    return element(namespace, localName, null, null, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final BinaryXmlElementBuilder element(final String namespace, final String localName, final XmlChildNodeBuilder<ByteBuffer>... children) {
+    return element(namespace, localName, null, null, children);
+  }
+
+  @Override
+  public final BinaryXmlElementBuilder element(final String namespace, final String localName, final String prefix) {
+    return element(namespace, localName, prefix, null, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final BinaryXmlElementBuilder element(final String namespace, final String localName, final String prefix, final XmlChildNodeBuilder<ByteBuffer>... children) {
+    return element(namespace, localName, prefix, null, children);
+  }
+
+  @SafeVarargs
+  @Override
+  public final BinaryXmlAttributesBuilder attributes(final XmlAttribute... attributes) {
+    return new BinaryXmlAttributesBuilder(attributes);
+  }
+
+  @Override
+  public final BinaryXmlTextBuilder text(final String content) {
+    return new BinaryXmlTextBuilder(content);
+  }
+
+  @Override
+  public final BinaryXmlCommentBuilder comment(final String content) {
+    return new BinaryXmlCommentBuilder(content);
+  }
+
+  @Override
+  public final BinaryXmlCdataBuilder cdata(final String content) {
+    return new BinaryXmlCdataBuilder(content);
+  }
+}
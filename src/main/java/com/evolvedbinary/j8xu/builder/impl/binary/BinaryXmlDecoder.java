@@ -0,0 +1,321 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.binary;
+
+import com.evolvedbinary.j8xu.builder.api.XmlAttribute;
+import com.evolvedbinary.j8xu.builder.api.XmlAttributesBuilder;
+import com.evolvedbinary.j8xu.builder.api.XmlBuilder;
+import com.evolvedbinary.j8xu.builder.api.XmlChildNodeBuilder;
+import com.evolvedbinary.j8xu.builder.api.XmlNodeBuilder;
+
+import javax.annotation.Nullable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.evolvedbinary.j8xu.builder.impl.binary.BinaryXmlFormat.*;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A streaming decoder for the compact binary representation produced by a {@link BinaryXmlBuilder}.
+ *
+ * Each decoded node is replayed into an XML Builder, so that the binary representation
+ * can be converted into any other representation, for example:
+ * <pre>{@code
+ *   final BinaryXmlDecoder decoder = new BinaryXmlDecoder(in);
+ *   final XmlNodeBuilder<String> node = decoder.next(new StringXmlBuilder());
+ *   final String xml = node.build();
+ * }</pre>
+ *
+ * Instances of this class are not thread-safe.
+ */
+public class BinaryXmlDecoder {
+  private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+  @SuppressWarnings("unchecked")
+  private static final XmlChildNodeBuilder[] NO_CHILDREN = new XmlChildNodeBuilder[0];
+  private static final XmlAttribute[] NO_ATTRIBUTES = new XmlAttribute[0];
+
+  @Nullable private final InputStream in;
+  private final byte[] buf;
+  private int pos;
+  private int limit;
+
+  private final List<String> table = new ArrayList<>();
+  private boolean readHeader;
+
+  /**
+   * Constructor.
+   *
+   * @param in the input stream to decode from.
+   */
+  public BinaryXmlDecoder(final InputStream in) {
+    this.in = in;
+    this.buf = new byte[DEFAULT_BUFFER_SIZE];
+    this.pos = 0;
+    this.limit = 0;
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param in the buffer to decode from, the remaining bytes of the buffer are decoded.
+   */
+  public BinaryXmlDecoder(final ByteBuffer in) {
+    this.in = null;
+    if (in.hasArray()) {
+      this.buf = in.array();
+      this.pos = in.arrayOffset() + in.position();
+      this.limit = in.arrayOffset() + in.limit();
+    } else {
+      this.buf = new byte[in.remaining()];
+      in.duplicate().get(buf);
+      this.pos = 0;
+      this.limit = buf.length;
+    }
+  }
+
+  /**
+   * Decode the next node and replay it into an XML Builder.
+   *
+   * @param <T> the type of the representation produced by the XML Builder.
+   * @param builder the XML Builder to replay the node into.
+   *
+   * @return the node builder for the decoded node, or null if there are no more nodes.
+   *
+   * @throws IOException if an error occurs whilst reading, or the input is not valid.
+   */
+  public @Nullable <T> XmlNodeBuilder<T> next(final XmlBuilder<T> builder) throws IOException {
+    if (!readHeader) {
+      readHeader();
+      readHeader = true;
+    }
+
+    if (pos == limit && !fill()) {
+      return null;
+    }
+
+    final byte token = readByte();
+    if (token == DOCUMENT) {
+      return builder.document(readChildren(readByte(), builder));
+    }
+    return readChild(token, builder);
+  }
+
+  private void readHeader() throws IOException {
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (readByte() != MAGIC[i]) {
+        throw new IOException("Input is not in the binary XML format");
+      }
+    }
+    final byte version = readByte();
+    if (version != VERSION) {
+      throw new IOException("Unsupported binary XML format version: " + version);
+    }
+  }
+
+  /**
+   * Read child nodes up to and including the END token.
+   *
+   * @param token the first token of the children.
+   * @param builder the XML Builder to replay the child nodes into.
+   */
+  @SuppressWarnings("unchecked")
+  private <T> XmlChildNodeBuilder<T>[] readChildren(byte token, final XmlBuilder<T> builder) throws IOException {
+    if (token == END) {
+      return NO_CHILDREN;
+    }
+
+    final List<XmlChildNodeBuilder<T>> children = new ArrayList<>();
+    do {
+      children.add(readChild(token, builder));
+      token = readByte();
+    } while (token != END);
+
+    return children.toArray(NO_CHILDREN);
+  }
+
+  private <T> XmlChildNodeBuilder<T> readChild(final byte token, final XmlBuilder<T> builder) throws IOException {
+    switch (token) {
+      case ELEMENT:
+        return readElement(builder);
+
+      case TEXT:
+        return builder.text(readLiteral());
+
+      case COMMENT:
+        return builder.comment(readLiteral());
+
+      case CDATA:
+        return builder.cdata(readLiteral());
+
+      default:
+        throw new IOException("Unexpected token: " + token);
+    }
+  }
+
+  private <T> XmlChildNodeBuilder<T> readElement(final XmlBuilder<T> builder) throws IOException {
+    @Nullable final String namespace = readString();
+    @Nullable final String prefix = readString();
+    @Nullable final String localName = readString();
+    if (localName == null) {
+      throw new IOException("Element has no local name");
+    }
+
+    XmlAttribute[] attributes = NO_ATTRIBUTES;
+    int attributesCount = 0;
+    byte token;
+    while ((token = readByte()) == ATTRIBUTE) {
+      @Nullable final String name = readString();
+      if (name == null) {
+        throw new IOException("Attribute has no name");
+      }
+      final String value = readString();
+      if (attributesCount == attributes.length) {
+        attributes = Arrays.copyOf(attributes, Math.max(4, attributesCount * 2));
+      }
+      attributes[attributesCount++] = new XmlAttribute<>(name, value);
+    }
+
+    @Nullable final XmlAttributesBuilder<T> attributesBuilder;
+    if (attributesCount > 0) {
+      attributesBuilder = builder.attributes(attributesCount == attributes.length ? attributes : Arrays.copyOf(attributes, attributesCount));
+    } else {
+      attributesBuilder = null;
+    }
+
+    final XmlChildNodeBuilder<T>[] children = readChildren(token, builder);
+    return builder.element(namespace, localName, prefix, attributesBuilder, children);
+  }
+
+  @Nullable private String readString() throws IOException {
+    final int value = readVarint();
+    if (value == 0) {
+      return null;
+    }
+
+    if ((value & 1) == 1) {
+      final int index = value >>> 1;
+      if (index >= table.size()) {
+        throw new IOException("Invalid string table reference: " + index);
+      }
+      return table.get(index);
+    }
+
+    final int length = (value >>> 1) - 1;
+    final String s = readUtf8(length);
+    if (isTableable(table.size(), length)) {
+      table.add(s);
+    }
+    return s;
+  }
+
+  private String readLiteral() throws IOException {
+    return readUtf8(readVarint());
+  }
+
+  private String readUtf8(final int length) throws IOException {
+    if (length < 0) {
+      throw new IOException("Invalid string length: " + length);
+    }
+
+    if (length <= limit - pos) {
+      final String s = new String(buf, pos, length, UTF_8);
+      pos += length;
+      return s;
+    }
+
+    if (in == null) {
+      // NOTE(AR) the whole input is in the buffer, so the string cannot be complete
+      throw new EOFException("String of length " + length + " exceeds the remaining " + (limit - pos) + " bytes of the input");
+    }
+
+    // NOTE(AR) the string spans the end of the buffer, so gather it into a new array, which is grown
+    // as the bytes arrive rather than allocated up-front, as a corrupt length may be far larger than the input
+    byte[] bytes = new byte[Math.min(length, buf.length)];
+    int read = 0;
+    while (read < length) {
+      if (pos == limit && !fill()) {
+        throw new EOFException();
+      }
+      if (read == bytes.length) {
+        bytes = Arrays.copyOf(bytes, (int) Math.min(length, bytes.length * 2L));
+      }
+      final int len = Math.min(bytes.length - read, limit - pos);
+      System.arraycopy(buf, pos, bytes, read, len);
+      pos += len;
+      read += len;
+    }
+    return new String(bytes, UTF_8);
+  }
+
+  private int readVarint() throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      final byte b = readByte();
+      value |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable length integer");
+  }
+
+  private byte readByte() throws IOException {
+    if (pos == limit && !fill()) {
+      throw new EOFException();
+    }
+    return buf[pos++];
+  }
+
+  /**
+   * Fill the buffer from the input stream.
+   *
+   * @return true if some bytes were read, false if the end of the input was reached.
+   */
+  private boolean fill() throws IOException {
+    if (in == null) {
+      return false;
+    }
+
+    int read;
+    do {
+      read = in.read(buf, 0, buf.length);
+    } while (read == 0);
+
+    if (read == -1) {
+      return false;
+    }
+    pos = 0;
+    limit = read;
+    return true;
+  }
+}
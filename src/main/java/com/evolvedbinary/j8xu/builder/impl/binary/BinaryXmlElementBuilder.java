@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.binary;
+
+import com.evolvedbinary.j8xu.builder.api.XmlAttributesBuilder;
+import com.evolvedbinary.j8xu.builder.api.XmlChildNodeBuilder;
+import com.evolvedbinary.j8xu.builder.api.XmlElementBuilder;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+
+import static com.evolvedbinary.j8xu.builder.impl.binary.BinaryXmlFormat.ELEMENT;
+import static com.evolvedbinary.j8xu.builder.impl.binary.BinaryXmlFormat.END;
+
+/**
+ * An implementation of an XML Element Builder that builds a compact binary representation.
+ */
+public class BinaryXmlElementBuilder implements XmlElementBuilder<ByteBuffer>, BinaryXmlNodeBuilder {
+  @Nullable private final String namespace;
+  private final String localName;
+  private @Nullable final String prefix;
+  private @Nullable final XmlAttributesBuilder<ByteBuffer> attributes;
+  @Nullable private final XmlChildNodeBuilder<ByteBuffer>[] children;
+  @Nullable private final Iterable<? extends XmlChildNodeBuilder<ByteBuffer>> lazyChildren;
+
+  @SafeVarargs
+  BinaryXmlElementBuilder(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<ByteBuffer> attributes, final XmlChildNodeBuilder<ByteBuffer>... children) {
+    this.namespace = namespace;
+    this.localName = localName;
+    this.prefix = prefix;
+    this.attributes = attributes;
+    this.children = children;
+    this.lazyChildren = null;
+  }
+
+  BinaryXmlElementBuilder(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<ByteBuffer> attributes, final Iterable<? extends XmlChildNodeBuilder<ByteBuffer>> children) {
+    this.namespace = namespace;
+    this.localName = localName;
+    this.prefix = prefix;
+    this.attributes = attributes;
+    this.children = null;
+    this.lazyChildren = children;
+  }
+
+  @Override
+  public void buildTo(final BinaryOutput out) throws IOException {
+    out.writeToken(ELEMENT);
+    out.writeString(namespace);
+    out.writeString(prefix);
+    out.writeString(localName);
+
+    if (attributes != null) {
+      BinaryXmlNodeBuilder.buildTo(attributes, out);
+    }
+
+    if (lazyChildren != null) {
+      for (final XmlChildNodeBuilder<ByteBuffer> child : lazyChildren) {
+        BinaryXmlNodeBuilder.buildTo(child, out);
+      }
+    } else if (children != null) {
+      for (int i = 0; i < children.length; i++) {
+        BinaryXmlNodeBuilder.buildTo(children[i], out);
+      }
+    }
+
+    out.writeToken(END);
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.binary;
+
+/**
+ * Constants of the compact binary XML format.
+ *
+ * A stream starts with a header, and is then followed by one or more nodes:
+ * <pre>
+ *   stream    := MAGIC VERSION node*
+ *   node      := document | element | text | comment | cdata
+ *   document  := DOCUMENT node* END
+ *   element   := ELEMENT string(namespace) string(prefix) string(localName) attribute* node* END
+ *   attribute := ATTRIBUTE string(name) string(value)
+ *   text      := TEXT literal
+ *   comment   := COMMENT literal
+ *   cdata     := CDATA literal
+ *
+ *   string    := varint(0)                            a null string
+ *              | varint((index &lt;&lt; 1) | 1)            a reference to the string table
+ *              | varint((length + 1) &lt;&lt; 1) utf8-bytes  a string which is added to the string table
+ *   literal   := varint(length) utf8-bytes
+ *   varint    := unsigned LEB128
+ * </pre>
+ *
+ * The string table is built implicitly by both the encoder and decoder as strings are encountered,
+ * so it is never transmitted. Only strings of up to {@link #MAX_TABLE_STRING_LENGTH} bytes are
+ * added to the table, and only until it contains {@link #MAX_TABLE_SIZE} entries.
+ */
+final class BinaryXmlFormat {
+
+  static final byte[] MAGIC = { 'J', '8', 'X', 'B' };
+  static final byte VERSION = 1;
+
+  static final byte END = 0;
+  static final byte DOCUMENT = 1;
+  static final byte ELEMENT = 2;
+  static final byte ATTRIBUTE = 3;
+  static final byte TEXT = 4;
+  static final byte COMMENT = 5;
+  static final byte CDATA = 6;
+
+  static final int MAX_TABLE_SIZE = 65536;
+  static final int MAX_TABLE_STRING_LENGTH = 256;
+
+  private BinaryXmlFormat() {
+    // no instances
+  }
+
+  /**
+   * Determine if a string should be added to the string table.
+   *
+   * @param tableSize the current size of the string table.
+   * @param length the length of the string in bytes.
+   *
+   * @return true if the string should be added to the table.
+   */
+  static boolean isTableable(final int tableSize, final int length) {
+    return tableSize < MAX_TABLE_SIZE && length <= MAX_TABLE_STRING_LENGTH;
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.binary;
+
+import com.evolvedbinary.j8xu.builder.api.XmlBuilderException;
+import com.evolvedbinary.j8xu.builder.api.XmlNodeBuilder;
+import com.evolvedbinary.j8xu.builder.impl.utf8.Utf8StreamOutput;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Interface for a builder class that builds a compact binary representation of an XML Node.
+ *
+ * As well as building a ByteBuffer, the representation may be written directly
+ * to an {@link OutputStream} or a {@link BinaryOutput}.
+ */
+public interface BinaryXmlNodeBuilder extends XmlNodeBuilder<ByteBuffer> {
+
+  /**
+   * Build the node and write the result to a Binary Output.
+   *
+   * The output is not flushed, so that further nodes may be written to it.
+   *
+   * @param out the output to write the built node to.
+   *
+   * @throws IOException if an error occurs whilst writing to the output.
+   */
+  void buildTo(final BinaryOutput out) throws IOException;
+
+  /**
+   * Build the node and write the result to an OutputStream.
+   *
+   * If you are writing many nodes to the same stream, then you may instead wish to
+   * reuse a single {@link BinaryOutput} and call {@link #buildTo(BinaryOutput)},
+   * so that the nodes share a string table.
+   *
+   * @param out the output stream to write the built node to.
+   *
+   * @throws IOException if an error occurs whilst writing to the output stream.
+   */
+  default void buildTo(final OutputStream out) throws IOException {
+    final BinaryOutput output = new BinaryOutput(new Utf8StreamOutput(out));
+    buildTo(output);
+    output.flush();
+  }
+
+  /**
+   * Build the node.
+   *
+   * @return a buffer containing the binary representation of the node, ready for reading.
+   */
+  @Override
+  default ByteBuffer build() {
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    try {
+      buildTo(buffer);
+    } catch (final IOException e) {
+      // NOTE(AR) a ByteArrayOutputStream never throws an IOException
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+    return ByteBuffer.wrap(buffer.toByteArray());
+  }
+
+  /**
+   * Build any node that produces a ByteBuffer and write the result to a Binary Output.
+   *
+   * As the string table is held by the output, only node builders from this
+   * implementation can be written to the output.
+   *
+   * @param nodeBuilder the node builder to build.
+   * @param out the output to write the built node to.
+   *
+   * @throws IOException if an error occurs whilst writing to the output.
+   * @throws XmlBuilderException if the node builder is not from this implementation.
+   */
+  static void buildTo(final XmlNodeBuilder<ByteBuffer> nodeBuilder, final BinaryOutput out) throws IOException {
+    if (!(nodeBuilder instanceof BinaryXmlNodeBuilder)) {
+      throw new XmlBuilderException("Only nodes from a BinaryXmlBuilder may be embedded, but found: " + nodeBuilder.getClass().getName());
+    }
+    ((BinaryXmlNodeBuilder) nodeBuilder).buildTo(out);
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.common;
+
+import com.evolvedbinary.j8xu.builder.api.XmlBuildListener;
+
+import javax.annotation.Nullable;
+
+/**
+ * Base class for the state that is maintained by an XML Builder implementation
+ * whilst it is building, i.e. the in-scope namespaces, the depth of the tree,
+ * and whether we are within mixed content.
+ *
+ * The state is independent of the representation that is being built, and so
+ * may be shared by any implementation.
+ *
+ * The methods which change the state are protected, each implementation re-declares
+ * them in its own context, so that they may only be called by the builders of that
+ * implementation, and not by any other code that is holding a context during a build.
+ */
+public abstract class AbstractContext {
+  private final InScopeNamespaces inScopeNamespaces;
+  private int treeDepth = 0;
+  private int mixedContentTreeDepth = -1;
+  @Nullable private final String indent;
+  @Nullable private final XmlBuildListener listener;
+
+  protected AbstractContext(@Nullable final String indent) {
+    this(indent, null);
+  }
+
+  /**
+   * @param indent the indent, or null if the output should not be indented.
+   * @param listener the listener to notify as nodes are built, or null.
+   */
+  protected AbstractContext(@Nullable final String indent, @Nullable final XmlBuildListener listener) {
+    this.inScopeNamespaces = new InScopeNamespaces();
+    this.indent = indent;
+    this.listener = listener;
+  }
+
+  /**
+   * Copy constructor.
+   *
+   * Creates a snapshot of the state of another context, which is then independent of it.
+   *
+   * @param other the context to copy.
+   */
+  protected AbstractContext(final AbstractContext other) {
+    this.inScopeNamespaces = new InScopeNamespaces(other.inScopeNamespaces);
+    this.treeDepth = other.treeDepth;
+    this.mixedContentTreeDepth = other.mixedContentTreeDepth;
+    this.indent = other.indent;
+    this.listener = other.listener;
+  }
+
+  /**
+   * Determine if a prefix is in scope.
+   *
+   * @param prefix the prefix to test.
+   * @param namespace the namespace associated with the prefix
+   *
+   * @return true if the prefix is in scope, false otherwise.
+   */
+  public boolean isPrefixInScope(final String prefix, final String namespace) {
+    return inScopeNamespaces.isPrefixInScope(prefix, namespace);
+  }
+
+  /**
+   * Determine if a namespace is in scope.
+   *
+   * @param namespace the namespace to test.
+   *
+   * @return true if the namespace is in scope, false otherwise.
+   */
+  public boolean isNamespaceInScope(final String namespace) {
+    return inScopeNamespaces.isNamespaceInScope(namespace);
+  }
+
+  /**
+   * Get the namespace that a prefix is bound to.
+   *
+   * @param prefix the prefix.
+   *
+   * @return the namespace, or null if the prefix is not in scope.
+   */
+  public @Nullable String getNamespace(final String prefix) {
+    return inScopeNamespaces.getNamespace(prefix);
+  }
+
+  /**
+   * Push a namespace into scope when it is declared.
+   *
+   * The listener, if any, is notified of the declaration.
+   *
+   * @param namespace the namespace.
+   * @param prefix the prefix bound to the namespace, or null for the default namespace.
+   */
+  protected void pushNamespace(final String namespace, @Nullable final String prefix) {
+    inScopeNamespaces.push(namespace, prefix);
+    if (listener != null) {
+      listener.namespaceDeclared(namespace, prefix);
+    }
+  }
+
+  /**
+   * Pop the most recently pushed namespace out of scope.
+   */
+  protected void popNamespace() {
+    inScopeNamespaces.pop();
+  }
+
+  /**
+   * Get the listener to notify as nodes are built.
+   *
+   * @return the listener, or null if there is no listener.
+   */
+  @Nullable public XmlBuildListener getListener() {
+    return listener;
+  }
+
+  public boolean indent() {
+    return indent != null;
+  }
+
+  public String getIndent() {
+    return indent;
+  }
+
+  public int getTreeDepth() {
+    return treeDepth;
+  }
+
+  protected void incrementTreeDepth() {
+    treeDepth++;
+  }
+
+  protected void decrementTreeDepth() {
+    treeDepth--;
+  }
+
+  protected void markMixedContentTreeDepth() {
+    if (this.mixedContentTreeDepth == -1) {
+      this.mixedContentTreeDepth = this.treeDepth;
+    }
+  }
+
+  public boolean inMixedContext() {
+    return this.mixedContentTreeDepth != -1 && this.treeDepth >= this.mixedContentTreeDepth;
+  }
+
+  protected void resetMixedContentTreeDepth() {
+    if (this.mixedContentTreeDepth == this.treeDepth) {
+      this.mixedContentTreeDepth = -1;
+    }
+  }
+}
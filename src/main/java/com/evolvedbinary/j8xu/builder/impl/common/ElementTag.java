@@ -0,0 +1,248 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.common;
+
+import com.evolvedbinary.j8xu.builder.impl.utf8.Utf8Output;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The pre-rendered fragments of the start and end tags of an element
+ * with a particular qualified name, as both chars and UTF-8 encoded bytes.
+ *
+ * Instances are obtained from {@link #get(String, String)} which shares
+ * them through a bounded cache, so that an element builder only needs to
+ * copy the fragments rather than rendering the name of the element each time.
+ *
+ * Once the cache is full, {@link #get(String, String)} returns null and the
+ * caller instead renders the name of the element when it is written, e.g. by
+ * {@link #appendStartTag(Appendable, ElementTag, String, String)}, so that
+ * constructing an element builder never allocates a tag that is not shared.
+ */
+public final class ElementTag {
+
+  /**
+   * The maximum number of tags held in the cache.
+   */
+  static final int MAX_CACHED = 4096;
+
+  private static final Cache CACHE = new Cache(MAX_CACHED);
+
+  /**
+   * The opening of the start tag, i.e. {@code <prefix:localName}.
+   */
+  private final String startTag;
+
+  /**
+   * The end tag, i.e. {@code </prefix:localName>}.
+   */
+  private final String endTag;
+
+  /**
+   * The UTF-8 encoded bytes of {@link #startTag}.
+   *
+   * NOTE(AR) the arrays are shared by every builder, so they must never escape this class.
+   */
+  private final byte[] startTagBytes;
+
+  /**
+   * The UTF-8 encoded bytes of {@link #endTag}.
+   */
+  private final byte[] endTagBytes;
+
+  private ElementTag(@Nullable final String prefix, final String localName) {
+    final String qName = prefix != null ? prefix + ':' + localName : localName;
+    this.startTag = '<' + qName;
+    this.endTag = "</" + qName + '>';
+    this.startTagBytes = startTag.getBytes(UTF_8);
+    this.endTagBytes = endTag.getBytes(UTF_8);
+  }
+
+  /**
+   * Append the opening of the start tag, i.e. {@code <prefix:localName}.
+   *
+   * @param out the appendable to write to.
+   *
+   * @throws IOException if an error occurs whilst writing to the appendable.
+   */
+  public void appendStartTag(final Appendable out) throws IOException {
+    out.append(startTag);
+  }
+
+  /**
+   * Append the end tag, i.e. {@code </prefix:localName>}.
+   *
+   * @param out the appendable to write to.
+   *
+   * @throws IOException if an error occurs whilst writing to the appendable.
+   */
+  public void appendEndTag(final Appendable out) throws IOException {
+    out.append(endTag);
+  }
+
+  /**
+   * Write the opening of the start tag, i.e. {@code <prefix:localName}, as UTF-8.
+   *
+   * @param out the output to write to.
+   *
+   * @throws IOException if an error occurs whilst writing to the output.
+   */
+  public void writeStartTag(final Utf8Output out) throws IOException {
+    out.write(startTagBytes);
+  }
+
+  /**
+   * Write the end tag, i.e. {@code </prefix:localName>}, as UTF-8.
+   *
+   * @param out the output to write to.
+   *
+   * @throws IOException if an error occurs whilst writing to the output.
+   */
+  public void writeEndTag(final Utf8Output out) throws IOException {
+    out.write(endTagBytes);
+  }
+
+  /**
+   * Get the tag fragments for an element.
+   *
+   * NOTE(AR) the namespace of the element is not part of the key, as it does not
+   * affect the fragments, namespace declarations are written separately.
+   *
+   * @param prefix the prefix of the element, or null.
+   * @param localName the local name of the element.
+   *
+   * @return the tag fragments, or null if they are not cached and the cache is full.
+   */
+  public static @Nullable ElementTag get(@Nullable final String prefix, final String localName) {
+    return CACHE.get(prefix, localName);
+  }
+
+  /**
+   * Append the opening of the start tag of an element, i.e. {@code <prefix:localName}.
+   *
+   * @param out the appendable to write to.
+   * @param tag the tag fragments of the element, or null if they were not cached.
+   * @param prefix the prefix of the element, or null.
+   * @param localName the local name of the element.
+   *
+   * @throws IOException if an error occurs whilst writing to the appendable.
+   */
+  public static void appendStartTag(final Appendable out, @Nullable final ElementTag tag, @Nullable final String prefix, final String localName) throws IOException {
+    if (tag != null) {
+      tag.appendStartTag(out);
+    } else {
+      out.append('<');
+      appendQName(out, prefix, localName);
+    }
+  }
+
+  /**
+   * Append the end tag of an element, i.e. {@code </prefix:localName>}.
+   *
+   * @param out the appendable to write to.
+   * @param tag the tag fragments of the element, or null if they were not cached.
+   * @param prefix the prefix of the element, or null.
+   * @param localName the local name of the element.
+   *
+   * @throws IOException if an error occurs whilst writing to the appendable.
+   */
+  public static void appendEndTag(final Appendable out, @Nullable final ElementTag tag, @Nullable final String prefix, final String localName) throws IOException {
+    if (tag != null) {
+      tag.appendEndTag(out);
+    } else {
+      out.append("</");
+      appendQName(out, prefix, localName);
+      out.append('>');
+    }
+  }
+
+  private static void appendQName(final Appendable out, @Nullable final String prefix, final String localName) throws IOException {
+    if (prefix != null) {
+      out.append(prefix);
+      out.append(':');
+    }
+    out.append(localName);
+  }
+
+  /**
+   * A bounded cache of tag fragments, which once full only returns the tags that it already holds.
+   */
+  static final class Cache {
+    private final int maxCached;
+    private final ConcurrentMap<String, ElementTag> unprefixed = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, ElementTag>> prefixed = new ConcurrentHashMap<>();
+    private final AtomicInteger cached = new AtomicInteger();
+
+    Cache(final int maxCached) {
+      this.maxCached = maxCached;
+    }
+
+    @Nullable ElementTag get(@Nullable final String prefix, final String localName) {
+      final ConcurrentMap<String, ElementTag> tags;
+      if (prefix == null) {
+        tags = unprefixed;
+      } else {
+        @Nullable ConcurrentMap<String, ElementTag> prefixedTags = prefixed.get(prefix);
+        if (prefixedTags == null) {
+          if (isFull()) {
+            return null;
+          }
+          prefixedTags = prefixed.computeIfAbsent(prefix, k -> new ConcurrentHashMap<>());
+        }
+        tags = prefixedTags;
+      }
+
+      @Nullable final ElementTag tag = tags.get(localName);
+      if (tag != null) {
+        return tag;
+      }
+
+      // cache is full, so the caller must render the tag itself
+      if (isFull()) {
+        return null;
+      }
+
+      final ElementTag newTag = new ElementTag(prefix, localName);
+      @Nullable final ElementTag existingTag = tags.putIfAbsent(localName, newTag);
+      if (existingTag != null) {
+        return existingTag;
+      }
+      cached.incrementAndGet();
+      return newTag;
+    }
+
+    boolean isFull() {
+      return cached.get() >= maxCached;
+    }
+  }
+}
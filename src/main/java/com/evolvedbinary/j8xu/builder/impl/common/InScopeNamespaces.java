@@ -0,0 +1,168 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.common;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The namespaces which are in scope whilst building, held as a scoped hash table.
+ *
+ * The current binding of each prefix, and the number of times each namespace is in
+ * scope, are held in hash maps so that lookups are O(1) regardless of the depth of the
+ * tree. Each push is recorded in an undo log, which pop uses to restore the binding
+ * that the push shadowed.
+ *
+ * Entries in the maps are not removed when they go out of scope, they are just marked as
+ * unbound, so once each prefix and namespace of a document has been seen, pushing and
+ * popping does not allocate.
+ */
+final class InScopeNamespaces {
+  private static final int INITIAL_CAPACITY = 8;
+
+  /**
+   * Prefix to the namespace it is currently bound to, or null if it is currently unbound.
+   */
+  private final Map<String, String> prefixBindings;
+
+  /**
+   * Namespace to the number of times it is currently in scope.
+   */
+  private final Map<String, Count> namespaceCounts;
+
+  // the undo log
+  private String[] pushedNamespaces;
+  private @Nullable String[] pushedPrefixes;
+  private @Nullable String[] shadowedNamespaces;
+  private int size;
+
+  InScopeNamespaces() {
+    this.prefixBindings = new HashMap<>();
+    this.namespaceCounts = new HashMap<>();
+    this.pushedNamespaces = new String[INITIAL_CAPACITY];
+    this.pushedPrefixes = new String[INITIAL_CAPACITY];
+    this.shadowedNamespaces = new String[INITIAL_CAPACITY];
+    this.size = 0;
+  }
+
+  /**
+   * Copy constructor.
+   *
+   * @param other the namespaces to copy.
+   */
+  InScopeNamespaces(final InScopeNamespaces other) {
+    this.prefixBindings = new HashMap<>(other.prefixBindings);
+    this.namespaceCounts = new HashMap<>(other.namespaceCounts.size() * 2);
+    for (final Map.Entry<String, Count> namespaceCount : other.namespaceCounts.entrySet()) {
+      this.namespaceCounts.put(namespaceCount.getKey(), new Count(namespaceCount.getValue().value));
+    }
+    this.pushedNamespaces = other.pushedNamespaces.clone();
+    this.pushedPrefixes = other.pushedPrefixes.clone();
+    this.shadowedNamespaces = other.shadowedNamespaces.clone();
+    this.size = other.size;
+  }
+
+  /**
+   * See {@link AbstractContext#isPrefixInScope(String, String)}.
+   */
+  boolean isPrefixInScope(final String prefix, final String namespace) {
+    return namespace.equals(prefixBindings.get(prefix));
+  }
+
+  /**
+   * See {@link AbstractContext#isNamespaceInScope(String)}.
+   */
+  boolean isNamespaceInScope(final String namespace) {
+    final Count count = namespaceCounts.get(namespace);
+    return count != null && count.value > 0;
+  }
+
+  /**
+   * See {@link AbstractContext#getNamespace(String)}.
+   */
+  @Nullable String getNamespace(final String prefix) {
+    return prefixBindings.get(prefix);
+  }
+
+  /**
+   * See {@link AbstractContext#pushNamespace(String, String)}.
+   */
+  void push(final String namespace, @Nullable final String prefix) {
+    if (size == pushedNamespaces.length) {
+      final int newCapacity = size * 2;
+      pushedNamespaces = Arrays.copyOf(pushedNamespaces, newCapacity);
+      pushedPrefixes = Arrays.copyOf(pushedPrefixes, newCapacity);
+      shadowedNamespaces = Arrays.copyOf(shadowedNamespaces, newCapacity);
+    }
+
+    pushedNamespaces[size] = namespace;
+    pushedPrefixes[size] = prefix;
+    if (prefix != null) {
+      // NOTE(AR) the default namespace is not bound to a prefix, so it never shadows a prefix binding
+      shadowedNamespaces[size] = prefixBindings.put(prefix, namespace);
+    }
+    size++;
+
+    final Count count = namespaceCounts.get(namespace);
+    if (count == null) {
+      namespaceCounts.put(namespace, new Count(1));
+    } else {
+      count.value++;
+    }
+  }
+
+  /**
+   * See {@link AbstractContext#popNamespace()}.
+   */
+  void pop() {
+    if (size == 0) {
+      throw new IllegalStateException("No namespaces are in scope");
+    }
+
+    size--;
+    final String namespace = pushedNamespaces[size];
+    final String prefix = pushedPrefixes[size];
+    if (prefix != null) {
+      prefixBindings.put(prefix, shadowedNamespaces[size]);
+    }
+    namespaceCounts.get(namespace).value--;
+
+    pushedNamespaces[size] = null;
+    pushedPrefixes[size] = null;
+    shadowedNamespaces[size] = null;
+  }
+
+  private static final class Count {
+    int value;
+
+    Count(final int value) {
+      this.value = value;
+    }
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.common;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A table of pre-rendered indentation, i.e. a new line followed by
+ * the indent repeated once for each level of depth, so that indenting
+ * an element is a single append regardless of its depth.
+ *
+ * The table is grown lazily as deeper levels are requested, up to
+ * {@link #MAX_CACHED_DEPTH}; indentation for deeper levels is rendered on demand.
+ *
+ * Instances are thread-safe, and are intended to be shared by all of the builds of a builder.
+ */
+public final class Indentation {
+
+  /**
+   * A line feed, the default new line.
+   */
+  public static final String LF = "\n";
+
+  /**
+   * A carriage return followed by a line feed.
+   */
+  public static final String CRLF = "\r\n";
+
+  /**
+   * A carriage return.
+   */
+  public static final String CR = "\r";
+
+  static final int MAX_CACHED_DEPTH = 64;
+  private static final int INITIAL_CACHED_DEPTH = 8;
+
+  private final String newLine;
+  private final String indent;
+
+  // NOTE(AR) the tables are replaced when grown, never modified after they are published
+  private volatile String[] strings;
+  private volatile byte[][] bytes;
+
+  /**
+   * @param indent the indent for each level of depth.
+   * @param newLine the new line that precedes the indent, one of {@link #LF}, {@link #CRLF}, or {@link #CR}.
+   *
+   * @throws IllegalArgumentException if the new line is not one of {@link #LF}, {@link #CRLF}, or {@link #CR}.
+   */
+  public Indentation(final String indent, final String newLine) {
+    if (!(LF.equals(newLine) || CRLF.equals(newLine) || CR.equals(newLine))) {
+      throw new IllegalArgumentException("The new line must be one of \\n, \\r\\n, or \\r");
+    }
+    this.indent = indent;
+    this.newLine = newLine;
+    this.strings = render(new String[0], INITIAL_CACHED_DEPTH);
+    this.bytes = encode(new byte[0][], this.strings);
+  }
+
+  /**
+   * Get the new line.
+   *
+   * @return the new line.
+   */
+  public String getNewLine() {
+    return newLine;
+  }
+
+  /**
+   * Get the indentation for a depth.
+   *
+   * @param depth the depth.
+   *
+   * @return the new line followed by the indent repeated {@code depth} times.
+   */
+  public String get(final int depth) {
+    String[] table = strings;
+    if (depth >= table.length) {
+      if (depth >= MAX_CACHED_DEPTH) {
+        return render(depth);
+      }
+      table = grow(depth);
+    }
+    return table[depth];
+  }
+
+  /**
+   * Get the indentation for a depth encoded as UTF-8.
+   *
+   * @param depth the depth.
+   *
+   * @return the UTF-8 bytes of the new line followed by the indent repeated {@code depth} times.
+   */
+  public byte[] getBytes(final int depth) {
+    byte[][] table = bytes;
+    if (depth >= table.length) {
+      if (depth >= MAX_CACHED_DEPTH) {
+        return render(depth).getBytes(UTF_8);
+      }
+      grow(depth);
+      table = bytes;
+    }
+    return table[depth];
+  }
+
+  private synchronized String[] grow(final int depth) {
+    final String[] table = strings;
+    if (depth < table.length) {
+      // another thread has already grown the table
+      return table;
+    }
+
+    final String[] newStrings = render(table, Math.min(Math.max(depth + 1, table.length * 2), MAX_CACHED_DEPTH));
+    // NOTE(AR) publish the bytes first, so that a reader who sees the new strings table can also see the new bytes table
+    this.bytes = encode(bytes, newStrings);
+    this.strings = newStrings;
+    return newStrings;
+  }
+
+  private String[] render(final String[] table, final int length) {
+    final String[] newTable = new String[length];
+    System.arraycopy(table, 0, newTable, 0, table.length);
+    for (int depth = table.length; depth < length; depth++) {
+      newTable[depth] = depth == 0 ? newLine : newTable[depth - 1] + indent;
+    }
+    return newTable;
+  }
+
+  private String render(final int depth) {
+    final StringBuilder builder = new StringBuilder(newLine.length() + indent.length() * depth);
+    builder.append(newLine);
+    for (int i = 0; i < depth; i++) {
+      builder.append(indent);
+    }
+    return builder.toString();
+  }
+
+  private static byte[][] encode(final byte[][] table, final String[] strings) {
+    final byte[][] newTable = new byte[strings.length][];
+    System.arraycopy(table, 0, newTable, 0, table.length);
+    for (int depth = table.length; depth < strings.length; depth++) {
+      newTable[depth] = strings[depth].getBytes(UTF_8);
+    }
+    return newTable;
+  }
+}
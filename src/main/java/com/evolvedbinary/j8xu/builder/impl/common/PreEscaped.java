@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.common;
+
+import com.evolvedbinary.j8xu.builder.api.XmlBuilderException;
+
+import javax.annotation.Nullable;
+
+/**
+ * A value that has already been escaped, and so is written verbatim.
+ *
+ * May be used as the value of an attribute, for example:
+ * {@code new XmlAttribute<>("href", preEscaped("a?b=1&amp;c=2"))}, or as the value
+ * of a hole when rendering a template.
+ *
+ * Only the String and UTF-8 builders write a pre-escaped value verbatim. The other
+ * builders hand values to an API that escapes them itself, and so they reject
+ * pre-escaped values, see {@link #requireUnescaped(String, Object)}.
+ */
+public final class PreEscaped {
+  public final String value;
+
+  private PreEscaped(final String value) {
+    this.value = value;
+  }
+
+  /**
+   * Mark a value as already escaped.
+   *
+   * @param value the escaped value.
+   *
+   * @return the pre-escaped value.
+   */
+  public static PreEscaped preEscaped(final String value) {
+    return new PreEscaped(value);
+  }
+
+  /**
+   * Get the value of an attribute as a String, for a builder that cannot write a pre-escaped value verbatim.
+   *
+   * NOTE(AR) the value would otherwise be escaped a second time, e.g. {@code &amp;} would become {@code &amp;amp;}.
+   *
+   * @param name the name of the attribute.
+   * @param value the value of the attribute.
+   *
+   * @return the value as a String.
+   *
+   * @throws XmlBuilderException if the value is pre-escaped.
+   */
+  public static String requireUnescaped(final String name, @Nullable final Object value) {
+    if (value instanceof PreEscaped) {
+      throw new XmlBuilderException("The value of the attribute '" + name + "' is pre-escaped, which is only supported by the String and UTF-8 builders");
+    }
+    return String.valueOf(value);
+  }
+
+  @Override
+  public String toString() {
+    return value;
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.common;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Escaping of the characters in text and attribute values that cannot appear literally in XML.
+ *
+ * In text and attribute values {@code <}, {@code &}, {@code >}, and {@code "} are escaped.
+ * In attribute values, tab, new line and carriage return are also escaped so that they
+ * are not lost by attribute value normalization.
+ *
+ * The other C0 control characters are not allowed in XML 1.0, not even as character
+ * references, and so they are replaced with U+FFFD (the Unicode replacement character).
+ *
+ * The scan for characters to escape is a single table lookup per character, and the runs
+ * of characters between any escaped characters are copied in bulk. In the common case
+ * where there is nothing to escape, the value is copied in one go.
+ */
+public final class XmlEscaping {
+
+  private static final int TABLE_SIZE = 0x80;
+
+  private static final String[] TEXT_REPLACEMENTS = new String[TABLE_SIZE];
+  private static final String[] ATTRIBUTE_REPLACEMENTS = new String[TABLE_SIZE];
+  private static final byte[][] TEXT_REPLACEMENT_BYTES = new byte[TABLE_SIZE][];
+  private static final byte[][] ATTRIBUTE_REPLACEMENT_BYTES = new byte[TABLE_SIZE][];
+
+  /**
+   * The replacement for characters that are not allowed in XML 1.0.
+   */
+  static final String REPLACEMENT_CHARACTER = "\uFFFD";
+
+  static {
+    for (char c = 0; c < 0x20; c++) {
+      if (c == '\t' || c == '\n' || c == '\r') {
+        ATTRIBUTE_REPLACEMENTS[c] = "&#x" + Integer.toHexString(c).toUpperCase() + ';';
+      } else {
+        // NOTE(AR) such control characters are only allowed, as character references, in XML 1.1
+        TEXT_REPLACEMENTS[c] = ATTRIBUTE_REPLACEMENTS[c] = REPLACEMENT_CHARACTER;
+      }
+    }
+    TEXT_REPLACEMENTS['<'] = ATTRIBUTE_REPLACEMENTS['<'] = "&lt;";
+    TEXT_REPLACEMENTS['&'] = ATTRIBUTE_REPLACEMENTS['&'] = "&amp;";
+    TEXT_REPLACEMENTS['>'] = ATTRIBUTE_REPLACEMENTS['>'] = "&gt;";
+    TEXT_REPLACEMENTS['"'] = ATTRIBUTE_REPLACEMENTS['"'] = "&quot;";
+
+    for (int i = 0; i < TABLE_SIZE; i++) {
+      if (TEXT_REPLACEMENTS[i] != null) {
+        TEXT_REPLACEMENT_BYTES[i] = TEXT_REPLACEMENTS[i].getBytes(UTF_8);
+      }
+      if (ATTRIBUTE_REPLACEMENTS[i] != null) {
+        ATTRIBUTE_REPLACEMENT_BYTES[i] = ATTRIBUTE_REPLACEMENTS[i].getBytes(UTF_8);
+      }
+    }
+  }
+
+  private XmlEscaping() {
+    // no instances
+  }
+
+  /**
+   * Find the first character that must be escaped.
+   *
+   * @param s the characters to scan.
+   * @param start the index to start scanning from.
+   * @param attribute true if the characters are an attribute value, false if they are text.
+   *
+   * @return the index of the first character that must be escaped, or -1 if there are none.
+   */
+  public static int indexOfEscapable(final CharSequence s, final int start, final boolean attribute) {
+    final String[] replacements = attribute ? ATTRIBUTE_REPLACEMENTS : TEXT_REPLACEMENTS;
+    final int len = s.length();
+    for (int i = start; i < len; i++) {
+      final char c = s.charAt(i);
+      if (c < TABLE_SIZE && replacements[c] != null) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Get the escaped form of a character.
+   *
+   * @param c a character found by {@link #indexOfEscapable(CharSequence, int, boolean)}.
+   * @param attribute true if the character is in an attribute value, false if it is in text.
+   *
+   * @return the escaped form of the character.
+   */
+  public static String replacement(final char c, final boolean attribute) {
+    return attribute ? ATTRIBUTE_REPLACEMENTS[c] : TEXT_REPLACEMENTS[c];
+  }
+
+  /**
+   * Get the escaped form of a character as UTF-8 bytes.
+   *
+   * @param c a character found by {@link #indexOfEscapable(CharSequence, int, boolean)}.
+   * @param attribute true if the character is in an attribute value, false if it is in text.
+   *
+   * @return the escaped form of the character.
+   */
+  public static byte[] replacementBytes(final char c, final boolean attribute) {
+    return attribute ? ATTRIBUTE_REPLACEMENT_BYTES[c] : TEXT_REPLACEMENT_BYTES[c];
+  }
+
+  /**
+   * Escape characters and write the result to an Appendable.
+   *
+   * @param out the appendable to write to.
+   * @param s the characters to escape.
+   * @param attribute true if the characters are an attribute value, false if they are text.
+   *
+   * @throws IOException if an error occurs whilst writing to the appendable.
+   */
+  public static void escapeTo(final Appendable out, final CharSequence s, final boolean attribute) throws IOException {
+    int i = indexOfEscapable(s, 0, attribute);
+    if (i == -1) {
+      // nothing to escape
+      out.append(s);
+      return;
+    }
+
+    int start = 0;
+    do {
+      if (i > start) {
+        out.append(s, start, i);
+      }
+      out.append(replacement(s.charAt(i), attribute));
+      start = i + 1;
+    } while ((i = indexOfEscapable(s, start, attribute)) != -1);
+
+    if (start < s.length()) {
+      out.append(s, start, s.length());
+    }
+  }
+
+  /**
+   * Write a value to an Appendable, escaping it unless it is {@link PreEscaped}.
+   *
+   * @param out the appendable to write to.
+   * @param value the value, which is converted to a String unless it is already a CharSequence.
+   * @param attribute true if the value is an attribute value, false if it is text.
+   *
+   * @throws IOException if an error occurs whilst writing to the appendable.
+   */
+  public static void writeValueTo(final Appendable out, @Nullable final Object value, final boolean attribute) throws IOException {
+    if (value instanceof PreEscaped) {
+      out.append(((PreEscaped) value).value);
+    } else if (value instanceof CharSequence) {
+      // NOTE(AR) avoids copying a reused StringBuilder into a new String
+      escapeTo(out, (CharSequence) value, attribute);
+    } else if (out instanceof StringBuilder && isIntegral(value)) {
+      // NOTE(AR) integral numbers never need escaping, and a StringBuilder can format them without an intermediate String
+      ((StringBuilder) out).append(((Number) value).longValue());
+    } else {
+      escapeTo(out, String.valueOf(value), attribute);
+    }
+  }
+
+  private static boolean isIntegral(@Nullable final Object value) {
+    return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.dom;
+
+import com.evolvedbinary.j8xu.builder.impl.common.AbstractContext;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Text;
+
+import javax.annotation.Nullable;
+import javax.xml.parsers.DocumentBuilder;
+
+class DomContext extends AbstractContext {
+  private final DocumentBuilder documentBuilder;
+
+  /**
+   * The document that owns the nodes which are currently being built.
+   */
+  @Nullable private Document document = null;
+
+  /**
+   * The element whose attributes are currently being built.
+   */
+  @Nullable private Element attributesOwner = null;
+
+  DomContext(final DocumentBuilder documentBuilder, @Nullable final String indent) {
+    super(indent);
+    this.documentBuilder = documentBuilder;
+  }
+
+  /**
+   * Create a new empty document.
+   *
+   * @return the new document.
+   */
+  Document newDocument() {
+    return documentBuilder.newDocument();
+  }
+
+  /**
+   * Get the document that should own any nodes that are built.
+   *
+   * If no document is being built, then a document is created
+   * which is then shared by any nodes that are built outside
+   * of a document.
+   *
+   * @return the owner document.
+   */
+  Document getDocument() {
+    if (document == null) {
+      document = newDocument();
+    }
+    return document;
+  }
+
+  /**
+   * Set the document that should own any nodes that are built.
+   *
+   * @param document the owner document.
+   *
+   * @return the previous owner document.
+   */
+  @Nullable Document setDocument(@Nullable final Document document) {
+    @Nullable final Document previous = this.document;
+    this.document = document;
+    return previous;
+  }
+
+  @Nullable Element getAttributesOwner() {
+    return attributesOwner;
+  }
+
+  void setAttributesOwner(@Nullable final Element attributesOwner) {
+    this.attributesOwner = attributesOwner;
+  }
+
+  /**
+   * Create a text node containing a new line followed by the indent for a tree depth.
+   *
+   * @param treeDepth the depth of the tree to indent to.
+   *
+   * @return the text node.
+   */
+  Text createIndent(final int treeDepth) {
+    final StringBuilder indent = new StringBuilder(1 + treeDepth * getIndent().length());
+    indent.append('\n');
+    for (int i = 0; i < treeDepth; i++) {
+      indent.append(getIndent());
+    }
+    return getDocument().createTextNode(indent.toString());
+  }
+
+  @Override
+  protected void pushNamespace(final String namespace, @Nullable final String prefix) {
+    super.pushNamespace(namespace, prefix);
+  }
+
+  @Override
+  protected void popNamespace() {
+    super.popNamespace();
+  }
+
+  @Override
+  protected void incrementTreeDepth() {
+    super.incrementTreeDepth();
+  }
+
+  @Override
+  protected void decrementTreeDepth() {
+    super.decrementTreeDepth();
+  }
+
+  @Override
+  protected void markMixedContentTreeDepth() {
+    super.markMixedContentTreeDepth();
+  }
+
+  @Override
+  protected void resetMixedContentTreeDepth() {
+    super.resetMixedContentTreeDepth();
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.dom;
+
+import com.evolvedbinary.j8xu.builder.api.XmlAttribute;
+import com.evolvedbinary.j8xu.builder.api.XmlAttributesBuilder;
+import com.evolvedbinary.j8xu.builder.api.XmlBuilderException;
+import com.evolvedbinary.j8xu.builder.impl.common.PreEscaped;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import javax.annotation.Nullable;
+import javax.xml.XMLConstants;
+
+/**
+ * An implementation of an XML Attributes Builder that sets
+ * the attributes on the element that is being built.
+ *
+ * The result of the build is the element that the attributes were set on.
+ */
+public class DomXmlAttributesBuilder implements XmlAttributesBuilder<Node> {
+  private static final String XML_PREFIX = XMLConstants.XML_NS_PREFIX + ':';
+
+  private final DomContext context;
+  private final XmlAttribute[] attributes;
+
+  DomXmlAttributesBuilder(final DomContext context, final XmlAttribute[] attributes) {
+    this.context = context;
+    this.attributes = attributes;
+  }
+
+  @Override
+  public Node build() {
+    @Nullable final Element element = context.getAttributesOwner();
+    if (element == null) {
+      throw new XmlBuilderException("Attributes can only be built as part of an element");
+    }
+
+    try {
+      for (final XmlAttribute attribute : attributes) {
+        final String value = PreEscaped.requireUnescaped(attribute.name, attribute.value);
+        final int idxColon = attribute.name.indexOf(':');
+        if (idxColon == -1) {
+          element.setAttributeNS(null, attribute.name, value);
+        } else if (attribute.name.startsWith(XML_PREFIX)) {
+          element.setAttributeNS(XMLConstants.XML_NS_URI, attribute.name, value);
+        } else {
+          @Nullable final String namespace = context.getNamespace(attribute.name.substring(0, idxColon));
+          if (namespace != null) {
+            element.setAttributeNS(namespace, attribute.name, value);
+          } else {
+            // NOTE(AR) the prefix is not declared, so as with the other implementations, the name is set as is
+            element.setAttribute(attribute.name, value);
+          }
+        }
+      }
+    } catch (final DOMException e) {
+      throw new XmlBuilderException(e);
+    }
+    return element;
+  }
+}
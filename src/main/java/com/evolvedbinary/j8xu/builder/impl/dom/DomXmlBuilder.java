@@ -0,0 +1,198 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.dom;
+
+import com.evolvedbinary.j8xu.builder.api.*;
+
+import org.w3c.dom.Node;
+
+import javax.annotation.Nullable;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+/**
+ * An implementation of an XML Builder that builds a DOM representation.
+ *
+ * DOM nodes are created directly, there is no intermediate representation
+ * that must be parsed. Building a document node creates a new {@link org.w3c.dom.Document},
+ * whereas any other node that is built outside of a document is owned by a document
+ * that is shared by this builder.
+ *
+ * Namespaces are declared (as {@code xmlns} attributes) in the same manner as the other
+ * implementations, i.e. only where they are not already in scope.
+ */
+public class DomXmlBuilder implements XmlBuilder<Node> {
+
+  @SuppressWarnings("unchecked")
+  private static final XmlChildNodeBuilder<Node>[] NO_CHILDREN = new XmlChildNodeBuilder[0];
+
+  private final DomContext context;
+
+  /**
+   * Default constructor.
+   */
+  public DomXmlBuilder() {
+    this((String) null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param indent if you want the XML output to be indented you should set this to the indentation character(s), otherwise set it to null.
+   */
+  public DomXmlBuilder(@Nullable final String indent) {
+    this(newDocumentBuilder(), indent);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param documentBuilder the document builder to use for creating documents, it should be namespace aware.
+   */
+  public DomXmlBuilder(final DocumentBuilder documentBuilder) {
+    this(documentBuilder, null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param documentBuilder the document builder to use for creating documents, it should be namespace aware.
+   * @param indent if you want the XML output to be indented you should set this to the indentation character(s), otherwise set it to null.
+   */
+  public DomXmlBuilder(final DocumentBuilder documentBuilder, @Nullable final String indent) {
+    this.context = new DomContext(documentBuilder, indent);
+  }
+
+  private static DocumentBuilder newDocumentBuilder() {
+    final DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+    documentBuilderFactory.setNamespaceAware(true);
+    try {
+      return documentBuilderFactory.newDocumentBuilder();
+    } catch (final ParserConfigurationException e) {
+      throw new XmlBuilderException(e);
+    }
+  }
+
+  @SafeVarargs
+  @Override
+  public final DomXmlDocumentBuilder document(final XmlChildNodeBuilder<Node>... children) {
+    return new DomXmlDocumentBuilder(context, children);
+  }
+
+  @Override
+  public final DomXmlElementBuilder element(final String localName, final XmlAttributesBuilder<Node> attributes) {
+    return element(null, localName, null, attributes, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final DomXmlElementBuilder element(final String localName, final XmlAttributesBuilder<Node> attributes, final XmlChildNodeBuilder<Node>... children) {
+    return element(null, localName, null, attributes, children);
+  }
+
+  @Override
+  public final DomXmlElementBuilder element(final String namespace, final String localName, final XmlAttributesBuilder<Node> attributes) {
+    return element(namespace, localName, null, attributes, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final DomXmlElementBuilder element(final String namespace, final String localName, final XmlAttributesBuilder<Node> attributes, final XmlChildNodeBuilder<Node>... children) {
+    return element(namespace, localName, null, attributes, children);
+  }
+
+  @Override
+  public final DomXmlElementBuilder element(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<Node> attributes) {
+    return new DomXmlElementBuilder(context, namespace, localName, prefix, attributes, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final DomXmlElementBuilder element(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<Node> attributes, final XmlChildNodeBuilder<Node>... children) {
+    return new DomXmlElementBuilder(context, namespace, localName, prefix, attributes, children);
+  }
+
+  @Override
+  public final DomXmlElementBuilder element(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<Node> attributes, final Iterable<? extends XmlChildNodeBuilder<Node>> children) {
+    return new DomXmlElementBuilder(context, namespace, localName, prefix, attributes, children);
+  }
+
+  @Override
+  public final DomXmlElementBuilder element(final String localName) {
+    return element(null, localName, null, null, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final DomXmlElementBuilder element(final String localName, final XmlChildNodeBuilder<Node>... children) {
+    return element(null, localName, null, null, children);
+  }
+
+  @Override
+  public final DomXmlElementBuilder element(final String namespace, final String localName) {
+    return element(namespace, localName, null, null, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final DomXmlElementBuilder element(final String namespace, final String localName, final XmlChildNodeBuilder<Node>... children) {
+    return element(namespace, localName, null, null, children);
+  }
+
+  @Override
+  public final DomXmlElementBuilder element(final String namespace, final String localName, final String prefix) {
+    return element(namespace, localName, prefix, null, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final DomXmlElementBuilder element(final String namespace, final String localName, final String prefix, final XmlChildNodeBuilder<Node>... children) {
+    return element(namespace, localName, prefix, null, children);
+  }
+
+  @SafeVarargs
+  @Override
+  public final DomXmlAttributesBuilder attributes(final XmlAttribute... attributes) {
+    return new DomXmlAttributesBuilder(context, attributes);
+  }
+
+  @Override
+  public final DomXmlTextBuilder text(final String content) {
+    return new DomXmlTextBuilder(context, content);
+  }
+
+  @Override
+  public final DomXmlCommentBuilder comment(final String content) {
+    return new DomXmlCommentBuilder(context, content);
+  }
+
+  @Override
+  public final DomXmlCdataBuilder cdata(final String content) {
+    return new DomXmlCdataBuilder(context, content);
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.dom;
+
+import com.evolvedbinary.j8xu.builder.api.XmlAttributesBuilder;
+import com.evolvedbinary.j8xu.builder.api.XmlChildNodeBuilder;
+import com.evolvedbinary.j8xu.builder.api.XmlElementBuilder;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import javax.annotation.Nullable;
+import javax.xml.XMLConstants;
+import java.util.Iterator;
+
+/**
+ * An implementation of an XML Element Builder that builds a DOM Element.
+ */
+public class DomXmlElementBuilder implements XmlElementBuilder<Node> {
+  private static final String XMLNS_PREFIX = XMLConstants.XMLNS_ATTRIBUTE + ':';
+
+  private final DomContext context;
+  @Nullable private final String namespace;
+  private final String qName;
+  private @Nullable final String prefix;
+  private @Nullable final XmlAttributesBuilder<Node> attributes;
+  @Nullable private final XmlChildNodeBuilder<Node>[] children;
+  @Nullable private final Iterable<? extends XmlChildNodeBuilder<Node>> lazyChildren;
+
+  @SafeVarargs
+  DomXmlElementBuilder(final DomContext context, @Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<Node> attributes, final XmlChildNodeBuilder<Node>... children) {
+    this.context = context;
+    this.namespace = namespace;
+    this.qName = prefix != null ? prefix + ':' + localName : localName;
+    this.prefix = prefix;
+    this.attributes = attributes;
+    this.children = children;
+    this.lazyChildren = null;
+  }
+
+  DomXmlElementBuilder(final DomContext context, @Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<Node> attributes, final Iterable<? extends XmlChildNodeBuilder<Node>> children) {
+    this.context = context;
+    this.namespace = namespace;
+    this.qName = prefix != null ? prefix + ':' + localName : localName;
+    this.prefix = prefix;
+    this.attributes = attributes;
+    this.children = null;
+    this.lazyChildren = children;
+  }
+
+  @Override
+  public Element build() {
+    final Element element = context.getDocument().createElementNS(namespace, qName);
+
+    // namespace
+    boolean pushedNamespace = false;
+    if (prefix != null && !context.isPrefixInScope(prefix, namespace)) {
+      element.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, XMLNS_PREFIX + prefix, namespace);
+
+      context.pushNamespace(namespace, prefix);
+      pushedNamespace = true;
+    } else if (namespace != null && !context.isNamespaceInScope(namespace)) {
+      element.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, XMLConstants.XMLNS_ATTRIBUTE, namespace);
+
+      context.pushNamespace(namespace, null);
+      pushedNamespace = true;
+    }
+
+    if (attributes != null) {
+      context.setAttributesOwner(element);
+      try {
+        attributes.build();
+      } finally {
+        context.setAttributesOwner(null);
+      }
+    }
+
+    final int startTreeDepth = context.getTreeDepth();
+    context.incrementTreeDepth();
+
+    @Nullable final Iterator<? extends XmlChildNodeBuilder<Node>> lazyIterator = lazyChildren != null ? lazyChildren.iterator() : null;
+    if (lazyIterator != null ? lazyIterator.hasNext() : children != null && children.length > 0) {
+      // build the children
+      if (lazyIterator != null) {
+        do {
+          appendChild(element, lazyIterator.next(), startTreeDepth);
+        } while (lazyIterator.hasNext());
+
+      } else {
+        for (int i = 0; i < children.length; i++) {
+          appendChild(element, children[i], startTreeDepth);
+        }
+      }
+
+      // indent?
+      if (context.indent() && !context.inMixedContext()) {
+        element.appendChild(context.createIndent(startTreeDepth));
+      }
+
+      context.resetMixedContentTreeDepth();
+    }
+
+    context.decrementTreeDepth();
+
+    if (pushedNamespace) {
+      context.popNamespace();
+    }
+
+    return element;
+  }
+
+  private void appendChild(final Element element, final XmlChildNodeBuilder<Node> child, final int startTreeDepth) {
+    // indent? NOTE(AR) unlike the other implementations, the parent must add the indent as the child cannot
+    if (child instanceof XmlElementBuilder && context.indent() && !context.inMixedContext()) {
+      element.appendChild(context.createIndent(startTreeDepth + 1));
+    }
+
+    // build the child
+    element.appendChild(child.build());
+  }
+}
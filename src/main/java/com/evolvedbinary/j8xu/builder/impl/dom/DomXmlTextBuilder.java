@@ -24,20 +24,24 @@
  * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-package com.evolvedbinary.j8xu.builder.impl.string;
+package com.evolvedbinary.j8xu.builder.impl.dom;
 
-import javax.annotation.Nullable;
+import com.evolvedbinary.j8xu.builder.api.XmlTextBuilder;
+import org.w3c.dom.Text;
+import org.w3c.dom.Node;
 
-class StringXmlElementNamespace {
-  final String namespace;
-  final @Nullable String prefix;
+public class DomXmlTextBuilder implements XmlTextBuilder<Node> {
+  private final DomContext context;
+  private final String content;
 
-  StringXmlElementNamespace(final String namespace) {
-    this(namespace, null);
+  DomXmlTextBuilder(final DomContext context, final String content) {
+    this.context = context;
+    this.content = content;
   }
 
-  StringXmlElementNamespace(final String namespace, @Nullable final String prefix) {
-    this.namespace = namespace;
-    this.prefix = prefix;
+  @Override
+  public Text build() {
+    context.markMixedContentTreeDepth();
+    return context.getDocument().createTextNode(content);
   }
 }
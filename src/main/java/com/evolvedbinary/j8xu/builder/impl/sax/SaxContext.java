@@ -0,0 +1,155 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.sax;
+
+import com.evolvedbinary.j8xu.builder.impl.common.AbstractContext;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.ext.LexicalHandler;
+import org.xml.sax.helpers.AttributesImpl;
+
+import javax.annotation.Nullable;
+
+class SaxContext extends AbstractContext {
+  private static final int CHARS_BUFFER_SIZE = 4096;
+  private static final char[] NEW_LINE = { '\n' };
+
+  private final ContentHandler contentHandler;
+  @Nullable private final LexicalHandler lexicalHandler;
+
+  /**
+   * Attributes are only valid for the duration of the call to
+   * {@link ContentHandler#startElement(String, String, String, org.xml.sax.Attributes)},
+   * so we reuse a single instance for every element.
+   */
+  private final AttributesImpl attributes = new AttributesImpl();
+
+  /**
+   * Buffer that is reused for passing characters to the handlers.
+   */
+  private final char[] chars = new char[CHARS_BUFFER_SIZE];
+
+  SaxContext(final ContentHandler contentHandler, @Nullable final LexicalHandler lexicalHandler, @Nullable final String indent) {
+    super(indent);
+    this.contentHandler = contentHandler;
+    this.lexicalHandler = lexicalHandler;
+  }
+
+  ContentHandler getContentHandler() {
+    return contentHandler;
+  }
+
+  @Nullable LexicalHandler getLexicalHandler() {
+    return lexicalHandler;
+  }
+
+  AttributesImpl getAttributes() {
+    return attributes;
+  }
+
+  /**
+   * Send a string to the content handler as characters.
+   *
+   * @param s the string.
+   *
+   * @throws SAXException if the content handler raises an exception.
+   */
+  void characters(final String s) throws SAXException {
+    final int len = s.length();
+    for (int off = 0; off < len; off += chars.length) {
+      final int n = Math.min(chars.length, len - off);
+      s.getChars(off, off + n, chars, 0);
+      contentHandler.characters(chars, 0, n);
+    }
+  }
+
+  /**
+   * Send a string to the lexical handler as a comment.
+   *
+   * @param s the string.
+   *
+   * @throws SAXException if the lexical handler raises an exception.
+   */
+  void comment(final String s) throws SAXException {
+    if (lexicalHandler == null) {
+      return;
+    }
+
+    final int len = s.length();
+    if (len <= chars.length) {
+      s.getChars(0, len, chars, 0);
+      lexicalHandler.comment(chars, 0, len);
+    } else {
+      // NOTE(AR) a comment must be reported in a single event
+      lexicalHandler.comment(s.toCharArray(), 0, len);
+    }
+  }
+
+  /**
+   * Send a new line followed by the indent for a tree depth to the content handler as characters.
+   *
+   * @param treeDepth the depth of the tree to indent to.
+   *
+   * @throws SAXException if the content handler raises an exception.
+   */
+  void indent(final int treeDepth) throws SAXException {
+    contentHandler.characters(NEW_LINE, 0, 1);
+    for (int i = 0; i < treeDepth; i++) {
+      characters(getIndent());
+    }
+  }
+
+  @Override
+  protected void pushNamespace(final String namespace, @Nullable final String prefix) {
+    super.pushNamespace(namespace, prefix);
+  }
+
+  @Override
+  protected void popNamespace() {
+    super.popNamespace();
+  }
+
+  @Override
+  protected void incrementTreeDepth() {
+    super.incrementTreeDepth();
+  }
+
+  @Override
+  protected void decrementTreeDepth() {
+    super.decrementTreeDepth();
+  }
+
+  @Override
+  protected void markMixedContentTreeDepth() {
+    super.markMixedContentTreeDepth();
+  }
+
+  @Override
+  protected void resetMixedContentTreeDepth() {
+    super.resetMixedContentTreeDepth();
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.sax;
+
+import com.evolvedbinary.j8xu.builder.api.XmlAttribute;
+import com.evolvedbinary.j8xu.builder.api.XmlAttributesBuilder;
+import com.evolvedbinary.j8xu.builder.impl.common.PreEscaped;
+
+import javax.xml.XMLConstants;
+
+/**
+ * An implementation of an XML Attributes Builder that adds
+ * the attributes to those of the element that is being built.
+ */
+public class SaxXmlAttributesBuilder implements XmlAttributesBuilder<Void> {
+  private static final String CDATA_TYPE = "CDATA";
+
+  private final SaxContext context;
+  private final XmlAttribute[] attributes;
+
+  SaxXmlAttributesBuilder(final SaxContext context, final XmlAttribute[] attributes) {
+    this.context = context;
+    this.attributes = attributes;
+  }
+
+  @Override
+  public Void build() {
+    for (final XmlAttribute attribute : attributes) {
+      final String qName = attribute.name;
+      final int idxColon = qName.indexOf(':');
+      final String localName;
+      final String namespace;
+      if (idxColon > -1) {
+        localName = qName.substring(idxColon + 1);
+        namespace = XMLConstants.XML_NS_PREFIX.equals(qName.substring(0, idxColon)) ? XMLConstants.XML_NS_URI : XMLConstants.NULL_NS_URI;
+      } else {
+        localName = qName;
+        namespace = XMLConstants.NULL_NS_URI;
+      }
+      context.getAttributes().addAttribute(namespace, localName, qName, CDATA_TYPE, PreEscaped.requireUnescaped(attribute.name, attribute.value));
+    }
+    return null;
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.sax;
+
+import com.evolvedbinary.j8xu.builder.api.*;
+
+import org.xml.sax.ContentHandler;
+import org.xml.sax.ext.LexicalHandler;
+
+import javax.annotation.Nullable;
+
+/**
+ * An implementation of an XML Builder that reports SAX events to a {@link ContentHandler},
+ * and optionally a {@link LexicalHandler}.
+ *
+ * Building a node reports the events for the node (and its descendants) directly to
+ * the handlers, so that a document can be fed into a SAX pipeline (e.g. a
+ * {@link javax.xml.transform.sax.TransformerHandler}) without being serialized and then parsed.
+ * As there is no result from the build, {@link XmlNodeBuilder#build()} always returns null.
+ *
+ * Namespaces are reported as prefix mappings in the same manner that the other
+ * implementations declare them, i.e. only where they are not already in scope.
+ * Comments, and the boundaries of CDATA Sections, are only reported if there
+ * is a LexicalHandler.
+ *
+ * If a handler raises an error, it is thrown as an {@link XmlBuilderException}.
+ */
+public class SaxXmlBuilder implements XmlBuilder<Void> {
+
+  @SuppressWarnings("unchecked")
+  private static final XmlChildNodeBuilder<Void>[] NO_CHILDREN = new XmlChildNodeBuilder[0];
+
+  private final SaxContext context;
+
+  /**
+   * Constructor.
+   *
+   * If the content handler is also a {@link LexicalHandler}, then it will
+   * also be used as the lexical handler.
+   *
+   * @param contentHandler the handler to report events to.
+   */
+  public SaxXmlBuilder(final ContentHandler contentHandler) {
+    this(contentHandler, contentHandler instanceof LexicalHandler ? (LexicalHandler) contentHandler : null, null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param contentHandler the handler to report events to.
+   * @param lexicalHandler the handler to report lexical events to, or null to not report lexical events.
+   * @param indent if you want the XML output to be indented you should set this to the indentation character(s), otherwise set it to null.
+   */
+  public SaxXmlBuilder(final ContentHandler contentHandler, @Nullable final LexicalHandler lexicalHandler, @Nullable final String indent) {
+    this.context = new SaxContext(contentHandler, lexicalHandler, indent);
+  }
+
+  @SafeVarargs
+  @Override
+  public final SaxXmlDocumentBuilder document(final XmlChildNodeBuilder<Void>... children) {
+    return new SaxXmlDocumentBuilder(context, children);
+  }
+
+  @Override
+  public final SaxXmlElementBuilder element(final String localName, final XmlAttributesBuilder<Void> attributes) {
+    return element(null, localName, null, attributes, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final SaxXmlElementBuilder element(final String localName, final XmlAttributesBuilder<Void> attributes, final XmlChildNodeBuilder<Void>... children) {
+    return element(null, localName, null, attributes, children);
+  }
+
+  @Override
+  public final SaxXmlElementBuilder element(final String namespace, final String localName, final XmlAttributesBuilder<Void> attributes) {
+    return element(namespace, localName, null, attributes, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final SaxXmlElementBuilder element(final String namespace, final String localName, final XmlAttributesBuilder<Void> attributes, final XmlChildNodeBuilder<Void>... children) {
+    return element(namespace, localName, null, attributes, children);
+  }
+
+  @Override
+  public final SaxXmlElementBuilder element(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<Void> attributes) {
+    return new SaxXmlElementBuilder(context, namespace, localName, prefix, attributes, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final SaxXmlElementBuilder element(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<Void> attributes, final XmlChildNodeBuilder<Void>... children) {
+    return new SaxXmlElementBuilder(context, namespace, localName, prefix, attributes, children);
+  }
+
+  @Override
+  public final SaxXmlElementBuilder element(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<Void> attributes, final Iterable<? extends XmlChildNodeBuilder<Void>> children) {
+    return new SaxXmlElementBuilder(context, namespace, localName, prefix, attributes, children);
+  }
+
+  @Override
+  public final SaxXmlElementBuilder element(final String localName) {
+    return element(null, localName, null, null, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final SaxXmlElementBuilder element(final String localName, final XmlChildNodeBuilder<Void>... children) {
+    return element(null, localName, null, null, children);
+  }
+
+  @Override
+  public final SaxXmlElementBuilder element(final String namespace, final String localName) {
+    return element(namespace, localName, null, null, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final SaxXmlElementBuilder element(final String namespace, final String localName, final XmlChildNodeBuilder<Void>... children) {
+    return element(namespace, localName, null, null, children);
+  }
+
+  @Override
+  public final SaxXmlElementBuilder element(final String namespace, final String localName, final String prefix) {
+    return element(namespace, localName, prefix, null, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final SaxXmlElementBuilder element(final String namespace, final String localName, final String prefix, final XmlChildNodeBuilder<Void>... children) {
+    return element(namespace, localName, prefix, null, children);
+  }
+
+  @SafeVarargs
+  @Override
+  public final SaxXmlAttributesBuilder attributes(final XmlAttribute... attributes) {
+    return new SaxXmlAttributesBuilder(context, attributes);
+  }
+
+  @Override
+  public final SaxXmlTextBuilder text(final String content) {
+    return new SaxXmlTextBuilder(context, content);
+  }
+
+  @Override
+  public final SaxXmlCommentBuilder comment(final String content) {
+    return new SaxXmlCommentBuilder(context, content);
+  }
+
+  @Override
+  public final SaxXmlCdataBuilder cdata(final String content) {
+    return new SaxXmlCdataBuilder(context, content);
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.sax;
+
+import com.evolvedbinary.j8xu.builder.api.XmlBuilderException;
+import com.evolvedbinary.j8xu.builder.api.XmlCommentBuilder;
+import org.xml.sax.SAXException;
+
+/**
+ * An implementation of an XML Comment Builder that reports the comment
+ * to the LexicalHandler, if there is no LexicalHandler then the comment
+ * is discarded.
+ */
+public class SaxXmlCommentBuilder implements XmlCommentBuilder<Void> {
+  private final SaxContext context;
+  private final String content;
+
+  SaxXmlCommentBuilder(final SaxContext context, final String content) {
+    this.context = context;
+    this.content = content;
+  }
+
+  @Override
+  public Void build() {
+    context.markMixedContentTreeDepth();
+    try {
+      context.comment(content);
+    } catch (final SAXException e) {
+      throw new XmlBuilderException(e);
+    }
+    return null;
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.sax;
+
+import com.evolvedbinary.j8xu.builder.api.XmlAttributesBuilder;
+import com.evolvedbinary.j8xu.builder.api.XmlBuilderException;
+import com.evolvedbinary.j8xu.builder.api.XmlChildNodeBuilder;
+import com.evolvedbinary.j8xu.builder.api.XmlElementBuilder;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+import javax.annotation.Nullable;
+import javax.xml.XMLConstants;
+import java.util.Iterator;
+
+/**
+ * An implementation of an XML Element Builder that reports SAX events.
+ */
+public class SaxXmlElementBuilder implements XmlElementBuilder<Void> {
+  private final SaxContext context;
+  @Nullable private final String namespace;
+  private final String localName;
+  private final String qName;
+  private @Nullable final String prefix;
+  private @Nullable final XmlAttributesBuilder<Void> attributes;
+  @Nullable private final XmlChildNodeBuilder<Void>[] children;
+  @Nullable private final Iterable<? extends XmlChildNodeBuilder<Void>> lazyChildren;
+
+  @SafeVarargs
+  SaxXmlElementBuilder(final SaxContext context, @Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<Void> attributes, final XmlChildNodeBuilder<Void>... children) {
+    this.context = context;
+    this.namespace = namespace;
+    this.localName = localName;
+    this.qName = prefix != null ? prefix + ':' + localName : localName;
+    this.prefix = prefix;
+    this.attributes = attributes;
+    this.children = children;
+    this.lazyChildren = null;
+  }
+
+  SaxXmlElementBuilder(final SaxContext context, @Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<Void> attributes, final Iterable<? extends XmlChildNodeBuilder<Void>> children) {
+    this.context = context;
+    this.namespace = namespace;
+    this.localName = localName;
+    this.qName = prefix != null ? prefix + ':' + localName : localName;
+    this.prefix = prefix;
+    this.attributes = attributes;
+    this.children = null;
+    this.lazyChildren = children;
+  }
+
+  @Override
+  public Void build() {
+    try {
+      buildElement();
+    } catch (final SAXException e) {
+      throw new XmlBuilderException(e);
+    }
+    return null;
+  }
+
+  private void buildElement() throws SAXException {
+    final ContentHandler contentHandler = context.getContentHandler();
+
+    // indent?
+    final int startTreeDepth = context.getTreeDepth();
+    if (startTreeDepth > 0 && context.indent() && !context.inMixedContext()) {
+      context.indent(startTreeDepth);
+    }
+
+    // namespace
+    @Nullable String declaredPrefix = null;
+    if (prefix != null && !context.isPrefixInScope(prefix, namespace)) {
+      declaredPrefix = prefix;
+      contentHandler.startPrefixMapping(declaredPrefix, namespace);
+
+      context.pushNamespace(namespace, prefix);
+    } else if (namespace != null && !context.isNamespaceInScope(namespace)) {
+      declaredPrefix = XMLConstants.DEFAULT_NS_PREFIX;
+      contentHandler.startPrefixMapping(declaredPrefix, namespace);
+
+      context.pushNamespace(namespace, null);
+    }
+
+    final AttributesImpl elementAttributes = context.getAttributes();
+    elementAttributes.clear();
+    if (attributes != null) {
+      attributes.build();
+    }
+
+    final String uri = namespace != null ? namespace : XMLConstants.NULL_NS_URI;
+    contentHandler.startElement(uri, localName, qName, elementAttributes);
+    elementAttributes.clear();
+
+    context.incrementTreeDepth();
+
+    @Nullable final Iterator<? extends XmlChildNodeBuilder<Void>> lazyIterator = lazyChildren != null ? lazyChildren.iterator() : null;
+    if (lazyIterator != null ? lazyIterator.hasNext() : children != null && children.length > 0) {
+      // build the children
+      if (lazyIterator != null) {
+        do {
+          lazyIterator.next().build();
+        } while (lazyIterator.hasNext());
+
+      } else {
+        for (int i = 0; i < children.length; i++) {
+          final XmlChildNodeBuilder<Void> child = children[i];
+
+          // build the child
+          child.build();
+        }
+      }
+
+      // indent?
+      if (context.indent() && !context.inMixedContext()) {
+        context.indent(startTreeDepth);
+      }
+
+      context.resetMixedContentTreeDepth();
+    }
+
+    contentHandler.endElement(uri, localName, qName);
+
+    context.decrementTreeDepth();
+
+    if (declaredPrefix != null) {
+      contentHandler.endPrefixMapping(declaredPrefix);
+      context.popNamespace();
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.stax;
+
+import com.evolvedbinary.j8xu.builder.impl.common.AbstractContext;
+
+import javax.annotation.Nullable;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+class StaxContext extends AbstractContext {
+  private final XMLStreamWriter writer;
+
+  StaxContext(final XMLStreamWriter writer, @Nullable final String indent) {
+    super(indent);
+    this.writer = writer;
+  }
+
+  XMLStreamWriter getWriter() {
+    return writer;
+  }
+
+  /**
+   * Write a new line followed by the indent for a tree depth.
+   *
+   * @param treeDepth the depth of the tree to indent to.
+   *
+   * @throws XMLStreamException if an error occurs whilst writing.
+   */
+  void writeIndent(final int treeDepth) throws XMLStreamException {
+    writer.writeCharacters("\n");
+    for (int i = 0; i < treeDepth; i++) {
+      writer.writeCharacters(getIndent());
+    }
+  }
+
+  @Override
+  protected void pushNamespace(final String namespace, @Nullable final String prefix) {
+    super.pushNamespace(namespace, prefix);
+  }
+
+  @Override
+  protected void popNamespace() {
+    super.popNamespace();
+  }
+
+  @Override
+  protected void incrementTreeDepth() {
+    super.incrementTreeDepth();
+  }
+
+  @Override
+  protected void decrementTreeDepth() {
+    super.decrementTreeDepth();
+  }
+
+  @Override
+  protected void markMixedContentTreeDepth() {
+    super.markMixedContentTreeDepth();
+  }
+
+  @Override
+  protected void resetMixedContentTreeDepth() {
+    super.resetMixedContentTreeDepth();
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.stax;
+
+import com.evolvedbinary.j8xu.builder.api.*;
+
+import javax.annotation.Nullable;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * An implementation of an XML Builder that writes to a StAX {@link XMLStreamWriter}.
+ *
+ * Building a node writes the events for the node (and its descendants) directly to
+ * the XMLStreamWriter, so no intermediate representation is ever created.
+ * As there is no result from the build, {@link XmlNodeBuilder#build()} always returns null.
+ *
+ * Namespaces are declared in the same manner as the other implementations,
+ * i.e. only where they are not already in scope, and so the XMLStreamWriter
+ * should not be configured to repair namespaces.
+ *
+ * If the XMLStreamWriter reports an error, it is thrown as an {@link XmlBuilderException}.
+ */
+public class StaxXmlBuilder implements XmlBuilder<Void> {
+
+  @SuppressWarnings("unchecked")
+  private static final XmlChildNodeBuilder<Void>[] NO_CHILDREN = new XmlChildNodeBuilder[0];
+
+  private final StaxContext context;
+
+  /**
+   * Constructor.
+   *
+   * @param writer the writer to write to.
+   */
+  public StaxXmlBuilder(final XMLStreamWriter writer) {
+    this(writer, null);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param writer the writer to write to.
+   * @param indent if you want the XML output to be indented you should set this to the indentation character(s), otherwise set it to null.
+   */
+  public StaxXmlBuilder(final XMLStreamWriter writer, @Nullable final String indent) {
+    this.context = new StaxContext(writer, indent);
+  }
+
+  @SafeVarargs
+  @Override
+  public final StaxXmlDocumentBuilder document(final XmlChildNodeBuilder<Void>... children) {
+    return new StaxXmlDocumentBuilder(context, children);
+  }
+
+  @Override
+  public final StaxXmlElementBuilder element(final String localName, final XmlAttributesBuilder<Void> attributes) {
+    return element(null, localName, null, attributes, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final StaxXmlElementBuilder element(final String localName, final XmlAttributesBuilder<Void> attributes, final XmlChildNodeBuilder<Void>... children) {
+    return element(null, localName, null, attributes, children);
+  }
+
+  @Override
+  public final StaxXmlElementBuilder element(final String namespace, final String localName, final XmlAttributesBuilder<Void> attributes) {
+    return element(namespace, localName, null, attributes, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final StaxXmlElementBuilder element(final String namespace, final String localName, final XmlAttributesBuilder<Void> attributes, final XmlChildNodeBuilder<Void>... children) {
+    return element(namespace, localName, null, attributes, children);
+  }
+
+  @Override
+  public final StaxXmlElementBuilder element(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<Void> attributes) {
+    return new StaxXmlElementBuilder(context, namespace, localName, prefix, attributes, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final StaxXmlElementBuilder element(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<Void> attributes, final XmlChildNodeBuilder<Void>... children) {
+    return new StaxXmlElementBuilder(context, namespace, localName, prefix, attributes, children);
+  }
+
+  @Override
+  public final StaxXmlElementBuilder element(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<Void> attributes, final Iterable<? extends XmlChildNodeBuilder<Void>> children) {
+    return new StaxXmlElementBuilder(context, namespace, localName, prefix, attributes, children);
+  }
+
+  @Override
+  public final StaxXmlElementBuilder element(final String localName) {
+    return element(null, localName, null, null, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final StaxXmlElementBuilder element(final String localName, final XmlChildNodeBuilder<Void>... children) {
+    return element(null, localName, null, null, children);
+  }
+
+  @Override
+  public final StaxXmlElementBuilder element(final String namespace, final String localName) {
+    return element(namespace, localName, null, null, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final StaxXmlElementBuilder element(final String namespace, final String localName, final XmlChildNodeBuilder<Void>... children) {
+    return element(namespace, localName, null, null, children);
+  }
+
+  @Override
+  public final StaxXmlElementBuilder element(final String namespace, final String localName, final String prefix) {
+    return element(namespace, localName, prefix, null, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final StaxXmlElementBuilder element(final String namespace, final String localName, final String prefix, final XmlChildNodeBuilder<Void>... children) {
+    return element(namespace, localName, prefix, null, children);
+  }
+
+  @SafeVarargs
+  @Override
+  public final StaxXmlAttributesBuilder attributes(final XmlAttribute... attributes) {
+    return new StaxXmlAttributesBuilder(context, attributes);
+  }
+
+  @Override
+  public final StaxXmlTextBuilder text(final String content) {
+    return new StaxXmlTextBuilder(context, content);
+  }
+
+  @Override
+  public final StaxXmlCommentBuilder comment(final String content) {
+    return new StaxXmlCommentBuilder(context, content);
+  }
+
+  @Override
+  public final StaxXmlCdataBuilder cdata(final String content) {
+    return new StaxXmlCdataBuilder(context, content);
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.stax;
+
+import com.evolvedbinary.j8xu.builder.api.XmlAttributesBuilder;
+import com.evolvedbinary.j8xu.builder.api.XmlBuilderException;
+import com.evolvedbinary.j8xu.builder.api.XmlChildNodeBuilder;
+import com.evolvedbinary.j8xu.builder.api.XmlElementBuilder;
+
+import javax.annotation.Nullable;
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.util.Iterator;
+
+/**
+ * An implementation of an XML Element Builder that writes to an XMLStreamWriter.
+ */
+public class StaxXmlElementBuilder implements XmlElementBuilder<Void> {
+  private final StaxContext context;
+  @Nullable private final String namespace;
+  private final String localName;
+  private @Nullable final String prefix;
+  private @Nullable final XmlAttributesBuilder<Void> attributes;
+  @Nullable private final XmlChildNodeBuilder<Void>[] children;
+  @Nullable private final Iterable<? extends XmlChildNodeBuilder<Void>> lazyChildren;
+
+  @SafeVarargs
+  StaxXmlElementBuilder(final StaxContext context, @Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<Void> attributes, final XmlChildNodeBuilder<Void>... children) {
+    this.context = context;
+    this.namespace = namespace;
+    this.localName = localName;
+    this.prefix = prefix;
+    this.attributes = attributes;
+    this.children = children;
+    this.lazyChildren = null;
+  }
+
+  StaxXmlElementBuilder(final StaxContext context, @Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<Void> attributes, final Iterable<? extends XmlChildNodeBuilder<Void>> children) {
+    this.context = context;
+    this.namespace = namespace;
+    this.localName = localName;
+    this.prefix = prefix;
+    this.attributes = attributes;
+    this.children = null;
+    this.lazyChildren = children;
+  }
+
+  @Override
+  public Void build() {
+    try {
+      buildElement();
+    } catch (final XMLStreamException e) {
+      throw new XmlBuilderException(e);
+    }
+    return null;
+  }
+
+  private void buildElement() throws XMLStreamException {
+    final XMLStreamWriter writer = context.getWriter();
+
+    // indent?
+    final int startTreeDepth = context.getTreeDepth();
+    if (startTreeDepth > 0 && context.indent() && !context.inMixedContext()) {
+      context.writeIndent(startTreeDepth);
+    }
+
+    @Nullable final Iterator<? extends XmlChildNodeBuilder<Void>> lazyIterator = lazyChildren != null ? lazyChildren.iterator() : null;
+    final boolean empty = lazyIterator != null ? !lazyIterator.hasNext() : children == null || children.length == 0;
+    if (prefix != null) {
+      if (empty) {
+        writer.writeEmptyElement(prefix, localName, namespace);
+      } else {
+        writer.writeStartElement(prefix, localName, namespace);
+      }
+    } else if (namespace != null) {
+      if (empty) {
+        writer.writeEmptyElement(XMLConstants.DEFAULT_NS_PREFIX, localName, namespace);
+      } else {
+        writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, localName, namespace);
+      }
+    } else {
+      if (empty) {
+        writer.writeEmptyElement(localName);
+      } else {
+        writer.writeStartElement(localName);
+      }
+    }
+
+    // namespace
+    boolean pushedNamespace = false;
+    if (prefix != null && !context.isPrefixInScope(prefix, namespace)) {
+      writer.writeNamespace(prefix, namespace);
+
+      context.pushNamespace(namespace, prefix);
+      pushedNamespace = true;
+    } else if (namespace != null && !context.isNamespaceInScope(namespace)) {
+      writer.writeDefaultNamespace(namespace);
+
+      context.pushNamespace(namespace, null);
+      pushedNamespace = true;
+    }
+
+    if (attributes != null) {
+      attributes.build();
+    }
+
+    context.incrementTreeDepth();
+
+    if (!empty) {
+      // build the children
+      if (lazyIterator != null) {
+        do {
+          lazyIterator.next().build();
+        } while (lazyIterator.hasNext());
+
+      } else {
+        for (int i = 0; i < children.length; i++) {
+          final XmlChildNodeBuilder<Void> child = children[i];
+
+          // build the child
+          child.build();
+        }
+      }
+
+      // indent?
+      if (context.indent() && !context.inMixedContext()) {
+        context.writeIndent(startTreeDepth);
+      }
+
+      context.resetMixedContentTreeDepth();
+
+      // close the element
+      writer.writeEndElement();
+    }
+
+    context.decrementTreeDepth();
+
+    if (pushedNamespace) {
+      context.popNamespace();
+    }
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.string;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+/**
+ * An Appendable that counts the chars written to an underlying Appendable.
+ */
+class CountingAppendable implements Appendable {
+  final Appendable out;
+  private long length;
+
+  /**
+   * @param out the appendable to write to.
+   */
+  CountingAppendable(final Appendable out) {
+    this.out = out;
+  }
+
+  @Override
+  public Appendable append(@Nullable final CharSequence csq) throws IOException {
+    out.append(csq);
+    length += csq != null ? csq.length() : 4;
+    return this;
+  }
+
+  @Override
+  public Appendable append(@Nullable final CharSequence csq, final int start, final int end) throws IOException {
+    out.append(csq, start, end);
+    length += end - start;
+    return this;
+  }
+
+  @Override
+  public Appendable append(final char c) throws IOException {
+    out.append(c);
+    length++;
+    return this;
+  }
+
+  /**
+   * Get the number of chars that have been written.
+   *
+   * @return the number of chars.
+   */
+  long getLength() {
+    return length;
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.string;
+
+import com.evolvedbinary.j8xu.builder.api.FlushPolicy;
+
+import javax.annotation.Nullable;
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * An Appendable that counts the chars written to an underlying Appendable,
+ * and flushes it when a {@link FlushPolicy} decides that it should be.
+ */
+final class FlushingAppendable extends CountingAppendable {
+  private final FlushPolicy flushPolicy;
+  private long flushedLength;
+  private long lastFlushNanos;
+
+  /**
+   * @param out the appendable to write to, which must also be {@link Flushable}.
+   * @param flushPolicy the policy which decides when to flush.
+   */
+  FlushingAppendable(final Appendable out, final FlushPolicy flushPolicy) {
+    super(out);
+    this.flushPolicy = flushPolicy;
+    this.lastFlushNanos = System.nanoTime();
+  }
+
+  /**
+   * Called when an element has ended, flushes if the policy decides that it should.
+   *
+   * @param depth the depth of the element.
+   *
+   * @throws IOException if an error occurs whilst flushing.
+   */
+  void elementEnded(final int depth) throws IOException {
+    final long unflushed = getLength() - flushedLength;
+    if (unflushed > 0 && flushPolicy.shouldFlush(unflushed, System.nanoTime() - lastFlushNanos, depth)) {
+      flush();
+    }
+  }
+
+  /**
+   * Flush any chars written since the last flush.
+   *
+   * @throws IOException if an error occurs whilst flushing.
+   */
+  void flush() throws IOException {
+    if (getLength() > flushedLength) {
+      ((Flushable) out).flush();
+      flushedLength = getLength();
+      lastFlushNanos = System.nanoTime();
+    }
+  }
+
+  /**
+   * Wrap an appendable so that it is flushed according to a policy.
+   *
+   * @param out the appendable.
+   * @param flushPolicy the policy, or null.
+   *
+   * @return the wrapped appendable, or null if there is no policy or the appendable is not {@link Flushable}.
+   */
+  @Nullable static FlushingAppendable wrap(final Appendable out, @Nullable final FlushPolicy flushPolicy) {
+    if (flushPolicy == null || !(out instanceof Flushable)) {
+      return null;
+    }
+    return new FlushingAppendable(out, flushPolicy);
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.string;
+
+import com.evolvedbinary.j8xu.builder.api.FlushPolicy;
+import com.evolvedbinary.j8xu.builder.api.XmlBuildListener;
+import com.evolvedbinary.j8xu.builder.impl.common.Indentation;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The immutable configuration of a {@link StringXmlBuilder},
+ * from which a new {@link StringContext} is created for each build.
+ */
+final class StringConfig {
+  @Nullable final String indent;
+  @Nullable final Indentation indentation;
+  @Nullable final ForkJoinPool parallelPool;
+  final int parallelThreshold;
+  @Nullable final XmlBuildListener listener;
+  @Nullable final FlushPolicy flushPolicy;
+
+  StringConfig(@Nullable final String indent, final String newLine, @Nullable final ForkJoinPool parallelPool, final int parallelThreshold) {
+    this.indent = indent;
+    this.indentation = indent != null ? new Indentation(indent, newLine) : null;
+    this.parallelPool = parallelPool;
+    this.parallelThreshold = parallelThreshold;
+    this.listener = null;
+    this.flushPolicy = null;
+  }
+
+  private StringConfig(final StringConfig other, @Nullable final XmlBuildListener listener, @Nullable final FlushPolicy flushPolicy) {
+    this.indent = other.indent;
+    this.indentation = other.indentation;
+    this.parallelPool = other.parallelPool;
+    this.parallelThreshold = other.parallelThreshold;
+    this.listener = listener;
+    this.flushPolicy = flushPolicy;
+  }
+
+  /**
+   * Create a copy of this configuration with a different listener.
+   *
+   * @param listener the listener, or null for no listener.
+   *
+   * @return the new configuration.
+   */
+  StringConfig withListener(@Nullable final XmlBuildListener listener) {
+    return new StringConfig(this, listener, flushPolicy);
+  }
+
+  /**
+   * Create a copy of this configuration with a different flush policy.
+   *
+   * @param flushPolicy the flush policy, or null to never flush during a build.
+   *
+   * @return the new configuration.
+   */
+  StringConfig withFlushPolicy(@Nullable final FlushPolicy flushPolicy) {
+    return new StringConfig(this, listener, flushPolicy);
+  }
+
+  /**
+   * Create a new context for a build.
+   *
+   * @param flushing the output to flush as elements end, or null.
+   *
+   * @return the new context.
+   */
+  StringContext newContext(@Nullable final FlushingAppendable flushing) {
+    return new StringContext(this, flushing, null);
+  }
+
+  /**
+   * Build a node within a new context, notifying the listener, if any, of the build.
+   *
+   * If there is a flush policy, and the appendable is {@link java.io.Flushable}, then it
+   * is flushed as elements end according to the policy, and once more when the build completes.
+   *
+   * @param nodeBuilder the node builder to build.
+   * @param out the appendable to write the built node to.
+   *
+   * @throws IOException if an error occurs whilst writing to the appendable.
+   */
+  void build(final AbstractStringXmlNodeBuilder nodeBuilder, final Appendable out) throws IOException {
+    if (out instanceof StringLengthCounter) {
+      // NOTE(AR) measuring is not a build, so it neither notifies the listener nor flushes
+      nodeBuilder.buildTo(out, (listener != null ? withListener(null) : this).newContext(null));
+      return;
+    }
+
+    @Nullable final FlushingAppendable flushing = FlushingAppendable.wrap(out, flushPolicy);
+    if (flushing != null) {
+      buildAndNotify(nodeBuilder, flushing, newContext(flushing));
+      flushing.flush();
+    } else {
+      buildAndNotify(nodeBuilder, out, newContext(null));
+    }
+  }
+
+  /**
+   * Compile a node into a template within a new context, notifying the listener, if any, of the build.
+   *
+   * @param nodeBuilder the node builder to compile.
+   * @param compiler the compiler of the template.
+   *
+   * @throws IOException if an error occurs whilst writing to the compiler.
+   */
+  void compile(final AbstractStringXmlNodeBuilder nodeBuilder, final StringXmlTemplateCompiler compiler) throws IOException {
+    buildAndNotify(nodeBuilder, compiler, new StringContext(this, null, compiler));
+  }
+
+  private void buildAndNotify(final AbstractStringXmlNodeBuilder nodeBuilder, final Appendable out, final StringContext context) throws IOException {
+    if (listener == null) {
+      nodeBuilder.buildTo(out, context);
+      return;
+    }
+
+    // NOTE(AR) the length is taken from a StringBuilder, otherwise it is counted as it is written,
+    // except when compiling a template, as the compiler must receive the output directly
+    @Nullable final StringBuilder builder = out instanceof StringBuilder ? (StringBuilder) out : null;
+    @Nullable final CountingAppendable counting;
+    if (builder != null || context.getCompiler() != null) {
+      counting = null;
+    } else {
+      counting = out instanceof CountingAppendable ? (CountingAppendable) out : new CountingAppendable(out);
+    }
+    final int startLength = builder != null ? builder.length() : 0;
+
+    listener.startBuild();
+    final long start = System.nanoTime();
+
+    nodeBuilder.buildTo(counting != null ? counting : out, context);
+
+    final long nanos = System.nanoTime() - start;
+    final long length = builder != null ? builder.length() - startLength : counting != null ? counting.getLength() : -1;
+    listener.endBuild(length, nanos);
+  }
+}
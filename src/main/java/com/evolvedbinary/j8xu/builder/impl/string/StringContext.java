@@ -26,94 +26,128 @@
  */
 package com.evolvedbinary.j8xu.builder.impl.string;
 
+import com.evolvedbinary.j8xu.builder.impl.common.AbstractContext;
+
 import javax.annotation.Nullable;
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
 
-class StringContext {
-  private final Deque<StringXmlElementNamespace> inScopeNamespaces = new ArrayDeque<>();
-  private int treeDepth = 0;
-  private int mixedContentTreeDepth = -1;
-  @Nullable private final String indent;
+/**
+ * The state that is maintained by the {@link StringXmlBuilder} whilst it is building.
+ *
+ * A new context is created for each build, and so it is never shared between threads.
+ */
+class StringContext extends AbstractContext {
+  private final StringConfig config;
+  @Nullable private final FlushingAppendable flushing;
+  @Nullable private final StringXmlTemplateCompiler compiler;
 
-  StringContext(@Nullable final String indent) {
-    this.indent = indent;
+  /**
+   * @param config the configuration of the builder.
+   * @param flushing the output to flush as elements end, or null.
+   * @param compiler the compiler if the build is compiling a template, or null.
+   */
+  StringContext(final StringConfig config, @Nullable final FlushingAppendable flushing, @Nullable final StringXmlTemplateCompiler compiler) {
+    super(config.indent, config.listener);
+    this.config = config;
+    this.flushing = flushing;
+    this.compiler = compiler;
+  }
+
+  private StringContext(final StringContext other) {
+    super(other);
+    this.config = other.config;
+    this.flushing = null;
+    this.compiler = other.compiler;
   }
 
   /**
-   * Determine if a prefix is in scope.
+   * Create a snapshot of this context, so that a subtree may be built independently.
    *
-   * @param prefix the prefix to test.
-   * @param namespace the namespace associated with the prefix
+   * NOTE(AR) the snapshot never flushes, as the subtree is built into its own buffer.
    *
-   * @return true if the prefix is in scope, false otherwise.
+   * @return the snapshot.
    */
-  boolean isPrefixInScope(final String prefix, final String namespace) {
-      for (final StringXmlElementNamespace inScopeNamespace : inScopeNamespaces) {
-        if (prefix.equals(inScopeNamespace.prefix)) {
-          return namespace.equals(inScopeNamespace.namespace);
-        }
-      }
-      return false;
+  StringContext snapshot() {
+    return new StringContext(this);
   }
 
   /**
-   * Determine if a namespace is in scope.
+   * Get the indentation for a depth.
    *
-   * @param namespace the namespace to test.
+   * @param depth the depth.
    *
-   * @return true if the namespace is in scope, false otherwise.
+   * @return the new line followed by the indent repeated {@code depth} times.
    */
-  boolean isNamespaceInScope(final String namespace) {
-    for (final StringXmlElementNamespace inScopeNamespace : inScopeNamespaces) {
-      if (namespace.equals(inScopeNamespace.namespace)) {
-        return true;
-      }
-    }
-    return false;
+  String getIndentation(final int depth) {
+    return config.indentation.get(depth);
   }
 
-  void pushNamespace(final StringXmlElementNamespace namespace) {
-    inScopeNamespaces.push(namespace);
+  /**
+   * Called when an element has ended, so that the output may be flushed according to the flush policy.
+   *
+   * @param depth the depth of the element.
+   *
+   * @throws IOException if an error occurs whilst flushing.
+   */
+  void elementEnded(final int depth) throws IOException {
+    if (flushing != null) {
+      flushing.elementEnded(depth);
+    }
   }
 
-  void popNamespace() {
-    inScopeNamespaces.pop();
+  /**
+   * Determine if children should be built in parallel.
+   *
+   * @param childCount the number of children.
+   *
+   * @return true if the children should be built in parallel.
+   */
+  boolean parallel(final int childCount) {
+    // NOTE(AR) a template is always compiled sequentially, as the compiler records its holes in order
+    return compiler == null && config.parallelPool != null && childCount >= config.parallelThreshold;
   }
 
-  boolean indent() {
-    return indent != null;
+  @Nullable ForkJoinPool getParallelPool() {
+    return config.parallelPool;
   }
 
-  String getIndent() {
-    return indent;
+  /**
+   * Get the compiler of the template, if the build is compiling a template.
+   *
+   * @return the compiler, or null if the build is not compiling a template.
+   */
+  @Nullable StringXmlTemplateCompiler getCompiler() {
+    return compiler;
   }
 
-  int getTreeDepth() {
-    return treeDepth;
+  @Override
+  protected void pushNamespace(final String namespace, @Nullable final String prefix) {
+    super.pushNamespace(namespace, prefix);
   }
 
-  void incrementTreeDepth() {
-    treeDepth++;
+  @Override
+  protected void popNamespace() {
+    super.popNamespace();
   }
 
-  void decrementTreeDepth() {
-    treeDepth--;
+  @Override
+  protected void incrementTreeDepth() {
+    super.incrementTreeDepth();
   }
 
-  void markMixedContentTreeDepth() {
-    if (this.mixedContentTreeDepth == -1) {
-      this.mixedContentTreeDepth = this.treeDepth;
-    }
+  @Override
+  protected void decrementTreeDepth() {
+    super.decrementTreeDepth();
   }
 
-  boolean inMixedContext() {
-    return this.mixedContentTreeDepth != -1 && this.treeDepth >= this.mixedContentTreeDepth;
+  @Override
+  protected void markMixedContentTreeDepth() {
+    super.markMixedContentTreeDepth();
   }
 
-  void resetMixedContentTreeDepth() {
-    if (this.mixedContentTreeDepth == this.treeDepth) {
-      this.mixedContentTreeDepth = -1;
-    }
+  @Override
+  protected void resetMixedContentTreeDepth() {
+    super.resetMixedContentTreeDepth();
   }
 }
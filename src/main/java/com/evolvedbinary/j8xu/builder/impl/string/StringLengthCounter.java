@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.string;
+
+/**
+ * An Appendable which discards what is appended to it,
+ * and just counts the number of chars.
+ *
+ * Used by {@link StringXmlNodeBuilder#measure()}.
+ */
+final class StringLengthCounter implements Appendable {
+
+  /**
+   * The maximum length of a String or array which the JVM can reliably allocate.
+   */
+  static final int MAX_LENGTH = Integer.MAX_VALUE - 8;
+
+  private long length = 0;
+
+  /**
+   * Get the number of chars that have been appended.
+   *
+   * @return the number of chars.
+   */
+  long getLength() {
+    return length;
+  }
+
+  @Override
+  public Appendable append(final CharSequence csq) {
+    length += csq == null ? 4 : csq.length();  // NOTE(AR) a null CharSequence is appended as "null"
+    return this;
+  }
+
+  @Override
+  public Appendable append(final CharSequence csq, final int start, final int end) {
+    length += end - start;
+    return this;
+  }
+
+  @Override
+  public Appendable append(final char c) {
+    length++;
+    return this;
+  }
+}
@@ -28,26 +28,54 @@ package com.evolvedbinary.j8xu.builder.impl.string;
 
 import com.evolvedbinary.j8xu.builder.api.XmlAttribute;
 import com.evolvedbinary.j8xu.builder.api.XmlAttributesBuilder;
+import com.evolvedbinary.j8xu.builder.impl.common.XmlEscaping;
 
-public class StringXmlAttributesBuilder implements XmlAttributesBuilder<String> {
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+public class StringXmlAttributesBuilder extends AbstractStringXmlNodeBuilder implements XmlAttributesBuilder<String> {
   private final XmlAttribute[] attributes;
 
-  StringXmlAttributesBuilder(final XmlAttribute[] attributes) {
+  StringXmlAttributesBuilder(final StringConfig config, final XmlAttribute[] attributes) {
+    super(config);
     this.attributes = attributes;
   }
 
   @Override
-  public String build() {
-    final StringBuilder buffer = new StringBuilder();
-    for (final XmlAttribute attribute : attributes) {
-      if (buffer.length() > 0) {
-        buffer.append(' ');
+  public void buildTo(final Appendable out) throws IOException {
+    // NOTE(AR) attributes alone are not a build, so they neither notify the listener nor flush
+    buildTo(out, config.newContext(null));
+  }
+
+  @Override
+  void buildTo(final Appendable out, final StringContext context) throws IOException {
+    for (int i = 0; i < attributes.length; i++) {
+      final XmlAttribute attribute = attributes[i];
+      if (i > 0) {
+        out.append(' ');
       }
-      buffer.append(attribute.name);
-      buffer.append("=\"");
-      buffer.append(attribute.value);
-      buffer.append("\"");
+      writeAttribute(out, context, attribute.name, attribute.value);
+    }
+  }
+
+  /**
+   * Write an attribute, escaping its value.
+   *
+   * @param out the appendable to write to.
+   * @param context the context of the build.
+   * @param name the name of the attribute.
+   * @param value the value of the attribute.
+   *
+   * @throws IOException if an error occurs whilst writing to the appendable.
+   */
+  static void writeAttribute(final Appendable out, final StringContext context, final String name, @Nullable final Object value) throws IOException {
+    out.append(name);
+    out.append("=\"");
+    if (value instanceof StringXmlHole) {
+      ((StringXmlHole) value).buildValueTo(context);
+    } else {
+      XmlEscaping.writeValueTo(out, value, true);
     }
-    return buffer.toString();
+    out.append('"');
   }
 }
@@ -27,24 +27,36 @@
 package com.evolvedbinary.j8xu.builder.impl.string;
 
 import com.evolvedbinary.j8xu.builder.api.*;
+import com.evolvedbinary.j8xu.builder.impl.common.Indentation;
 
 import javax.annotation.Nullable;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * An implementation of an XML Builder that builds a string representation.
+ *
+ * Instances of this class, and the node builders that they produce, are immutable and hold no state
+ * whilst building, so they may be shared between threads and built concurrently. The only exception
+ * is elements whose children are provided by a single use source such as an Iterator or Stream.
+ *
+ * The node builders produced by this builder may also be written directly
+ * to an {@link Appendable} via {@link StringXmlNodeBuilder#buildTo(Appendable)}.
+ *
+ * A tree of nodes containing holes, see {@link #hole(String)}, may be compiled
+ * into a {@link StringXmlTemplate} which can then be rendered repeatedly.
  */
 public class StringXmlBuilder implements XmlBuilder<String> {
 
   @SuppressWarnings("unchecked")
   private static final XmlChildNodeBuilder<String>[] NO_CHILDREN = new XmlChildNodeBuilder[0];
 
-  private final StringContext context;
+  private final StringConfig config;
 
   /**
    * Default constructor.
    */
   public StringXmlBuilder() {
-    this(null);
+    this(null, Indentation.LF);
   }
 
   /**
@@ -53,99 +65,206 @@ public class StringXmlBuilder implements XmlBuilder<String> {
    * @param indent if you want the XML output to be indented you should set this to the indentation character(s), otherwise set it to null.
    */
   public StringXmlBuilder(@Nullable final String indent) {
-    this.context = new StringContext(indent);
+    this(indent, Indentation.LF);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param indent if you want the XML output to be indented you should set this to the indentation character(s), otherwise set it to null.
+   * @param newLine the new line to write before each indent, one of {@link Indentation#LF}, {@link Indentation#CRLF}, or {@link Indentation#CR}.
+   *
+   * @throws IllegalArgumentException if the new line is not one of {@link Indentation#LF}, {@link Indentation#CRLF}, or {@link Indentation#CR}.
+   */
+  public StringXmlBuilder(@Nullable final String indent, final String newLine) {
+    this.config = new StringConfig(indent, newLine, null, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Constructor for a builder that builds the children of large elements in parallel.
+   *
+   * When an element has at least {@code parallelThreshold} children, and all of them are elements,
+   * the children are split into slices which are built concurrently by ForkJoin tasks. Each task
+   * builds into its own buffer with a snapshot of the in-scope namespaces and tree depth,
+   * and the buffers are then concatenated in order, so the result is identical to a sequential build.
+   *
+   * @param indent if you want the XML output to be indented you should set this to the indentation character(s), otherwise set it to null.
+   * @param parallelPool the pool in which to build the children of large elements.
+   * @param parallelThreshold the minimum number of children that an element must have to be built in parallel.
+   */
+  public StringXmlBuilder(@Nullable final String indent, final ForkJoinPool parallelPool, final int parallelThreshold) {
+    this.config = new StringConfig(indent, Indentation.LF, parallelPool, parallelThreshold);
+  }
+
+  private StringXmlBuilder(final StringConfig config) {
+    this.config = config;
+  }
+
+  /**
+   * Create a builder with the same configuration as this builder,
+   * which notifies a listener as nodes are built.
+   *
+   * Only the node builders produced by the new builder notify the listener.
+   *
+   * @param listener the listener to notify, or null for no listener.
+   *
+   * @return the new builder.
+   */
+  public StringXmlBuilder withListener(@Nullable final XmlBuildListener listener) {
+    return new StringXmlBuilder(config.withListener(listener));
+  }
+
+  /**
+   * Create a builder with the same configuration as this builder,
+   * whose node builders stream their output with low latency by flushing it
+   * according to a policy as elements end.
+   *
+   * The policy only applies when building to an appendable that is {@link java.io.Flushable},
+   * e.g. a {@link java.io.Writer}, which is also flushed once more when the build completes.
+   *
+   * When the children of an element are built in parallel, they are built into separate buffers,
+   * and so the policy is only consulted as each buffer is written, rather than as each child ends.
+   *
+   * @param flushPolicy the policy, or null to never flush during a build.
+   *
+   * @return the new builder.
+   */
+  public StringXmlBuilder withFlushPolicy(@Nullable final FlushPolicy flushPolicy) {
+    return new StringXmlBuilder(config.withFlushPolicy(flushPolicy));
+  }
+
+  /**
+   * Create a writer with the same configuration as this builder,
+   * which streams XML directly to an appendable as its methods are called.
+   *
+   * @param out the appendable to write to.
+   *
+   * @return the new writer.
+   */
+  public StringXmlWriter writer(final Appendable out) {
+    return new StringXmlWriter(config, out);
   }
 
   @SafeVarargs
   @Override
-  public final XmlDocumentBuilder<String> document(final XmlChildNodeBuilder<String>... children) {
-    return new StringXmlDocumentBuilder(context, children);
+  public final StringXmlDocumentBuilder document(final XmlChildNodeBuilder<String>... children) {
+    return new StringXmlDocumentBuilder(config, children);
   }
 
   @Override
-  public final XmlElementBuilder<String> element(final String localName, final XmlAttributesBuilder<String> attributes) {
+  public final StringXmlElementBuilder element(final String localName, final XmlAttributesBuilder<String> attributes) {
     return element(null, localName, null, attributes, NO_CHILDREN);
   }
 
   @SafeVarargs
   @Override
-  public final XmlElementBuilder<String> element(final String localName, final XmlAttributesBuilder<String> attributes, final XmlChildNodeBuilder<String>... children) {
+  public final StringXmlElementBuilder element(final String localName, final XmlAttributesBuilder<String> attributes, final XmlChildNodeBuilder<String>... children) {
     return element(null, localName, null, attributes, children);
   }
 
   @Override
-  public final XmlElementBuilder<String> element(final String namespace, final String localName, final XmlAttributesBuilder<String> attributes) {
+  public final StringXmlElementBuilder element(final String namespace, final String localName, final XmlAttributesBuilder<String> attributes) {
     return element(namespace, localName, null, attributes, NO_CHILDREN);
   }
 
   @SafeVarargs
   @Override
-  public final XmlElementBuilder<String> element(final String namespace, final String localName, final XmlAttributesBuilder<String> attributes, final XmlChildNodeBuilder<String>... children) {
+  public final StringXmlElementBuilder element(final String namespace, final String localName, final XmlAttributesBuilder<String> attributes, final XmlChildNodeBuilder<String>... children) {
     return element(namespace, localName, null, attributes, children);
   }
 
   @Override
-  public final XmlElementBuilder<String> element(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<String> attributes) {
-    return new StringXmlElementBuilder(context, namespace, localName, prefix, attributes, NO_CHILDREN);
+  public final StringXmlElementBuilder element(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<String> attributes) {
+    return new StringXmlElementBuilder(config, namespace, localName, prefix, attributes, NO_CHILDREN);
   }
 
   @SafeVarargs
   @Override
-  public final XmlElementBuilder<String> element(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<String> attributes, final XmlChildNodeBuilder<String>... children) {
-    return new StringXmlElementBuilder(context, namespace, localName, prefix, attributes, children);
+  public final StringXmlElementBuilder element(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<String> attributes, final XmlChildNodeBuilder<String>... children) {
+    return new StringXmlElementBuilder(config, namespace, localName, prefix, attributes, children);
+  }
+
+  @Override
+  public final StringXmlElementBuilder element(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<String> attributes, final Iterable<? extends XmlChildNodeBuilder<String>> children) {
+    return new StringXmlElementBuilder(config, namespace, localName, prefix, attributes, children);
   }
 
   @Override
-  public final XmlElementBuilder<String> element(final String localName) {
+  public final StringXmlElementBuilder element(final String localName) {
     return element(null, localName, null, null, NO_CHILDREN);
   }
 
   @SafeVarargs
   @Override
-  public final XmlElementBuilder<String> element(final String localName, final XmlChildNodeBuilder<String>... children) {
+  public final StringXmlElementBuilder element(final String localName, final XmlChildNodeBuilder<String>... children) {
     return element(null, localName, null, null, children);
   }
 
   @Override
-  public final XmlElementBuilder<String> element(final String namespace, final String localName) {
+  public final StringXmlElementBuilder element(final String namespace, final String localName) {
     return element(namespace, localName, null, null, NO_CHILDREN);
   }
 
   @SafeVarargs
   @Override
-  public final XmlElementBuilder<String> element(final String namespace, final String localName, final XmlChildNodeBuilder<String>... children) {
+  public final StringXmlElementBuilder element(final String namespace, final String localName, final XmlChildNodeBuilder<String>... children) {
     return element(namespace, localName, null, null, children);
   }
 
   @Override
-  public final XmlElementBuilder<String> element(final String namespace, final String localName, final String prefix) {
+  public final StringXmlElementBuilder element(final String namespace, final String localName, final String prefix) {
     return element(namespace, localName, prefix, null, NO_CHILDREN);
   }
 
   @SafeVarargs
   @Override
-  public final XmlElementBuilder<String> element(final String namespace, final String localName, final String prefix, final XmlChildNodeBuilder<String>... children) {
+  public final StringXmlElementBuilder element(final String namespace, final String localName, final String prefix, final XmlChildNodeBuilder<String>... children) {
     return element(namespace, localName, prefix, null, children);
   }
 
   @SafeVarargs
   @Override
-  public final XmlAttributesBuilder<String> attributes(final XmlAttribute... attributes) {
-    return new StringXmlAttributesBuilder(attributes);
+  public final StringXmlAttributesBuilder attributes(final XmlAttribute... attributes) {
+    return new StringXmlAttributesBuilder(config, attributes);
   }
 
   @Override
-  public final XmlTextBuilder<String> text(final String content) {
-    return new StringXmlTextBuilder(context, content);
+  public final StringXmlTextBuilder text(final String content) {
+    return new StringXmlTextBuilder(config, content, true);
+  }
+
+  /**
+   * Create a text node whose content has already been escaped,
+   * and so is written verbatim.
+   *
+   * @param content the escaped content of the text node.
+   *
+   * @return the text node builder.
+   */
+  public final StringXmlTextBuilder preEscapedText(final String content) {
+    return new StringXmlTextBuilder(config, content, false);
   }
 
   @Override
-  public final XmlCommentBuilder<String> comment(final String content) {
-    return new StringXmlCommentBuilder(context, content);
+  public final StringXmlCommentBuilder comment(final String content) {
+    return new StringXmlCommentBuilder(config, content);
   }
 
   @Override
-  public final XmlCdataBuilder<String> cdata(final String content) {
-    return new StringXmlCdataBuilder(context, content);
+  public final StringXmlCdataBuilder cdata(final String content) {
+    return new StringXmlCdataBuilder(config, content);
+  }
+
+  /**
+   * Create a named hole for use in a {@link StringXmlTemplate}.
+   *
+   * The hole may be used either as a text child node, or as the value of an attribute.
+   *
+   * @param name the name of the hole.
+   *
+   * @return the hole.
+   */
+  public final StringXmlHole hole(final String name) {
+    return new StringXmlHole(config, name);
   }
 }
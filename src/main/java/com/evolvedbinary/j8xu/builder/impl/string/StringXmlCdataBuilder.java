@@ -26,20 +26,40 @@
  */
 package com.evolvedbinary.j8xu.builder.impl.string;
 
+import com.evolvedbinary.j8xu.builder.api.XmlBuildListener;
 import com.evolvedbinary.j8xu.builder.api.XmlCdataBuilder;
 
-public class StringXmlCdataBuilder implements XmlCdataBuilder<String> {
-  private final StringContext context;
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+public class StringXmlCdataBuilder extends AbstractStringXmlNodeBuilder implements XmlCdataBuilder<String> {
   private final String content;
 
-  StringXmlCdataBuilder(final StringContext context, final String content) {
-    this.context = context;
+  StringXmlCdataBuilder(final StringConfig config, final String content) {
+    super(config);
     this.content = content;
   }
 
   @Override
-  public String build() {
+  void buildTo(final Appendable out, final StringContext context) throws IOException {
+    writeCdata(out, context, content);
+  }
+
+  /**
+   * Write a CDATA section.
+   *
+   * @param out the appendable to write to.
+   * @param context the context of the build.
+   * @param content the content of the CDATA section.
+   *
+   * @throws IOException if an error occurs whilst writing to the appendable.
+   */
+  static void writeCdata(final Appendable out, final StringContext context, final String content) throws IOException {
     context.markMixedContentTreeDepth();
-    return "<![CDATA[" + content + "]]>";
+    @Nullable final XmlBuildListener listener = context.getListener();
+    if (listener != null) {
+      listener.cdata();
+    }
+    out.append("<![CDATA[").append(content).append("]]>");
   }
 }
@@ -26,20 +26,40 @@
  */
 package com.evolvedbinary.j8xu.builder.impl.string;
 
+import com.evolvedbinary.j8xu.builder.api.XmlBuildListener;
 import com.evolvedbinary.j8xu.builder.api.XmlCommentBuilder;
 
-public class StringXmlCommentBuilder implements XmlCommentBuilder<String> {
-  private final StringContext context;
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+public class StringXmlCommentBuilder extends AbstractStringXmlNodeBuilder implements XmlCommentBuilder<String> {
   private final String content;
 
-  StringXmlCommentBuilder(final StringContext context, final String content) {
-    this.context = context;
+  StringXmlCommentBuilder(final StringConfig config, final String content) {
+    super(config);
     this.content = content;
   }
 
   @Override
-  public String build() {
+  void buildTo(final Appendable out, final StringContext context) throws IOException {
+    writeComment(out, context, content);
+  }
+
+  /**
+   * Write a comment.
+   *
+   * @param out the appendable to write to.
+   * @param context the context of the build.
+   * @param content the content of the comment.
+   *
+   * @throws IOException if an error occurs whilst writing to the appendable.
+   */
+  static void writeComment(final Appendable out, final StringContext context, final String content) throws IOException {
     context.markMixedContentTreeDepth();
-    return "<!-- " + content + " -->";
+    @Nullable final XmlBuildListener listener = context.getListener();
+    if (listener != null) {
+      listener.comment();
+    }
+    out.append("<!-- ").append(content).append(" -->");
   }
 }
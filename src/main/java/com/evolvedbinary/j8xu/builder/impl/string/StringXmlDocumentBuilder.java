@@ -26,24 +26,34 @@
  */
 package com.evolvedbinary.j8xu.builder.impl.string;
 
+import com.evolvedbinary.j8xu.builder.api.XmlBuildListener;
 import com.evolvedbinary.j8xu.builder.api.XmlChildNodeBuilder;
 import com.evolvedbinary.j8xu.builder.api.XmlDocumentBuilder;
 
-public class StringXmlDocumentBuilder implements XmlDocumentBuilder<String> {
-  private final StringContext context;
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+public class StringXmlDocumentBuilder extends AbstractStringXmlNodeBuilder implements XmlDocumentBuilder<String> {
   private final XmlChildNodeBuilder<String>[] children;
 
-  StringXmlDocumentBuilder(final StringContext context, final XmlChildNodeBuilder<String>[] children) {
-    this.context = context;
+  StringXmlDocumentBuilder(final StringConfig config, final XmlChildNodeBuilder<String>[] children) {
+    super(config);
     this.children = children;
   }
 
   @Override
-  public String build() {
-    final StringBuilder buffer = new StringBuilder();
-    for (final XmlChildNodeBuilder child : children) {
-      buffer.append(child.build()); // TODO(AR) indent and ws
+  void buildTo(final Appendable out, final StringContext context) throws IOException {
+    @Nullable final XmlBuildListener listener = context.getListener();
+    if (listener != null) {
+      listener.startDocument();
+    }
+
+    for (final XmlChildNodeBuilder<String> child : children) {
+      AbstractStringXmlNodeBuilder.buildTo(child, out, context); // TODO(AR) indent and ws
+    }
+
+    if (listener != null) {
+      listener.endDocument();
     }
-    return buffer.toString();
   }
 }
@@ -27,113 +27,183 @@
 package com.evolvedbinary.j8xu.builder.impl.string;
 
 import com.evolvedbinary.j8xu.builder.api.XmlAttributesBuilder;
+import com.evolvedbinary.j8xu.builder.api.XmlBuildListener;
 import com.evolvedbinary.j8xu.builder.api.XmlChildNodeBuilder;
 import com.evolvedbinary.j8xu.builder.api.XmlElementBuilder;
+import com.evolvedbinary.j8xu.builder.impl.common.ElementTag;
+import com.evolvedbinary.j8xu.builder.impl.common.XmlEscaping;
 
 import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * An implementation of an XML Element Builder that builds a string representation.
  */
-public class StringXmlElementBuilder implements XmlElementBuilder<String> {
-  private final StringContext context;
+public class StringXmlElementBuilder extends AbstractStringXmlNodeBuilder implements XmlElementBuilder<String> {
+  private static final int SLICES_PER_THREAD = 4;
+
   @Nullable private final String namespace;
   private final String localName;
+  @Nullable private final ElementTag tag;
   private @Nullable final String prefix;
   private @Nullable final XmlAttributesBuilder<String> attributes;
-  private final XmlChildNodeBuilder<String>[] children;
+  @Nullable private final XmlChildNodeBuilder<String>[] children;
+  @Nullable private final Iterable<? extends XmlChildNodeBuilder<String>> lazyChildren;
 
   @SafeVarargs
-  StringXmlElementBuilder(final StringContext context, @Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<String> attributes, final XmlChildNodeBuilder<String>... children) {
-    this.context = context;
+  StringXmlElementBuilder(final StringConfig config, @Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<String> attributes, final XmlChildNodeBuilder<String>... children) {
+    super(config);
     this.namespace = namespace;
     this.localName = localName;
+    this.tag = ElementTag.get(prefix, localName);
     this.prefix = prefix;
     this.attributes = attributes;
     this.children = children;
+    this.lazyChildren = null;
+  }
+
+  StringXmlElementBuilder(final StringConfig config, @Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<String> attributes, final Iterable<? extends XmlChildNodeBuilder<String>> children) {
+    super(config);
+    this.namespace = namespace;
+    this.localName = localName;
+    this.tag = ElementTag.get(prefix, localName);
+    this.prefix = prefix;
+    this.attributes = attributes;
+    this.children = null;
+    this.lazyChildren = children;
   }
 
   @Override
-  public String build() {
-    final StringBuilder buffer = new StringBuilder();
+  void buildTo(final Appendable out, final StringContext context) throws IOException {
+    final boolean pushedNamespace = writeStart(out, context, namespace, localName, prefix, tag);
 
-    // indent?
-    final int startTreeDepth = context.getTreeDepth();
-    if (startTreeDepth > 0 && context.indent() && !context.inMixedContext()) {
-      buffer.append('\n');
-      for (int i = 0; i < startTreeDepth; i++) {
-        buffer.append(context.getIndent());
+    if (attributes != null) {
+      out.append(' ');
+      AbstractStringXmlNodeBuilder.buildTo(attributes, out, context);
+    }
+
+    @Nullable final Iterator<? extends XmlChildNodeBuilder<String>> lazyIterator = lazyChildren != null ? lazyChildren.iterator() : null;
+    final boolean empty = lazyIterator != null ? !lazyIterator.hasNext() : children == null || children.length == 0;
+    if (!empty) {
+      out.append(">");
+
+      // build the children
+      if (lazyIterator != null) {
+        do {
+          AbstractStringXmlNodeBuilder.buildTo(lazyIterator.next(), out, context);
+        } while (lazyIterator.hasNext());
+
+      } else if (context.parallel(children.length) && allElements(children)) {
+        buildChildrenInParallel(out, context);
+
+      } else {
+        for (int i = 0; i < children.length; i++) {
+          final XmlChildNodeBuilder<String> child = children[i];
+
+          // build the child
+          AbstractStringXmlNodeBuilder.buildTo(child, out, context);
+        }
       }
     }
 
-    buffer.append('<');
-    if (prefix != null) {
-      buffer.append(prefix);
-      buffer.append(':');
+    writeEnd(out, context, namespace, localName, prefix, tag, empty, pushedNamespace);
+  }
+
+  /**
+   * Write the start of an element, i.e. its start tag up to but excluding any attributes,
+   * and declare its namespace if it is not already in scope.
+   *
+   * NOTE(AR) the start tag is left open, so that the caller may then write the attributes.
+   * This is shared with {@link StringXmlWriter}, so that both produce the same output.
+   *
+   * @param out the appendable to write to.
+   * @param context the context of the build, whose tree depth is incremented.
+   * @param namespace the namespace of the element, or null.
+   * @param localName the local name of the element.
+   * @param prefix the prefix of the element, or null.
+   * @param tag the tag fragments of the element, or null if they were not cached.
+   *
+   * @return true if a namespace was declared and pushed into scope, which must be passed to
+   *     {@link #writeEnd(Appendable, StringContext, String, String, String, ElementTag, boolean, boolean)}.
+   *
+   * @throws IOException if an error occurs whilst writing to the appendable.
+   */
+  static boolean writeStart(final Appendable out, final StringContext context, @Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final ElementTag tag) throws IOException {
+    final int startTreeDepth = context.getTreeDepth();
+    @Nullable final XmlBuildListener listener = context.getListener();
+    if (listener != null) {
+      listener.startElement(namespace, localName, prefix, startTreeDepth);
     }
-    buffer.append(localName);
+
+    // indent?
+    if (startTreeDepth > 0 && context.indent() && !context.inMixedContext()) {
+      out.append(context.getIndentation(startTreeDepth));
+    }
+
+    ElementTag.appendStartTag(out, tag, prefix, localName);
 
     // namespace
     boolean pushedNamespace = false;
     if (prefix != null && !context.isPrefixInScope(prefix, namespace)) {
-      buffer.append(" xmlns:");
-      buffer.append(prefix);
-      buffer.append("=\"");
-      buffer.append(namespace);
-      buffer.append("\"");
+      out.append(" xmlns:");
+      out.append(prefix);
+      out.append("=\"");
+      XmlEscaping.escapeTo(out, namespace, true);
+      out.append("\"");
 
-      context.pushNamespace(new StringXmlElementNamespace(namespace, prefix));
+      context.pushNamespace(namespace, prefix);
       pushedNamespace = true;
     } else if (namespace != null && !context.isNamespaceInScope(namespace)) {
-      buffer.append(" xmlns");
-      buffer.append("=\"");
-      buffer.append(namespace);
-      buffer.append("\"");
+      out.append(" xmlns");
+      out.append("=\"");
+      XmlEscaping.escapeTo(out, namespace, true);
+      out.append("\"");
 
-      context.pushNamespace(new StringXmlElementNamespace(namespace));
+      context.pushNamespace(namespace, null);
       pushedNamespace = true;
     }
 
-    if (attributes != null) {
-      buffer.append(' ');
-      buffer.append(attributes.build());
-    }
-
     context.incrementTreeDepth();
 
-    if (children == null || children.length == 0) {
-      // no children, so self-closing element
-      buffer.append("/>");
-
-    } else {
-      buffer.append(">");
+    return pushedNamespace;
+  }
 
-      // build the children
-      for (int i = 0; i < children.length; i++) {
-        final XmlChildNodeBuilder<String> child = children[i];
+  /**
+   * Write the end of an element, either by self-closing its start tag if it is empty,
+   * or by writing its end tag after its content.
+   *
+   * @param out the appendable to write to.
+   * @param context the context of the build, whose tree depth is decremented.
+   * @param namespace the namespace of the element, or null.
+   * @param localName the local name of the element.
+   * @param prefix the prefix of the element, or null.
+   * @param tag the tag fragments of the element, or null if they were not cached.
+   * @param empty true if the element has no content, in which case its start tag must still be open.
+   * @param pushedNamespace the result of {@link #writeStart(Appendable, StringContext, String, String, String, ElementTag)}.
+   *
+   * @throws IOException if an error occurs whilst writing to the appendable.
+   */
+  static void writeEnd(final Appendable out, final StringContext context, @Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final ElementTag tag, final boolean empty, final boolean pushedNamespace) throws IOException {
+    final int startTreeDepth = context.getTreeDepth() - 1;
 
-        // build the child
-        buffer.append(child.build());
-      }
+    if (empty) {
+      // no children, so self-closing element
+      out.append("/>");
 
+    } else {
       // indent?
       if (context.indent() && !context.inMixedContext()) {
-        buffer.append('\n');
-        for (int i = 0; i < startTreeDepth; i++) {
-          buffer.append(context.getIndent());
-        }
+        out.append(context.getIndentation(startTreeDepth));
       }
 
       context.resetMixedContentTreeDepth();
 
       // close the element
-      buffer.append("</");
-      if (prefix != null) {
-        buffer.append(prefix);
-        buffer.append(':');
-      }
-      buffer.append(localName);
-      buffer.append('>');
+      ElementTag.appendEndTag(out, tag, prefix, localName);
     }
 
     context.decrementTreeDepth();
@@ -142,6 +212,94 @@ public class StringXmlElementBuilder implements XmlElementBuilder<String> {
       context.popNamespace();
     }
 
-    return buffer.toString();
+    @Nullable final XmlBuildListener listener = context.getListener();
+    if (listener != null) {
+      listener.endElement(namespace, localName, prefix, startTreeDepth);
+    }
+
+    context.elementEnded(startTreeDepth);
+  }
+
+  /**
+   * Determine if all of the children are elements.
+   *
+   * NOTE(AR) only then can slices of the children be built independently, as each element
+   * leaves the context in the same state that it found it, whereas any other node may
+   * affect the mixed content state for its following siblings.
+   */
+  private static boolean allElements(final XmlChildNodeBuilder<String>[] children) {
+    for (int i = 0; i < children.length; i++) {
+      if (!(children[i] instanceof XmlElementBuilder)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Build the children by splitting them into slices, each of which is built by a ForkJoin task
+   * into its own buffer with a snapshot of the context. The buffers are then written in order.
+   *
+   * NOTE(AR) as the snapshots never flush, the output is instead offered to the flush policy
+   * after each buffer is written, as though the last child in the buffer had just ended.
+   */
+  private void buildChildrenInParallel(final Appendable out, final StringContext context) throws IOException {
+    final ForkJoinPool pool = context.getParallelPool();
+    final int sliceCount = Math.min(children.length, pool.getParallelism() * SLICES_PER_THREAD);
+    final StringBuilder[] slices = new StringBuilder[sliceCount];
+    try {
+      pool.invoke(new BuildSlicesTask(children, context, slices, 0, sliceCount));
+    } catch (final UncheckedIOException e) {
+      throw e.getCause();
+    }
+
+    final int childDepth = context.getTreeDepth();
+    for (final StringBuilder slice : slices) {
+      out.append(slice);
+      context.elementEnded(childDepth);
+    }
+  }
+
+  private static class BuildSlicesTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final XmlChildNodeBuilder<String>[] children;
+    private final StringContext context;
+    private final StringBuilder[] slices;
+    private final int fromSlice;
+    private final int toSlice;
+
+    BuildSlicesTask(final XmlChildNodeBuilder<String>[] children, final StringContext context, final StringBuilder[] slices, final int fromSlice, final int toSlice) {
+      this.children = children;
+      this.context = context;
+      this.slices = slices;
+      this.fromSlice = fromSlice;
+      this.toSlice = toSlice;
+    }
+
+    @Override
+    protected void compute() {
+      if (toSlice - fromSlice > 1) {
+        final int midSlice = (fromSlice + toSlice) >>> 1;
+        invokeAll(
+            new BuildSlicesTask(children, context, slices, fromSlice, midSlice),
+            new BuildSlicesTask(children, context, slices, midSlice, toSlice)
+        );
+        return;
+      }
+
+      final int from = (int) ((long) children.length * fromSlice / slices.length);
+      final int to = (int) ((long) children.length * toSlice / slices.length);
+      final StringContext sliceContext = context.snapshot();
+      final StringBuilder buffer = new StringBuilder();
+      try {
+        for (int i = from; i < to; i++) {
+          AbstractStringXmlNodeBuilder.buildTo(children[i], buffer, sliceContext);
+        }
+      } catch (final IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      slices[fromSlice] = buffer;
+    }
   }
 }
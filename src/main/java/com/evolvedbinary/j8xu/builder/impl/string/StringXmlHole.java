@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.string;
+
+import com.evolvedbinary.j8xu.builder.api.XmlBuilderException;
+import com.evolvedbinary.j8xu.builder.api.XmlTextBuilder;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+
+/**
+ * A named placeholder for a value in a {@link StringXmlTemplate}.
+ *
+ * A hole may be used either as a text child node, or as the value of an attribute.
+ * It can only be built when a template is compiled, the value for
+ * the hole is then provided each time that the template is rendered,
+ * and is escaped according to where the hole is used.
+ */
+public class StringXmlHole extends AbstractStringXmlNodeBuilder implements XmlTextBuilder<String> {
+  private final String name;
+
+  StringXmlHole(final StringConfig config, final String name) {
+    super(config);
+    this.name = name;
+  }
+
+  /**
+   * Get the name of the hole.
+   *
+   * @return the name of the hole.
+   */
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  void buildTo(final Appendable out, final StringContext context) throws IOException {
+    // NOTE(AR) the hole stands in for a text node, so the same indentation decisions must be made
+    context.markMixedContentTreeDepth();
+    compiler(context).hole(name, false);
+  }
+
+  /**
+   * Build the hole as the value of an attribute.
+   *
+   * @param context the context of the build.
+   */
+  void buildValueTo(final StringContext context) {
+    compiler(context).hole(name, true);
+  }
+
+  private StringXmlTemplateCompiler compiler(final StringContext context) {
+    @Nullable final StringXmlTemplateCompiler compiler = context.getCompiler();
+    if (compiler == null) {
+      throw new XmlBuilderException("The hole '" + name + "' can only be built by compiling a StringXmlTemplate");
+    }
+    return compiler;
+  }
+}
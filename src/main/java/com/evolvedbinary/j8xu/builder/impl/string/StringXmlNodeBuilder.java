@@ -0,0 +1,129 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.string;
+
+import com.evolvedbinary.j8xu.builder.api.XmlBuilderException;
+import com.evolvedbinary.j8xu.builder.api.XmlNodeBuilder;
+
+import java.io.IOException;
+
+/**
+ * Interface for a builder class that builds a string representation of an XML Node.
+ *
+ * As well as building a String, the representation may be written directly
+ * to an {@link Appendable}, so that a whole tree of nodes can be written
+ * into a single buffer or {@link java.io.Writer} without creating
+ * intermediate Strings for each node.
+ */
+public interface StringXmlNodeBuilder extends XmlNodeBuilder<String> {
+
+  /**
+   * Build the node and write the result to an Appendable.
+   *
+   * @param out the appendable to write the built node to.
+   *
+   * @throws IOException if an error occurs whilst writing to the appendable.
+   */
+  void buildTo(final Appendable out) throws IOException;
+
+  @Override
+  default String build() {
+    final StringBuilder buffer = new StringBuilder();
+    try {
+      buildTo(buffer);
+    } catch (final IOException e) {
+      // NOTE(AR) a StringBuilder never throws an IOException
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+    return buffer.toString();
+  }
+
+  /**
+   * Measure the number of chars that building the node produces, without keeping the result.
+   *
+   * Measuring is not a build, so any {@link com.evolvedbinary.j8xu.builder.api.XmlBuildListener} is not notified.
+   *
+   * @return the length of the built node.
+   */
+  default long measure() {
+    final StringLengthCounter counter = new StringLengthCounter();
+    try {
+      buildTo(counter);
+    } catch (final IOException e) {
+      // NOTE(AR) a StringLengthCounter never throws an IOException
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+    return counter.getLength();
+  }
+
+  /**
+   * Build the node into a buffer of exactly the right size.
+   *
+   * The tree is built twice, first by {@link #measure()} and then into a buffer of the measured size,
+   * which trades the extra work of the first pass for never having to grow and copy the buffer.
+   * This is worthwhile for large documents, but as the tree is built twice, it cannot
+   * contain elements whose children are provided by a single use source such as an Iterator or Stream.
+   *
+   * @return the built node.
+   *
+   * @throws XmlBuilderException if the node is too large to be built into a String.
+   */
+  default String buildExactSize() {
+    final long length = measure();
+    if (length > StringLengthCounter.MAX_LENGTH) {
+      throw new XmlBuilderException("The node is too large to build into a String, its length is: " + length);
+    }
+
+    final StringBuilder buffer = new StringBuilder((int) length);
+    try {
+      buildTo(buffer);
+    } catch (final IOException e) {
+      // NOTE(AR) a StringBuilder never throws an IOException
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+    return buffer.toString();
+  }
+
+  /**
+   * Build any node that produces a String and write the result to an Appendable.
+   *
+   * Node builders from this implementation are written directly to the appendable,
+   * whereas node builders from any other implementation are built and then appended.
+   *
+   * @param nodeBuilder the node builder to build.
+   * @param out the appendable to write the built node to.
+   *
+   * @throws IOException if an error occurs whilst writing to the appendable.
+   */
+  static void buildTo(final XmlNodeBuilder<String> nodeBuilder, final Appendable out) throws IOException {
+    if (nodeBuilder instanceof StringXmlNodeBuilder) {
+      ((StringXmlNodeBuilder) nodeBuilder).buildTo(out);
+    } else {
+      out.append(nodeBuilder.build());
+    }
+  }
+}
@@ -0,0 +1,365 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.string;
+
+import com.evolvedbinary.j8xu.builder.impl.common.PreEscaped;
+import com.evolvedbinary.j8xu.builder.impl.common.XmlEscaping;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A precompiled XML template with named holes.
+ *
+ * A template is compiled once from a tree of nodes which contains one or more
+ * {@link StringXmlHole}, see {@link StringXmlBuilder#hole(String)}. All of the markup
+ * between the holes, including indentation and namespace declarations, is rendered
+ * at compile time, so that rendering the template is just a sequence of appends
+ * of the static segments and the values for the holes.
+ *
+ * For example:
+ * <pre>{@code
+ *   final StringXmlBuilder x = new StringXmlBuilder();
+ *   final StringXmlTemplate template = StringXmlTemplate.compile(
+ *       x.element("person", x.attributes(new XmlAttribute<>("id", x.hole("id"))),
+ *           x.element("name", x.hole("name"))
+ *       )
+ *   );
+ *
+ *   final String xml = template.render(1, "John");
+ * }</pre>
+ *
+ * Templates are immutable and may be rendered concurrently.
+ *
+ * When the same template is rendered at a high rate, a reusable {@link Binding}
+ * may be used instead of {@link #render(Object...)} to avoid allocating for each
+ * document, for example:
+ * <pre>{@code
+ *   final StringBuilder buffer = new StringBuilder();
+ *   final StringXmlTemplate.Binding binding = template.newBinding();
+ *   ...
+ *   buffer.setLength(0);
+ *   binding.reset()
+ *       .set(0, id)
+ *       .set(1, name)
+ *       .renderTo(buffer);
+ * }</pre>
+ */
+public final class StringXmlTemplate {
+  private static final int ESTIMATED_VALUE_LENGTH = 16;
+
+  private final String[] segments;
+  private final int[] holeParameters;
+  private final boolean[] holeAttributes;
+  private final String[] parameterNames;
+  private final int staticLength;
+
+  /**
+   * @param segments the static segments, there is one more segment than there are holes.
+   * @param holeParameters for each hole, the index of the parameter that provides its value.
+   * @param holeAttributes for each hole, true if it is the value of an attribute, false if it is text.
+   * @param parameterNames the names of the parameters.
+   */
+  StringXmlTemplate(final String[] segments, final int[] holeParameters, final boolean[] holeAttributes, final String[] parameterNames) {
+    this.segments = segments;
+    this.holeParameters = holeParameters;
+    this.holeAttributes = holeAttributes;
+    this.parameterNames = parameterNames;
+
+    int length = 0;
+    for (final String segment : segments) {
+      length += segment.length();
+    }
+    this.staticLength = length;
+  }
+
+  /**
+   * Compile a tree of nodes into a template.
+   *
+   * @param nodeBuilder the node builder for the root of the tree.
+   *
+   * @return the template.
+   */
+  public static StringXmlTemplate compile(final StringXmlNodeBuilder nodeBuilder) {
+    final StringXmlTemplateCompiler compiler = new StringXmlTemplateCompiler();
+    try {
+      if (nodeBuilder instanceof AbstractStringXmlNodeBuilder) {
+        ((AbstractStringXmlNodeBuilder) nodeBuilder).compileTo(compiler);
+      } else {
+        // NOTE(AR) a node builder from any other implementation cannot contain holes
+        nodeBuilder.buildTo(compiler);
+      }
+    } catch (final IOException e) {
+      // NOTE(AR) the compiler never throws an IOException
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+    return compiler.compile();
+  }
+
+  /**
+   * Get the names of the parameters of the template.
+   *
+   * A parameter may fill more than one hole if the same name was used for several holes.
+   *
+   * @return the names of the parameters, in the order in which their values must be provided.
+   */
+  public List<String> getParameterNames() {
+    return Collections.unmodifiableList(Arrays.asList(parameterNames));
+  }
+
+  /**
+   * Render the template.
+   *
+   * The values are escaped, unless they are {@link PreEscaped}.
+   *
+   * @param values the values for the parameters, in the same order as {@link #getParameterNames()}.
+   *
+   * @return the rendered XML.
+   *
+   * @throws IllegalArgumentException if the number of values does not match the number of parameters.
+   */
+  public String render(final Object... values) {
+    checkValues(values);
+
+    final StringBuilder buffer = new StringBuilder(staticLength + holeParameters.length * ESTIMATED_VALUE_LENGTH);
+    try {
+      renderValuesTo(buffer, values);
+    } catch (final IOException e) {
+      // NOTE(AR) a StringBuilder never throws an IOException
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+    return buffer.toString();
+  }
+
+  /**
+   * Render the template to an Appendable.
+   *
+   * The values are escaped, unless they are {@link PreEscaped}.
+   *
+   * @param out the appendable to write the rendered XML to.
+   * @param values the values for the parameters, in the same order as {@link #getParameterNames()}.
+   *
+   * @throws IOException if an error occurs whilst writing to the appendable.
+   * @throws IllegalArgumentException if the number of values does not match the number of parameters.
+   */
+  public void renderTo(final Appendable out, final Object... values) throws IOException {
+    checkValues(values);
+    renderValuesTo(out, values);
+  }
+
+  /**
+   * Create a new reusable binding of values to the parameters of this template.
+   *
+   * The binding is owned by the caller, who may reset and refill it
+   * for each document that is rendered.
+   *
+   * NOTE(AR) bindings are deliberately not cached by the template, e.g. per thread,
+   * as a binding refers back to its template, and so a cache would keep discarded
+   * templates reachable from long lived threads.
+   *
+   * @return the new binding, with all of its parameters unset.
+   */
+  public Binding newBinding() {
+    return new Binding();
+  }
+
+  private void renderValuesTo(final Appendable out, final Object[] values) throws IOException {
+    for (int i = 0; i < holeParameters.length; i++) {
+      out.append(segments[i]);
+      XmlEscaping.writeValueTo(out, values[holeParameters[i]], holeAttributes[i]);
+    }
+    out.append(segments[holeParameters.length]);
+  }
+
+  private void checkValues(final Object[] values) {
+    if (values.length != parameterNames.length) {
+      throw new IllegalArgumentException("Expected " + parameterNames.length + " values for the parameters " + Arrays.toString(parameterNames) + ", but found: " + values.length);
+    }
+  }
+
+  /**
+   * A reusable set of values for the parameters of a {@link StringXmlTemplate}.
+   *
+   * A binding can be reset and refilled for each document that is rendered, so that
+   * rendering a template repeatedly into a reused {@link StringBuilder} does not
+   * allocate, provided that the values are Strings, reused CharSequences,
+   * {@link PreEscaped}, or numbers set with {@link #set(int, long)}.
+   *
+   * Bindings are not thread-safe, each thread that renders the template
+   * should use its own binding, see {@link StringXmlTemplate#newBinding()}.
+   */
+  public final class Binding {
+    private static final byte UNSET = 0;
+    private static final byte OBJECT = 1;
+    private static final byte LONG = 2;
+
+    private final Object[] values = new Object[parameterNames.length];
+    private final long[] longValues = new long[parameterNames.length];
+    private final byte[] kinds = new byte[parameterNames.length];
+
+    private Binding() {
+    }
+
+    /**
+     * Unset the values of all of the parameters.
+     *
+     * @return this binding.
+     */
+    public Binding reset() {
+      Arrays.fill(values, null);
+      Arrays.fill(kinds, UNSET);
+      return this;
+    }
+
+    /**
+     * Set the value of a parameter.
+     *
+     * The value is escaped when rendered, unless it is {@link PreEscaped}.
+     *
+     * @param parameter the index of the parameter, see {@link StringXmlTemplate#getParameterNames()}.
+     * @param value the value.
+     *
+     * @return this binding.
+     *
+     * @throws IndexOutOfBoundsException if there is no such parameter.
+     */
+    public Binding set(final int parameter, @Nullable final Object value) {
+      values[parameter] = value;
+      kinds[parameter] = OBJECT;
+      return this;
+    }
+
+    /**
+     * Set the value of a parameter to a number.
+     *
+     * @param parameter the index of the parameter, see {@link StringXmlTemplate#getParameterNames()}.
+     * @param value the value.
+     *
+     * @return this binding.
+     *
+     * @throws IndexOutOfBoundsException if there is no such parameter.
+     */
+    public Binding set(final int parameter, final long value) {
+      values[parameter] = null;
+      longValues[parameter] = value;
+      kinds[parameter] = LONG;
+      return this;
+    }
+
+    /**
+     * Set the value of a parameter by name.
+     *
+     * The value is escaped when rendered, unless it is {@link PreEscaped}.
+     *
+     * @param parameterName the name of the parameter.
+     * @param value the value.
+     *
+     * @return this binding.
+     *
+     * @throws IllegalArgumentException if there is no such parameter.
+     */
+    public Binding set(final String parameterName, @Nullable final Object value) {
+      return set(indexOf(parameterName), value);
+    }
+
+    /**
+     * Set the value of a parameter by name to a number.
+     *
+     * @param parameterName the name of the parameter.
+     * @param value the value.
+     *
+     * @return this binding.
+     *
+     * @throws IllegalArgumentException if there is no such parameter.
+     */
+    public Binding set(final String parameterName, final long value) {
+      return set(indexOf(parameterName), value);
+    }
+
+    /**
+     * Render the template with the values of this binding.
+     *
+     * @return the rendered XML.
+     *
+     * @throws IllegalStateException if the value of a parameter has not been set.
+     */
+    public String render() {
+      final StringBuilder buffer = new StringBuilder(staticLength + holeParameters.length * ESTIMATED_VALUE_LENGTH);
+      try {
+        renderTo(buffer);
+      } catch (final IOException e) {
+        // NOTE(AR) a StringBuilder never throws an IOException
+        throw new IllegalStateException(e.getMessage(), e);
+      }
+      return buffer.toString();
+    }
+
+    /**
+     * Render the template with the values of this binding to an Appendable.
+     *
+     * @param out the appendable to write the rendered XML to.
+     *
+     * @throws IOException if an error occurs whilst writing to the appendable.
+     * @throws IllegalStateException if the value of a parameter has not been set.
+     */
+    public void renderTo(final Appendable out) throws IOException {
+      for (int i = 0; i < kinds.length; i++) {
+        if (kinds[i] == UNSET) {
+          throw new IllegalStateException("No value has been set for the parameter: " + parameterNames[i]);
+        }
+      }
+
+      for (int i = 0; i < holeParameters.length; i++) {
+        out.append(segments[i]);
+        final int parameter = holeParameters[i];
+        if (kinds[parameter] == LONG) {
+          // NOTE(AR) numbers never need escaping
+          if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(longValues[parameter]);
+          } else {
+            out.append(Long.toString(longValues[parameter]));
+          }
+        } else {
+          XmlEscaping.writeValueTo(out, values[parameter], holeAttributes[i]);
+        }
+      }
+      out.append(segments[holeParameters.length]);
+    }
+
+    private int indexOf(final String parameterName) {
+      for (int i = 0; i < parameterNames.length; i++) {
+        if (parameterNames[i].equals(parameterName)) {
+          return i;
+        }
+      }
+      throw new IllegalArgumentException("No such parameter: " + parameterName + ", expected one of: " + Arrays.toString(parameterNames));
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.string;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the output of building a tree of nodes as the static segments
+ * between each {@link StringXmlHole}.
+ */
+class StringXmlTemplateCompiler implements Appendable {
+  private final StringBuilder segment = new StringBuilder();
+  private final List<String> segments = new ArrayList<>();
+  private final List<String> holeNames = new ArrayList<>();
+  private final List<Boolean> holeAttributes = new ArrayList<>();
+  private final List<String> distinctHoleNames = new ArrayList<>();
+
+  @Override
+  public StringXmlTemplateCompiler append(final CharSequence csq) {
+    segment.append(csq);
+    return this;
+  }
+
+  @Override
+  public StringXmlTemplateCompiler append(final CharSequence csq, final int start, final int end) {
+    segment.append(csq, start, end);
+    return this;
+  }
+
+  @Override
+  public StringXmlTemplateCompiler append(final char c) {
+    segment.append(c);
+    return this;
+  }
+
+  /**
+   * Record a hole at the current position.
+   *
+   * @param name the name of the hole.
+   * @param attribute true if the hole is the value of an attribute, false if it is text.
+   */
+  void hole(final String name, final boolean attribute) {
+    segments.add(segment.toString());
+    segment.setLength(0);
+    holeNames.add(name);
+    holeAttributes.add(attribute);
+    if (!distinctHoleNames.contains(name)) {
+      distinctHoleNames.add(name);
+    }
+  }
+
+  StringXmlTemplate compile() {
+    segments.add(segment.toString());
+    segment.setLength(0);
+
+    final String[] distinctNames = distinctHoleNames.toArray(new String[0]);
+    final int[] holeParameters = new int[holeNames.size()];
+    final boolean[] attributes = new boolean[holeNames.size()];
+    for (int i = 0; i < holeParameters.length; i++) {
+      holeParameters[i] = distinctHoleNames.indexOf(holeNames.get(i));
+      attributes[i] = holeAttributes.get(i);
+    }
+
+    return new StringXmlTemplate(segments.toArray(new String[0]), holeParameters, attributes, distinctNames);
+  }
+}
@@ -26,20 +26,48 @@
  */
 package com.evolvedbinary.j8xu.builder.impl.string;
 
+import com.evolvedbinary.j8xu.builder.api.XmlBuildListener;
 import com.evolvedbinary.j8xu.builder.api.XmlTextBuilder;
+import com.evolvedbinary.j8xu.builder.impl.common.XmlEscaping;
 
-public class StringXmlTextBuilder implements XmlTextBuilder<String> {
-  private final StringContext context;
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+public class StringXmlTextBuilder extends AbstractStringXmlNodeBuilder implements XmlTextBuilder<String> {
   private final String content;
+  private final boolean escape;
 
-  StringXmlTextBuilder(final StringContext context, final String content) {
-    this.context = context;
+  StringXmlTextBuilder(final StringConfig config, final String content, final boolean escape) {
+    super(config);
     this.content = content;
+    this.escape = escape;
   }
 
   @Override
-  public String build() {
+  void buildTo(final Appendable out, final StringContext context) throws IOException {
+    writeText(out, context, content, escape);
+  }
+
+  /**
+   * Write a text node.
+   *
+   * @param out the appendable to write to.
+   * @param context the context of the build.
+   * @param content the content of the text node.
+   * @param escape true if the content should be escaped, false if it has already been escaped.
+   *
+   * @throws IOException if an error occurs whilst writing to the appendable.
+   */
+  static void writeText(final Appendable out, final StringContext context, final String content, final boolean escape) throws IOException {
     context.markMixedContentTreeDepth();
-    return content;
+    @Nullable final XmlBuildListener listener = context.getListener();
+    if (listener != null) {
+      listener.text();
+    }
+    if (escape) {
+      XmlEscaping.escapeTo(out, content, false);
+    } else {
+      out.append(content);
+    }
   }
 }
@@ -0,0 +1,354 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.string;
+
+import com.evolvedbinary.j8xu.builder.api.XmlBuildListener;
+import com.evolvedbinary.j8xu.builder.api.XmlBuilderException;
+import com.evolvedbinary.j8xu.builder.api.XmlChildNodeBuilder;
+import com.evolvedbinary.j8xu.builder.impl.common.ElementTag;
+
+import javax.annotation.Nullable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A writer that streams a string representation of XML directly to an {@link Appendable},
+ * as each of its methods is called, without first building a tree of nodes.
+ *
+ * This complements the node builders of {@link StringXmlBuilder} for documents that are
+ * too large, or produced too incrementally, to be held as a tree, e.g. logs or exports.
+ * The memory used is constant, apart from a small amount for each open element.
+ *
+ * The writer produces the same output as the node builders, i.e. it shares their
+ * indentation, escaping, and namespace declarations, and it notifies the
+ * {@link XmlBuildListener}, if any, of the same events except for those of the build.
+ * Node builders may also be written into the writer with {@link #node(XmlChildNodeBuilder)}.
+ *
+ * The start tag of an element is left open until its first child is written, or it is ended,
+ * so that attributes may be written with {@link #attribute(String, Object)} directly after
+ * {@link #startElement(String)}. Elements that are ended without any children are self-closed.
+ *
+ * If the builder has a {@link com.evolvedbinary.j8xu.builder.api.FlushPolicy}, and the appendable is
+ * {@link Flushable}, then the appendable is flushed as elements end according to the policy,
+ * and once more when the document ends.
+ *
+ * A writer is not thread-safe.
+ */
+public class StringXmlWriter implements Flushable {
+  private static final int INITIAL_OPEN_ELEMENTS = 8;
+
+  private final Appendable out;
+  @Nullable private final FlushingAppendable flushing;
+  private final StringContext context;
+
+  private boolean inDocument;
+  private boolean startTagOpen;
+
+  // NOTE(AR) the open elements, the innermost is at index openElements - 1
+  private int openElements;
+  @Nullable private String[] namespaces = new String[INITIAL_OPEN_ELEMENTS];
+  private String[] localNames = new String[INITIAL_OPEN_ELEMENTS];
+  @Nullable private String[] prefixes = new String[INITIAL_OPEN_ELEMENTS];
+  private ElementTag[] tags = new ElementTag[INITIAL_OPEN_ELEMENTS];
+  private boolean[] pushedNamespaces = new boolean[INITIAL_OPEN_ELEMENTS];
+
+  StringXmlWriter(final StringConfig config, final Appendable out) {
+    this.flushing = FlushingAppendable.wrap(out, config.flushPolicy);
+    this.out = flushing != null ? flushing : out;
+    this.context = config.newContext(flushing);
+  }
+
+  /**
+   * Start a document.
+   *
+   * @return this writer.
+   *
+   * @throws XmlBuilderException if a document or element has already been started.
+   */
+  public StringXmlWriter startDocument() {
+    if (inDocument || openElements > 0) {
+      throw new XmlBuilderException("A document can only be started before anything else is written");
+    }
+    inDocument = true;
+
+    @Nullable final XmlBuildListener listener = context.getListener();
+    if (listener != null) {
+      listener.startDocument();
+    }
+    return this;
+  }
+
+  /**
+   * End the document, ending any elements that are still open,
+   * and flushing if there is a flush policy.
+   *
+   * @return this writer.
+   *
+   * @throws IOException if an error occurs whilst writing.
+   * @throws XmlBuilderException if a document has not been started.
+   */
+  public StringXmlWriter endDocument() throws IOException {
+    if (!inDocument) {
+      throw new XmlBuilderException("No document has been started");
+    }
+    while (openElements > 0) {
+      endElement();
+    }
+    inDocument = false;
+
+    @Nullable final XmlBuildListener listener = context.getListener();
+    if (listener != null) {
+      listener.endDocument();
+    }
+
+    if (flushing != null) {
+      flushing.flush();
+    }
+    return this;
+  }
+
+  /**
+   * Start an element.
+   *
+   * @param localName the local name of the element.
+   *
+   * @return this writer.
+   *
+   * @throws IOException if an error occurs whilst writing.
+   */
+  public StringXmlWriter startElement(final String localName) throws IOException {
+    return startElement(null, localName, null);
+  }
+
+  /**
+   * Start an element in a namespace, which is declared as the default namespace if it is not already in scope.
+   *
+   * @param namespace the namespace of the element, or null.
+   * @param localName the local name of the element.
+   *
+   * @return this writer.
+   *
+   * @throws IOException if an error occurs whilst writing.
+   */
+  public StringXmlWriter startElement(@Nullable final String namespace, final String localName) throws IOException {
+    return startElement(namespace, localName, null);
+  }
+
+  /**
+   * Start an element in a namespace, which is declared if the prefix is not already bound to it.
+   *
+   * @param namespace the namespace of the element, or null.
+   * @param localName the local name of the element.
+   * @param prefix the prefix of the element, or null.
+   *
+   * @return this writer.
+   *
+   * @throws IOException if an error occurs whilst writing.
+   */
+  public StringXmlWriter startElement(@Nullable final String namespace, final String localName, @Nullable final String prefix) throws IOException {
+    closeStartTag();
+
+    @Nullable final ElementTag tag = ElementTag.get(prefix, localName);
+    final boolean pushedNamespace = StringXmlElementBuilder.writeStart(out, context, namespace, localName, prefix, tag);
+
+    if (openElements == tags.length) {
+      final int capacity = openElements * 2;
+      namespaces = Arrays.copyOf(namespaces, capacity);
+      localNames = Arrays.copyOf(localNames, capacity);
+      prefixes = Arrays.copyOf(prefixes, capacity);
+      tags = Arrays.copyOf(tags, capacity);
+      pushedNamespaces = Arrays.copyOf(pushedNamespaces, capacity);
+    }
+    namespaces[openElements] = namespace;
+    localNames[openElements] = localName;
+    prefixes[openElements] = prefix;
+    tags[openElements] = tag;
+    pushedNamespaces[openElements] = pushedNamespace;
+    openElements++;
+
+    startTagOpen = true;
+    return this;
+  }
+
+  /**
+   * Write an attribute of the element that was just started.
+   *
+   * @param name the name of the attribute.
+   * @param value the value of the attribute, which is escaped unless it is {@link com.evolvedbinary.j8xu.builder.impl.common.PreEscaped}.
+   *
+   * @return this writer.
+   *
+   * @throws IOException if an error occurs whilst writing.
+   * @throws XmlBuilderException if the element already has children, or no element has been started.
+   */
+  public StringXmlWriter attribute(final String name, @Nullable final Object value) throws IOException {
+    if (!startTagOpen) {
+      throw new XmlBuilderException("An attribute can only be written directly after the start of an element");
+    }
+    out.append(' ');
+    StringXmlAttributesBuilder.writeAttribute(out, context, name, value);
+    return this;
+  }
+
+  /**
+   * Write a text node, escaping its content.
+   *
+   * @param content the content of the text node.
+   *
+   * @return this writer.
+   *
+   * @throws IOException if an error occurs whilst writing.
+   */
+  public StringXmlWriter text(final String content) throws IOException {
+    closeStartTag();
+    StringXmlTextBuilder.writeText(out, context, content, true);
+    return this;
+  }
+
+  /**
+   * Write a text node whose content has already been escaped, and so is written verbatim.
+   *
+   * @param content the escaped content of the text node.
+   *
+   * @return this writer.
+   *
+   * @throws IOException if an error occurs whilst writing.
+   */
+  public StringXmlWriter preEscapedText(final String content) throws IOException {
+    closeStartTag();
+    StringXmlTextBuilder.writeText(out, context, content, false);
+    return this;
+  }
+
+  /**
+   * Write a comment.
+   *
+   * @param content the content of the comment.
+   *
+   * @return this writer.
+   *
+   * @throws IOException if an error occurs whilst writing.
+   */
+  public StringXmlWriter comment(final String content) throws IOException {
+    closeStartTag();
+    StringXmlCommentBuilder.writeComment(out, context, content);
+    return this;
+  }
+
+  /**
+   * Write a CDATA section.
+   *
+   * @param content the content of the CDATA section.
+   *
+   * @return this writer.
+   *
+   * @throws IOException if an error occurs whilst writing.
+   */
+  public StringXmlWriter cdata(final String content) throws IOException {
+    closeStartTag();
+    StringXmlCdataBuilder.writeCdata(out, context, content);
+    return this;
+  }
+
+  /**
+   * Write a node that was created by a node builder, within the current element.
+   *
+   * The node is built within the state of this writer, so for example,
+   * it is indented to the current depth and does not redeclare namespaces that are in scope.
+   *
+   * @param node the node to write.
+   *
+   * @return this writer.
+   *
+   * @throws IOException if an error occurs whilst writing.
+   */
+  public StringXmlWriter node(final XmlChildNodeBuilder<String> node) throws IOException {
+    closeStartTag();
+    AbstractStringXmlNodeBuilder.buildTo(node, out, context);
+    return this;
+  }
+
+  /**
+   * End the innermost open element.
+   *
+   * @return this writer.
+   *
+   * @throws IOException if an error occurs whilst writing.
+   * @throws XmlBuilderException if there is no open element.
+   */
+  public StringXmlWriter endElement() throws IOException {
+    if (openElements == 0) {
+      throw new XmlBuilderException("There is no open element to end");
+    }
+    openElements--;
+
+    final boolean empty = startTagOpen;
+    startTagOpen = false;
+    StringXmlElementBuilder.writeEnd(out, context, namespaces[openElements], localNames[openElements], prefixes[openElements], tags[openElements], empty, pushedNamespaces[openElements]);
+
+    // NOTE(AR) release the references, so that they can be garbage collected
+    namespaces[openElements] = null;
+    localNames[openElements] = null;
+    prefixes[openElements] = null;
+    tags[openElements] = null;
+    return this;
+  }
+
+  /**
+   * Get the number of elements that have been started but not yet ended.
+   *
+   * @return the number of open elements.
+   */
+  public int getOpenElements() {
+    return openElements;
+  }
+
+  /**
+   * Flush the underlying appendable, if it is {@link Flushable}.
+   *
+   * NOTE(AR) the closing {@code >} of the start tag of an element that was just started
+   * is not written until its first child, so that attributes may still be written to it.
+   *
+   * @throws IOException if an error occurs whilst flushing.
+   */
+  @Override
+  public void flush() throws IOException {
+    if (flushing != null) {
+      flushing.flush();
+    } else if (out instanceof Flushable) {
+      ((Flushable) out).flush();
+    }
+  }
+
+  private void closeStartTag() throws IOException {
+    if (startTagOpen) {
+      out.append('>');
+      startTagOpen = false;
+    }
+  }
+}
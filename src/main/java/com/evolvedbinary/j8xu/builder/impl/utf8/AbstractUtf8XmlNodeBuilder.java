@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.utf8;
+
+import com.evolvedbinary.j8xu.builder.api.XmlNodeBuilder;
+
+import java.io.IOException;
+
+/**
+ * Base class for the node builders of this implementation.
+ *
+ * NOTE(AR) building within a {@link Utf8Context} is internal to this implementation,
+ * so it is declared here rather than on {@link Utf8XmlNodeBuilder}, as the methods
+ * of an interface are always public.
+ */
+abstract class AbstractUtf8XmlNodeBuilder implements Utf8XmlNodeBuilder {
+
+  /**
+   * Build the node within a context and write the result to a UTF-8 Output.
+   *
+   * The context holds the state of the build, i.e. the in-scope namespaces,
+   * the depth of the tree, and whether we are within mixed content.
+   *
+   * @param out the output to write the built node to.
+   * @param context the context of the build.
+   *
+   * @throws IOException if an error occurs whilst writing to the output.
+   */
+  abstract void buildTo(final Utf8Output out, final Utf8Context context) throws IOException;
+
+  /**
+   * Build any node that produces a byte array within a context and write the result to a UTF-8 Output.
+   *
+   * Node builders from this implementation are built within the context, whereas
+   * node builders from any other implementation are built independently and then written.
+   *
+   * @param nodeBuilder the node builder to build.
+   * @param out the output to write the built node to.
+   * @param context the context of the build.
+   *
+   * @throws IOException if an error occurs whilst writing to the output.
+   */
+  static void buildTo(final XmlNodeBuilder<byte[]> nodeBuilder, final Utf8Output out, final Utf8Context context) throws IOException {
+    if (nodeBuilder instanceof AbstractUtf8XmlNodeBuilder) {
+      ((AbstractUtf8XmlNodeBuilder) nodeBuilder).buildTo(out, context);
+    } else {
+      Utf8XmlNodeBuilder.buildTo(nodeBuilder, out);
+    }
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.utf8;
+
+/**
+ * A UTF-8 Output whose buffer is the exactly sized result, so it is never drained
+ * until it is full, and the buffer can then be returned without copying.
+ *
+ * Used by {@link Utf8XmlNodeBuilder#buildExactSize()}.
+ */
+final class Utf8ArrayOutput extends Utf8Output {
+  private final byte[] array;
+  private boolean full = false;
+
+  /**
+   * @param array the array to write into, must be at least 4 bytes in length.
+   */
+  Utf8ArrayOutput(final byte[] array) {
+    super(array);
+    this.array = array;
+  }
+
+  /**
+   * Determine if the array has been completely written.
+   *
+   * @return true if the array is full, this is only accurate once the output has been flushed.
+   */
+  boolean isFull() {
+    return full;
+  }
+
+  @Override
+  protected void writeTarget(final byte[] b, final int off, final int len) {
+    if (full || b != array || off != 0 || len != array.length) {
+      throw new IllegalStateException("More was written than the measured length of " + array.length + " bytes");
+    }
+    full = true;
+  }
+
+  @Override
+  protected void flushTarget() {
+  }
+}
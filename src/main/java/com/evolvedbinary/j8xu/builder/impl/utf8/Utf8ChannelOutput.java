@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.utf8;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A UTF-8 Output which drains its buffer to a {@link WritableByteChannel}.
+ *
+ * If the channel is a {@link GatheringByteChannel}, then bytes which are
+ * too large to be worth copying into the buffer, are written together
+ * with the buffered bytes by a single vectored write, rather than being
+ * copied or requiring two writes.
+ *
+ * The channel must be in blocking mode.
+ */
+public class Utf8ChannelOutput extends Utf8Output {
+  private final WritableByteChannel channel;
+
+  /**
+   * Construct a UTF-8 Output with a buffer of {@link #DEFAULT_BUFFER_SIZE}.
+   *
+   * @param channel the channel to drain the buffer to.
+   */
+  public Utf8ChannelOutput(final WritableByteChannel channel) {
+    this(channel, new byte[DEFAULT_BUFFER_SIZE]);
+  }
+
+  /**
+   * Construct a UTF-8 Output which uses the provided buffer.
+   *
+   * The buffer may be reused by the caller, but only once this output has been flushed.
+   *
+   * @param channel the channel to drain the buffer to.
+   * @param buf the buffer to encode into, must be at least 4 bytes in length.
+   */
+  public Utf8ChannelOutput(final WritableByteChannel channel, final byte[] buf) {
+    super(buf);
+    this.channel = channel;
+  }
+
+  @Override
+  protected void writeTarget(final byte[] b, final int off, final int len) throws IOException {
+    final ByteBuffer src = ByteBuffer.wrap(b, off, len);
+    while (src.hasRemaining()) {
+      channel.write(src);
+    }
+  }
+
+  @Override
+  protected void writeThrough(final byte[] buf, final int len, final byte[] b, final int off, final int blen) throws IOException {
+    if (len == 0 || !(channel instanceof GatheringByteChannel)) {
+      super.writeThrough(buf, len, b, off, blen);
+      return;
+    }
+
+    final ByteBuffer[] srcs = { ByteBuffer.wrap(buf, 0, len), ByteBuffer.wrap(b, off, blen) };
+    while (srcs[1].hasRemaining()) {
+      ((GatheringByteChannel) channel).write(srcs);
+    }
+  }
+
+  @Override
+  protected void flushTarget() {
+    // NOTE(AR) a channel has no buffer of its own to flush
+  }
+}
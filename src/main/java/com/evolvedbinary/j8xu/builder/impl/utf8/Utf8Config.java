@@ -0,0 +1,105 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.utf8;
+
+import com.evolvedbinary.j8xu.builder.api.XmlBuildListener;
+import com.evolvedbinary.j8xu.builder.impl.common.Indentation;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+/**
+ * The immutable configuration of a {@link Utf8XmlBuilder},
+ * from which a new {@link Utf8Context} is created for each build.
+ */
+final class Utf8Config {
+  @Nullable final String indent;
+  @Nullable final Indentation indentation;
+  @Nullable final XmlBuildListener listener;
+
+  Utf8Config(@Nullable final String indent, final String newLine) {
+    this.indent = indent;
+    this.indentation = indent != null ? new Indentation(indent, newLine) : null;
+    this.listener = null;
+  }
+
+  private Utf8Config(final Utf8Config other, @Nullable final XmlBuildListener listener) {
+    this.indent = other.indent;
+    this.indentation = other.indentation;
+    this.listener = listener;
+  }
+
+  /**
+   * Create a copy of this configuration with a different listener.
+   *
+   * @param listener the listener, or null for no listener.
+   *
+   * @return the new configuration.
+   */
+  Utf8Config withListener(@Nullable final XmlBuildListener listener) {
+    return new Utf8Config(this, listener);
+  }
+
+  /**
+   * Create a new context for a build.
+   *
+   * @return the new context.
+   */
+  Utf8Context newContext() {
+    return new Utf8Context(this);
+  }
+
+  /**
+   * Build a node within a new context, notifying the listener, if any, of the build.
+   *
+   * @param nodeBuilder the node builder to build.
+   * @param out the output to write the built node to.
+   *
+   * @throws IOException if an error occurs whilst writing to the output.
+   */
+  void build(final AbstractUtf8XmlNodeBuilder nodeBuilder, final Utf8Output out) throws IOException {
+    if (out instanceof Utf8LengthCounter) {
+      // NOTE(AR) measuring is not a build, so it does not notify the listener
+      nodeBuilder.buildTo(out, (listener != null ? withListener(null) : this).newContext());
+      return;
+    }
+
+    if (listener == null) {
+      nodeBuilder.buildTo(out, newContext());
+      return;
+    }
+
+    final long startBytesWritten = out.getBytesWritten();
+    listener.startBuild();
+    final long start = System.nanoTime();
+
+    nodeBuilder.buildTo(out, newContext());
+
+    final long nanos = System.nanoTime() - start;
+    listener.endBuild(out.getBytesWritten() - startBytesWritten, nanos);
+  }
+}
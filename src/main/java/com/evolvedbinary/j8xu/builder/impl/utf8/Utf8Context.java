@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.utf8;
+
+import com.evolvedbinary.j8xu.builder.impl.common.AbstractContext;
+
+import javax.annotation.Nullable;
+
+/**
+ * The state that is maintained by the {@link Utf8XmlBuilder} whilst it is building.
+ *
+ * A new context is created for each build, and so it is never shared between threads.
+ */
+class Utf8Context extends AbstractContext {
+  private final Utf8Config config;
+
+  Utf8Context(final Utf8Config config) {
+    super(config.indent, config.listener);
+    this.config = config;
+  }
+
+  /**
+   * Get the indentation for a depth encoded as UTF-8.
+   *
+   * @param depth the depth.
+   *
+   * @return the UTF-8 bytes of the new line followed by the indent repeated {@code depth} times.
+   */
+  byte[] getIndentationBytes(final int depth) {
+    return config.indentation.getBytes(depth);
+  }
+
+  @Override
+  protected void pushNamespace(final String namespace, @Nullable final String prefix) {
+    super.pushNamespace(namespace, prefix);
+  }
+
+  @Override
+  protected void popNamespace() {
+    super.popNamespace();
+  }
+
+  @Override
+  protected void incrementTreeDepth() {
+    super.incrementTreeDepth();
+  }
+
+  @Override
+  protected void decrementTreeDepth() {
+    super.decrementTreeDepth();
+  }
+
+  @Override
+  protected void markMixedContentTreeDepth() {
+    super.markMixedContentTreeDepth();
+  }
+
+  @Override
+  protected void resetMixedContentTreeDepth() {
+    super.resetMixedContentTreeDepth();
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.utf8;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A UTF-8 Output which drains its buffer into a memory mapped file.
+ *
+ * The file is mapped as a window of {@code windowSize} bytes, and when
+ * a window is full, the next window of the file is mapped. As the file
+ * grows ahead of the data written to it, the file is truncated to the
+ * size of the data written when the output is closed.
+ *
+ * As the writes are absorbed by the operating system's page cache,
+ * the heap used is constant regardless of the size of the document,
+ * and there is no limit on the size of the document that can be written.
+ *
+ * NOTE: On some platforms (e.g. Windows) a file cannot be truncated whilst
+ * it is still mapped, in which case {@link #close()} will fail. Java provides
+ * no means of unmapping a file, other than for the buffer to be garbage collected.
+ */
+public class Utf8MappedFileOutput extends Utf8Output implements Closeable {
+
+  /**
+   * The default size of the window of the file that is mapped at any one time.
+   */
+  public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+  private final FileChannel channel;
+  private final boolean closeChannel;
+  private final int windowSize;
+  private final long start;
+  private long written = 0;
+  @Nullable private MappedByteBuffer window = null;
+  private boolean closed = false;
+
+  /**
+   * Construct a UTF-8 Output which creates, or truncates, and then maps a file.
+   *
+   * @param file the file to write to.
+   *
+   * @throws IOException if the file cannot be opened.
+   */
+  public Utf8MappedFileOutput(final Path file) throws IOException {
+    this(FileChannel.open(file, CREATE, TRUNCATE_EXISTING, READ, WRITE), true, DEFAULT_WINDOW_SIZE, new byte[DEFAULT_BUFFER_SIZE]);
+  }
+
+  /**
+   * Construct a UTF-8 Output which maps a file from the current position of a channel.
+   *
+   * When the output is closed the file is truncated, and the position of the channel
+   * is set to the end of the written data, however the channel is not closed.
+   *
+   * @param channel the channel to the file to write to, must be both readable and writable.
+   * @param windowSize the size of the window of the file that is mapped at any one time.
+   * @param buf the buffer to encode into, must be at least 4 bytes in length.
+   *
+   * @throws IOException if the position of the channel cannot be determined.
+   */
+  public Utf8MappedFileOutput(final FileChannel channel, final int windowSize, final byte[] buf) throws IOException {
+    this(channel, false, windowSize, buf);
+  }
+
+  private Utf8MappedFileOutput(final FileChannel channel, final boolean closeChannel, final int windowSize, final byte[] buf) throws IOException {
+    super(buf);
+    if (windowSize <= 0) {
+      throw new IllegalArgumentException("Window size must be greater than zero");
+    }
+    this.channel = channel;
+    this.closeChannel = closeChannel;
+    this.windowSize = windowSize;
+    this.start = channel.position();
+  }
+
+  @Override
+  protected void writeTarget(final byte[] b, int off, int len) throws IOException {
+    ensureOpen();
+    while (len > 0) {
+      if (window == null || !window.hasRemaining()) {
+        // map the next window of the file
+        window = channel.map(FileChannel.MapMode.READ_WRITE, start + written, windowSize);
+      }
+
+      final int n = Math.min(len, window.remaining());
+      window.put(b, off, n);
+      off += n;
+      len -= n;
+      written += n;
+    }
+  }
+
+  @Override
+  protected void flushTarget() throws IOException {
+    ensureOpen();
+    // NOTE(AR) the written bytes are already in the page cache, use force() to write them to the storage device
+  }
+
+  /**
+   * Flush, and then force all of the written bytes of the file
+   * to be written to the storage device.
+   *
+   * @throws IOException if an error occurs whilst flushing or forcing.
+   */
+  public void force() throws IOException {
+    flush();
+    if (window != null) {
+      window.force();
+    }
+    // NOTE(AR) the current window only covers the most recent bytes, the channel also covers those in earlier windows
+    channel.force(false);
+  }
+
+  /**
+   * Get the number of bytes that have been written to the file.
+   *
+   * Bytes that are still buffered and have not yet been flushed are not included.
+   *
+   * @return the number of bytes written.
+   */
+  public long getWritten() {
+    return written;
+  }
+
+  private void ensureOpen() throws ClosedChannelException {
+    if (closed) {
+      throw new ClosedChannelException();
+    }
+  }
+
+  /**
+   * Flush, and then truncate the file to the size of the data written.
+   *
+   * If the file was opened by this output it is also closed.
+   *
+   * Once closed, any further bytes that reach the file, either by flushing
+   * or by overflowing the buffer, are rejected with a {@link ClosedChannelException}.
+   * Closing an output which is already closed has no effect.
+   *
+   * @throws IOException if an error occurs whilst flushing, truncating or closing.
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    try {
+      flush();
+      window = null;
+      channel.truncate(start + written);
+      channel.position(start + written);
+    } finally {
+      closed = true;
+      if (closeChannel) {
+        channel.close();
+      }
+    }
+  }
+}
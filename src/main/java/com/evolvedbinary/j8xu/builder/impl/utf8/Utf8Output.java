@@ -0,0 +1,355 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.utf8;
+
+import com.evolvedbinary.j8xu.builder.impl.common.XmlEscaping;
+
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * Encodes characters as UTF-8 directly into a byte buffer,
+ * which is drained to a target whenever it becomes full,
+ * and when the output is flushed.
+ *
+ * Characters in the ASCII range, which includes all of the XML markup
+ * and typically most names, take a fast path that writes them into
+ * the buffer without any further encoding work.
+ *
+ * Sub-classes determine the target that the buffer is drained to.
+ */
+public abstract class Utf8Output implements Flushable {
+
+  /**
+   * The default size of the byte buffer.
+   */
+  public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+  /**
+   * The maximum number of bytes that UTF-8 uses to encode a single code point.
+   */
+  private static final int MAX_BYTES_PER_CODE_POINT = 4;
+
+  private final byte[] buf;
+  private int pos = 0;
+  private long drained = 0;
+
+  /**
+   * Construct a UTF-8 Output which uses the provided buffer.
+   *
+   * The buffer may be reused by the caller, but only once this output has been flushed.
+   *
+   * @param buf the buffer to encode into, must be at least 4 bytes in length.
+   */
+  protected Utf8Output(final byte[] buf) {
+    if (buf.length < MAX_BYTES_PER_CODE_POINT) {
+      throw new IllegalArgumentException("Buffer must be at least " + MAX_BYTES_PER_CODE_POINT + " bytes");
+    }
+    this.buf = buf;
+  }
+
+  /**
+   * Calculate the number of bytes that a character sequence
+   * will occupy when it is encoded by {@link #write(CharSequence)}.
+   *
+   * @param s the characters.
+   *
+   * @return the number of bytes.
+   */
+  public static int encodedLength(final CharSequence s) {
+    final int len = s.length();
+    int encodedLength = len;
+    for (int i = 0; i < len; i++) {
+      final char c = s.charAt(i);
+      if (c < 0x80) {
+        continue;
+
+      } else if (c < 0x800) {
+        encodedLength += 1;
+
+      } else if (Character.isSurrogate(c)) {
+        if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+          // 4 bytes for the 2 chars of the surrogate pair
+          encodedLength += 2;
+          i++;
+        }
+        // NOTE(AR) otherwise malformed surrogate, which is replaced by a single byte
+
+      } else {
+        encodedLength += 2;
+      }
+    }
+    return encodedLength;
+  }
+
+  /**
+   * Calculate the number of bytes that {@link #write(CharSequence, int, int)} encodes a char into.
+   *
+   * NOTE(AR) this is exact rather than just assuming the worst case, so that an output
+   * whose buffer is exactly the size of what is written is never drained early.
+   *
+   * @param c the char.
+   * @param s the characters that {@code c} is from.
+   * @param next the index in {@code s} after {@code c}.
+   * @param end the index after the last char in {@code s} that is being written.
+   *
+   * @return the number of bytes.
+   */
+  private static int encodedLength(final char c, final CharSequence s, final int next, final int end) {
+    if (c < 0x80) {
+      return 1;
+    } else if (c < 0x800) {
+      return 2;
+    } else if (Character.isSurrogate(c)) {
+      if (Character.isHighSurrogate(c) && next < end && Character.isLowSurrogate(s.charAt(next))) {
+        return MAX_BYTES_PER_CODE_POINT;
+      }
+      // malformed surrogate, which is replaced by a single byte
+      return 1;
+    } else {
+      return 3;
+    }
+  }
+
+  /**
+   * Write a single byte.
+   *
+   * @param b the byte to write.
+   *
+   * @throws IOException if an error occurs whilst draining the buffer.
+   */
+  public void write(final byte b) throws IOException {
+    if (pos == buf.length) {
+      drain();
+    }
+    buf[pos++] = b;
+  }
+
+  /**
+   * Write bytes that are already UTF-8 encoded.
+   *
+   * @param b the bytes to write.
+   *
+   * @throws IOException if an error occurs whilst draining the buffer.
+   */
+  public void write(final byte[] b) throws IOException {
+    write(b, 0, b.length);
+  }
+
+  /**
+   * Write bytes that are already UTF-8 encoded.
+   *
+   * @param b the bytes to write.
+   * @param off the offset in {@code b} to start writing from.
+   * @param len the number of bytes to write from {@code b}.
+   *
+   * @throws IOException if an error occurs whilst draining the buffer.
+   */
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    if (len > buf.length - pos) {
+      if (len >= buf.length / 2) {
+        // too big to be worth copying, so write it straight through with whatever is in the buffer
+        writeThrough(buf, pos, b, off, len);
+        drained += pos + len;
+        pos = 0;
+        return;
+      }
+
+      drain();
+    }
+    System.arraycopy(b, off, buf, pos, len);
+    pos += len;
+  }
+
+  /**
+   * Encode and write a character sequence.
+   *
+   * @param s the characters to write.
+   *
+   * @throws IOException if an error occurs whilst draining the buffer.
+   */
+  public void write(final CharSequence s) throws IOException {
+    write(s, 0, s.length());
+  }
+
+  /**
+   * Encode and write part of a character sequence.
+   *
+   * @param s the characters to write.
+   * @param start the index of the first char in {@code s} to write.
+   * @param end the index after the last char in {@code s} to write.
+   *
+   * @throws IOException if an error occurs whilst draining the buffer.
+   */
+  public void write(final CharSequence s, final int start, final int end) throws IOException {
+    int i = start;
+    while (i < end) {
+      // ASCII fast path, copy as many chars as will fit in the buffer
+      final int limit = Math.min(end, i + (buf.length - pos));
+      char c;
+      while (i < limit && (c = s.charAt(i)) < 0x80) {
+        buf[pos++] = (byte) c;
+        i++;
+      }
+
+      if (i == end) {
+        break;
+      }
+
+      c = s.charAt(i++);
+      if (buf.length - pos < encodedLength(c, s, i, end)) {
+        drain();
+      }
+
+      if (c < 0x80) {
+        buf[pos++] = (byte) c;
+
+      } else if (c < 0x800) {
+        buf[pos++] = (byte) (0xC0 | (c >> 6));
+        buf[pos++] = (byte) (0x80 | (c & 0x3F));
+
+      } else if (Character.isSurrogate(c)) {
+        final char low;
+        if (Character.isHighSurrogate(c) && i < end && Character.isLowSurrogate(low = s.charAt(i))) {
+          i++;
+          final int cp = Character.toCodePoint(c, low);
+          buf[pos++] = (byte) (0xF0 | (cp >> 18));
+          buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+          buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+          buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+        } else {
+          // NOTE(AR) malformed surrogate, replace it in the same way as String#getBytes does
+          buf[pos++] = (byte) '?';
+        }
+
+      } else {
+        buf[pos++] = (byte) (0xE0 | (c >> 12));
+        buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        buf[pos++] = (byte) (0x80 | (c & 0x3F));
+      }
+    }
+  }
+
+  /**
+   * Escape, encode and write a character sequence.
+   *
+   * See {@link XmlEscaping} for details of which characters are escaped.
+   *
+   * @param s the characters to write.
+   * @param attribute true if the characters are an attribute value, false if they are text.
+   *
+   * @throws IOException if an error occurs whilst draining the buffer.
+   */
+  public void writeEscaped(final CharSequence s, final boolean attribute) throws IOException {
+    int start = 0;
+    int i;
+    while ((i = XmlEscaping.indexOfEscapable(s, start, attribute)) != -1) {
+      if (i > start) {
+        write(s, start, i);
+      }
+      write(XmlEscaping.replacementBytes(s.charAt(i), attribute));
+      start = i + 1;
+    }
+    write(s, start, s.length());
+  }
+
+  /**
+   * Get the total number of bytes that have been written to this output,
+   * including any that are still buffered.
+   *
+   * @return the number of bytes written.
+   */
+  public long getBytesWritten() {
+    return drained + pos;
+  }
+
+  /**
+   * Drain any buffered bytes to the target,
+   * and then flush the target.
+   *
+   * @throws IOException if an error occurs whilst draining or flushing.
+   */
+  @Override
+  public void flush() throws IOException {
+    drain();
+    flushTarget();
+  }
+
+  /**
+   * Drain any buffered bytes to the target.
+   *
+   * @throws IOException if an error occurs whilst draining.
+   */
+  private void drain() throws IOException {
+    if (pos > 0) {
+      writeTarget(buf, 0, pos);
+      drained += pos;
+      pos = 0;
+    }
+  }
+
+  /**
+   * Write the buffered bytes followed by some bytes which are too
+   * large to be worth copying into the buffer to the target.
+   *
+   * The default implementation simply makes two writes to the target,
+   * sub-classes may override this if the target supports a more
+   * efficient mechanism.
+   *
+   * @param buf the buffer.
+   * @param len the number of bytes from the start of the buffer to write, may be zero.
+   * @param b the bytes to write after the buffered bytes.
+   * @param off the offset in {@code b} to start writing from.
+   * @param blen the number of bytes to write from {@code b}.
+   *
+   * @throws IOException if an error occurs whilst writing to the target.
+   */
+  protected void writeThrough(final byte[] buf, final int len, final byte[] b, final int off, final int blen) throws IOException {
+    if (len > 0) {
+      writeTarget(buf, 0, len);
+    }
+    writeTarget(b, off, blen);
+  }
+
+  /**
+   * Write bytes directly to the target.
+   *
+   * @param b the bytes to write.
+   * @param off the offset in {@code b} to start writing from.
+   * @param len the number of bytes to write from {@code b}.
+   *
+   * @throws IOException if an error occurs whilst writing to the target.
+   */
+  protected abstract void writeTarget(final byte[] b, final int off, final int len) throws IOException;
+
+  /**
+   * Flush the target.
+   *
+   * @throws IOException if an error occurs whilst flushing the target.
+   */
+  protected abstract void flushTarget() throws IOException;
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.utf8;
+
+import com.evolvedbinary.j8xu.builder.api.*;
+import com.evolvedbinary.j8xu.builder.impl.common.Indentation;
+
+import javax.annotation.Nullable;
+
+/**
+ * An implementation of an XML Builder that builds a UTF-8 encoded representation.
+ *
+ * Instances of this class, and the node builders that they produce, are immutable and hold no state
+ * whilst building, so they may be shared between threads and built concurrently. The only exception
+ * is elements whose children are provided by a single use source such as an Iterator or Stream.
+ *
+ * The node builders produced by this builder may also be written directly
+ * to an {@link java.io.OutputStream} via {@link Utf8XmlNodeBuilder#buildTo(java.io.OutputStream)},
+ * to a {@link java.nio.channels.WritableByteChannel} via {@link Utf8XmlNodeBuilder#buildTo(java.nio.channels.WritableByteChannel)},
+ * or to a reusable {@link Utf8Output} via {@link Utf8XmlNodeBuilder#buildTo(Utf8Output)},
+ * in which case the output is encoded directly into a byte buffer without ever creating
+ * a String of the XML.
+ */
+public class Utf8XmlBuilder implements XmlBuilder<byte[]> {
+
+  @SuppressWarnings("unchecked")
+  private static final XmlChildNodeBuilder<byte[]>[] NO_CHILDREN = new XmlChildNodeBuilder[0];
+
+  private final Utf8Config config;
+
+  /**
+   * Default constructor.
+   */
+  public Utf8XmlBuilder() {
+    this(null, Indentation.LF);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param indent if you want the XML output to be indented you should set this to the indentation character(s), otherwise set it to null.
+   */
+  public Utf8XmlBuilder(@Nullable final String indent) {
+    this(indent, Indentation.LF);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param indent if you want the XML output to be indented you should set this to the indentation character(s), otherwise set it to null.
+   * @param newLine the new line to write before each indent, one of {@link Indentation#LF}, {@link Indentation#CRLF}, or {@link Indentation#CR}.
+   *
+   * @throws IllegalArgumentException if the new line is not one of {@link Indentation#LF}, {@link Indentation#CRLF}, or {@link Indentation#CR}.
+   */
+  public Utf8XmlBuilder(@Nullable final String indent, final String newLine) {
+    this.config = new Utf8Config(indent, newLine);
+  }
+
+  private Utf8XmlBuilder(final Utf8Config config) {
+    this.config = config;
+  }
+
+  /**
+   * Create a builder with the same configuration as this builder,
+   * which notifies a listener as nodes are built.
+   *
+   * Only the node builders produced by the new builder notify the listener.
+   *
+   * @param listener the listener to notify, or null for no listener.
+   *
+   * @return the new builder.
+   */
+  public Utf8XmlBuilder withListener(@Nullable final XmlBuildListener listener) {
+    return new Utf8XmlBuilder(config.withListener(listener));
+  }
+
+  @SafeVarargs
+  @Override
+  public final Utf8XmlDocumentBuilder document(final XmlChildNodeBuilder<byte[]>... children) {
+    return new Utf8XmlDocumentBuilder(config, children);
+  }
+
+  @Override
+  public final Utf8XmlElementBuilder element(final String localName, final XmlAttributesBuilder<byte[]> attributes) {
+    return element(null, localName, null, attributes, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final Utf8XmlElementBuilder element(final String localName, final XmlAttributesBuilder<byte[]> attributes, final XmlChildNodeBuilder<byte[]>... children) {
+    return element(null, localName, null, attributes, children);
+  }
+
+  @Override
+  public final Utf8XmlElementBuilder element(final String namespace, final String localName, final XmlAttributesBuilder<byte[]> attributes) {
+    return element(namespace, localName, null, attributes, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final Utf8XmlElementBuilder element(final String namespace, final String localName, final XmlAttributesBuilder<byte[]> attributes, final XmlChildNodeBuilder<byte[]>... children) {
+    return element(namespace, localName, null, attributes, children);
+  }
+
+  @Override
+  public final Utf8XmlElementBuilder element(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<byte[]> attributes) {
+    return new Utf8XmlElementBuilder(config, namespace, localName, prefix, attributes, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final Utf8XmlElementBuilder element(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<byte[]> attributes, final XmlChildNodeBuilder<byte[]>... children) {
+    return new Utf8XmlElementBuilder(config, namespace, localName, prefix, attributes, children);
+  }
+
+  @Override
+  public final Utf8XmlElementBuilder element(@Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<byte[]> attributes, final Iterable<? extends XmlChildNodeBuilder<byte[]>> children) {
+    return new Utf8XmlElementBuilder(config, namespace, localName, prefix, attributes, children);
+  }
+
+  @Override
+  public final Utf8XmlElementBuilder element(final String localName) {
+    return element(null, localName, null, null, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final Utf8XmlElementBuilder element(final String localName, final XmlChildNodeBuilder<byte[]>... children) {
+    return element(null, localName, null, null, children);
+  }
+
+  @Override
+  public final Utf8XmlElementBuilder element(final String namespace, final String localName) {
+    return element(namespace, localName, null, null, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final Utf8XmlElementBuilder element(final String namespace, final String localName, final XmlChildNodeBuilder<byte[]>... children) {
+    return element(namespace, localName, null, null, children);
+  }
+
+  @Override
+  public final Utf8XmlElementBuilder element(final String namespace, final String localName, final String prefix) {
+    return element(namespace, localName, prefix, null, NO_CHILDREN);
+  }
+
+  @SafeVarargs
+  @Override
+  public final Utf8XmlElementBuilder element(final String namespace, final String localName, final String prefix, final XmlChildNodeBuilder<byte[]>... children) {
+    return element(namespace, localName, prefix, null, children);
+  }
+
+  @SafeVarargs
+  @Override
+  public final Utf8XmlAttributesBuilder attributes(final XmlAttribute... attributes) {
+    return new Utf8XmlAttributesBuilder(attributes);
+  }
+
+  @Override
+  public final Utf8XmlTextBuilder text(final String content) {
+    return new Utf8XmlTextBuilder(config, content, true);
+  }
+
+  /**
+   * Create a text node whose content has already been escaped,
+   * and so is written verbatim.
+   *
+   * @param content the escaped content of the text node.
+   *
+   * @return the text node builder.
+   */
+  public final Utf8XmlTextBuilder preEscapedText(final String content) {
+    return new Utf8XmlTextBuilder(config, content, false);
+  }
+
+  @Override
+  public final Utf8XmlCommentBuilder comment(final String content) {
+    return new Utf8XmlCommentBuilder(config, content);
+  }
+
+  @Override
+  public final Utf8XmlCdataBuilder cdata(final String content) {
+    return new Utf8XmlCdataBuilder(config, content);
+  }
+}
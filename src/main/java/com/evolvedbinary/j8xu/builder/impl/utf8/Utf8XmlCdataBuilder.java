@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.utf8;
+
+import com.evolvedbinary.j8xu.builder.api.XmlBuildListener;
+import com.evolvedbinary.j8xu.builder.api.XmlCdataBuilder;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+public class Utf8XmlCdataBuilder extends AbstractUtf8XmlNodeBuilder implements XmlCdataBuilder<byte[]> {
+  private static final byte[] CDATA_START = "<![CDATA[".getBytes(US_ASCII);
+  private static final byte[] CDATA_END = "]]>".getBytes(US_ASCII);
+
+  private final Utf8Config config;
+  private final String content;
+
+  Utf8XmlCdataBuilder(final Utf8Config config, final String content) {
+    this.config = config;
+    this.content = content;
+  }
+
+  @Override
+  public void buildTo(final Utf8Output out) throws IOException {
+    config.build(this, out);
+  }
+
+  @Override
+  void buildTo(final Utf8Output out, final Utf8Context context) throws IOException {
+    context.markMixedContentTreeDepth();
+    @Nullable final XmlBuildListener listener = context.getListener();
+    if (listener != null) {
+      listener.cdata();
+    }
+    out.write(CDATA_START);
+    out.write(content);
+    out.write(CDATA_END);
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.utf8;
+
+import com.evolvedbinary.j8xu.builder.api.XmlBuildListener;
+import com.evolvedbinary.j8xu.builder.api.XmlChildNodeBuilder;
+import com.evolvedbinary.j8xu.builder.api.XmlNodeBuilder;
+import com.evolvedbinary.j8xu.builder.impl.common.Indentation;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+/**
+ * Renders a tree of nodes one step at a time, so that rendering
+ * can be suspended between any two steps and resumed later.
+ *
+ * Each step writes a start tag, an end tag, or a whole non-element node.
+ * Instead of recursion an explicit stack of the open elements is kept,
+ * so a suspended render does not hold onto a thread.
+ */
+final class Utf8XmlCursor {
+  private final Deque<Frame> stack = new ArrayDeque<>();
+  @Nullable private XmlNodeBuilder<byte[]> root;
+  private final Utf8Context context;
+
+  // NOTE(AR) only used when there is a listener
+  private boolean building;
+  private long startBytesWritten;
+  private long startNanos;
+
+  Utf8XmlCursor(final XmlNodeBuilder<byte[]> root) {
+    this.root = root;
+    final Utf8Config config;
+    if (root instanceof Utf8XmlElementBuilder) {
+      config = ((Utf8XmlElementBuilder) root).getConfig();
+    } else if (root instanceof Utf8XmlDocumentBuilder) {
+      config = ((Utf8XmlDocumentBuilder) root).getConfig();
+    } else {
+      config = new Utf8Config(null, Indentation.LF);
+    }
+    this.context = config.newContext();
+  }
+
+  /**
+   * Render the next step.
+   *
+   * @param out the output to write to.
+   *
+   * @return true if there are more steps, false if rendering is complete.
+   *
+   * @throws IOException if an error occurs whilst writing to the output.
+   */
+  boolean step(final Utf8Output out) throws IOException {
+    @Nullable final XmlBuildListener listener = context.getListener();
+    if (listener == null) {
+      return render(out);
+    }
+
+    if (root != null) {
+      building = true;
+      startBytesWritten = out.getBytesWritten();
+      listener.startBuild();
+      startNanos = System.nanoTime();
+    }
+
+    final boolean more = render(out);
+
+    if (!more && building) {
+      building = false;
+      final long nanos = System.nanoTime() - startNanos;
+      listener.endBuild(out.getBytesWritten() - startBytesWritten, nanos);
+    }
+    return more;
+  }
+
+  private boolean render(final Utf8Output out) throws IOException {
+    if (root != null) {
+      final XmlNodeBuilder<byte[]> node = root;
+      root = null;
+      if (node instanceof Utf8XmlDocumentBuilder) {
+        if (context.getListener() != null) {
+          context.getListener().startDocument();
+        }
+        stack.push(new Frame(null, 0, false, ((Utf8XmlDocumentBuilder) node).childIterator()));
+      } else {
+        open(node, out);
+      }
+      return !stack.isEmpty();
+    }
+
+    @Nullable final Frame frame = stack.peek();
+    if (frame == null) {
+      return false;
+    }
+
+    if (frame.children.hasNext()) {
+      open(frame.children.next(), out);
+
+    } else {
+      // all children written, so close the element
+      stack.pop();
+      if (frame.element != null) {
+        frame.element.writeEndTag(out, context, frame.startTreeDepth, frame.pushedNamespace, false);
+      } else if (context.getListener() != null) {
+        context.getListener().endDocument();
+      }
+    }
+
+    return !stack.isEmpty();
+  }
+
+  /**
+   * Abandon the render, releasing any nodes that have not yet been rendered.
+   */
+  void abandon() {
+    root = null;
+    stack.clear();
+  }
+
+  private void open(final XmlNodeBuilder<byte[]> node, final Utf8Output out) throws IOException {
+    if (!(node instanceof Utf8XmlElementBuilder)) {
+      // not an element, so can be written in one step
+      AbstractUtf8XmlNodeBuilder.buildTo(node, out, context);
+      return;
+    }
+
+    final Utf8XmlElementBuilder element = (Utf8XmlElementBuilder) node;
+    final int startTreeDepth = context.getTreeDepth();
+    final boolean pushedNamespace = element.writeStartTag(out, context);
+    final Iterator<? extends XmlChildNodeBuilder<byte[]>> children = element.childIterator();
+    if (children.hasNext()) {
+      out.write((byte) '>');
+      stack.push(new Frame(element, startTreeDepth, pushedNamespace, children));
+    } else {
+      element.writeEndTag(out, context, startTreeDepth, pushedNamespace, true);
+    }
+  }
+
+  private static class Frame {
+    @Nullable final Utf8XmlElementBuilder element;
+    final int startTreeDepth;
+    final boolean pushedNamespace;
+    final Iterator<? extends XmlChildNodeBuilder<byte[]>> children;
+
+    Frame(@Nullable final Utf8XmlElementBuilder element, final int startTreeDepth, final boolean pushedNamespace, final Iterator<? extends XmlChildNodeBuilder<byte[]>> children) {
+      this.element = element;
+      this.startTreeDepth = startTreeDepth;
+      this.pushedNamespace = pushedNamespace;
+      this.children = children;
+    }
+  }
+}
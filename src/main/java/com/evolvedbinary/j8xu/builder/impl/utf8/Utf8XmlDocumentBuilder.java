@@ -0,0 +1,80 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.utf8;
+
+import com.evolvedbinary.j8xu.builder.api.XmlBuildListener;
+import com.evolvedbinary.j8xu.builder.api.XmlChildNodeBuilder;
+import com.evolvedbinary.j8xu.builder.api.XmlDocumentBuilder;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+
+public class Utf8XmlDocumentBuilder extends AbstractUtf8XmlNodeBuilder implements XmlDocumentBuilder<byte[]> {
+  private final Utf8Config config;
+  private final XmlChildNodeBuilder<byte[]>[] children;
+
+  Utf8XmlDocumentBuilder(final Utf8Config config, final XmlChildNodeBuilder<byte[]>[] children) {
+    this.config = config;
+    this.children = children;
+  }
+
+  Utf8Config getConfig() {
+    return config;
+  }
+
+  /**
+   * Get an iterator over the children of the document.
+   *
+   * @return an iterator over the children.
+   */
+  Iterator<XmlChildNodeBuilder<byte[]>> childIterator() {
+    return Arrays.asList(children).iterator();
+  }
+
+  @Override
+  public void buildTo(final Utf8Output out) throws IOException {
+    config.build(this, out);
+  }
+
+  @Override
+  void buildTo(final Utf8Output out, final Utf8Context context) throws IOException {
+    @Nullable final XmlBuildListener listener = context.getListener();
+    if (listener != null) {
+      listener.startDocument();
+    }
+
+    for (final XmlChildNodeBuilder<byte[]> child : children) {
+      AbstractUtf8XmlNodeBuilder.buildTo(child, out, context);
+    }
+
+    if (listener != null) {
+      listener.endDocument();
+    }
+  }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.utf8;
+
+import com.evolvedbinary.j8xu.builder.api.XmlAttributesBuilder;
+import com.evolvedbinary.j8xu.builder.api.XmlBuildListener;
+import com.evolvedbinary.j8xu.builder.api.XmlChildNodeBuilder;
+import com.evolvedbinary.j8xu.builder.api.XmlElementBuilder;
+import com.evolvedbinary.j8xu.builder.impl.common.ElementTag;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * An implementation of an XML Element Builder that builds a UTF-8 encoded representation.
+ */
+public class Utf8XmlElementBuilder extends AbstractUtf8XmlNodeBuilder implements XmlElementBuilder<byte[]> {
+  private static final byte[] XMLNS_PREFIX = " xmlns:".getBytes(US_ASCII);
+  private static final byte[] XMLNS = " xmlns".getBytes(US_ASCII);
+  private static final byte[] EQUALS_QUOTE = "=\"".getBytes(US_ASCII);
+  private static final byte[] SELF_CLOSE = "/>".getBytes(US_ASCII);
+  private static final byte[] END_TAG_OPEN = "</".getBytes(US_ASCII);
+
+  private final Utf8Config config;
+  @Nullable private final String namespace;
+  private final String localName;
+  @Nullable private final ElementTag tag;
+  private @Nullable final String prefix;
+  private @Nullable final XmlAttributesBuilder<byte[]> attributes;
+  @Nullable private final XmlChildNodeBuilder<byte[]>[] children;
+  @Nullable private final Iterable<? extends XmlChildNodeBuilder<byte[]>> lazyChildren;
+
+  @SafeVarargs
+  Utf8XmlElementBuilder(final Utf8Config config, @Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<byte[]> attributes, final XmlChildNodeBuilder<byte[]>... children) {
+    this.config = config;
+    this.namespace = namespace;
+    this.localName = localName;
+    this.tag = ElementTag.get(prefix, localName);
+    this.prefix = prefix;
+    this.attributes = attributes;
+    this.children = children;
+    this.lazyChildren = null;
+  }
+
+  Utf8XmlElementBuilder(final Utf8Config config, @Nullable final String namespace, final String localName, @Nullable final String prefix, @Nullable final XmlAttributesBuilder<byte[]> attributes, final Iterable<? extends XmlChildNodeBuilder<byte[]>> children) {
+    this.config = config;
+    this.namespace = namespace;
+    this.localName = localName;
+    this.tag = ElementTag.get(prefix, localName);
+    this.prefix = prefix;
+    this.attributes = attributes;
+    this.children = null;
+    this.lazyChildren = children;
+  }
+
+  @Override
+  public void buildTo(final Utf8Output out) throws IOException {
+    config.build(this, out);
+  }
+
+  @Override
+  void buildTo(final Utf8Output out, final Utf8Context context) throws IOException {
+    final int startTreeDepth = context.getTreeDepth();
+    final boolean pushedNamespace = writeStartTag(out, context);
+
+    @Nullable final Iterator<? extends XmlChildNodeBuilder<byte[]>> lazyIterator = lazyChildren != null ? lazyChildren.iterator() : null;
+    final boolean empty = lazyIterator != null ? !lazyIterator.hasNext() : children == null || children.length == 0;
+    if (!empty) {
+      out.write((byte) '>');
+
+      // build the children
+      if (lazyIterator != null) {
+        do {
+          AbstractUtf8XmlNodeBuilder.buildTo(lazyIterator.next(), out, context);
+        } while (lazyIterator.hasNext());
+
+      } else {
+        for (int i = 0; i < children.length; i++) {
+          final XmlChildNodeBuilder<byte[]> child = children[i];
+
+          // build the child
+          AbstractUtf8XmlNodeBuilder.buildTo(child, out, context);
+        }
+      }
+    }
+
+    writeEndTag(out, context, startTreeDepth, pushedNamespace, empty);
+  }
+
+  Utf8Config getConfig() {
+    return config;
+  }
+
+  /**
+   * Get an iterator over the children of the element.
+   *
+   * @return an iterator over the children.
+   */
+  Iterator<? extends XmlChildNodeBuilder<byte[]>> childIterator() {
+    if (lazyChildren != null) {
+      return lazyChildren.iterator();
+    }
+    if (children == null) {
+      return Collections.emptyIterator();
+    }
+    return Arrays.asList(children).iterator();
+  }
+
+  /**
+   * Write the start tag of the element, up to but excluding its closing {@code >}.
+   *
+   * After the children of the element (if any) have been written,
+   * {@link #writeEndTag(Utf8Output, Utf8Context, int, boolean, boolean)} must be called.
+   *
+   * @param out the output to write to.
+   * @param context the context of the build.
+   *
+   * @return true if a namespace was pushed into the context.
+   *
+   * @throws IOException if an error occurs whilst writing to the output.
+   */
+  boolean writeStartTag(final Utf8Output out, final Utf8Context context) throws IOException {
+    final int startTreeDepth = context.getTreeDepth();
+    @Nullable final XmlBuildListener listener = context.getListener();
+    if (listener != null) {
+      listener.startElement(namespace, localName, prefix, startTreeDepth);
+    }
+
+    // indent?
+    if (startTreeDepth > 0 && context.indent() && !context.inMixedContext()) {
+      out.write(context.getIndentationBytes(startTreeDepth));
+    }
+
+    if (tag != null) {
+      tag.writeStartTag(out);
+    } else {
+      out.write((byte) '<');
+      writeQName(out);
+    }
+
+    // namespace
+    boolean pushedNamespace = false;
+    if (prefix != null && !context.isPrefixInScope(prefix, namespace)) {
+      out.write(XMLNS_PREFIX);
+      out.write(prefix);
+      out.write(EQUALS_QUOTE);
+      out.writeEscaped(namespace, true);
+      out.write((byte) '"');
+
+      context.pushNamespace(namespace, prefix);
+      pushedNamespace = true;
+    } else if (namespace != null && !context.isNamespaceInScope(namespace)) {
+      out.write(XMLNS);
+      out.write(EQUALS_QUOTE);
+      out.writeEscaped(namespace, true);
+      out.write((byte) '"');
+
+      context.pushNamespace(namespace, null);
+      pushedNamespace = true;
+    }
+
+    if (attributes != null) {
+      out.write((byte) ' ');
+      AbstractUtf8XmlNodeBuilder.buildTo(attributes, out, context);
+    }
+
+    context.incrementTreeDepth();
+
+    return pushedNamespace;
+  }
+
+  /**
+   * Write the end of the element.
+   *
+   * @param out the output to write to.
+   * @param context the context of the build.
+   * @param startTreeDepth the depth of the tree before {@link #writeStartTag(Utf8Output, Utf8Context)} was called.
+   * @param pushedNamespace the result of {@link #writeStartTag(Utf8Output, Utf8Context)}.
+   * @param empty true if the element had no children, in which case the start tag is self-closed.
+   *
+   * @throws IOException if an error occurs whilst writing to the output.
+   */
+  void writeEndTag(final Utf8Output out, final Utf8Context context, final int startTreeDepth, final boolean pushedNamespace, final boolean empty) throws IOException {
+    if (empty) {
+      // no children, so self-closing element
+      out.write(SELF_CLOSE);
+
+    } else {
+      // indent?
+      if (context.indent() && !context.inMixedContext()) {
+        out.write(context.getIndentationBytes(startTreeDepth));
+      }
+
+      context.resetMixedContentTreeDepth();
+
+      // close the element
+      if (tag != null) {
+        tag.writeEndTag(out);
+      } else {
+        out.write(END_TAG_OPEN);
+        writeQName(out);
+        out.write((byte) '>');
+      }
+    }
+
+    context.decrementTreeDepth();
+
+    if (pushedNamespace) {
+      context.popNamespace();
+    }
+
+    @Nullable final XmlBuildListener listener = context.getListener();
+    if (listener != null) {
+      listener.endElement(namespace, localName, prefix, startTreeDepth);
+    }
+  }
+
+  /**
+   * Write the qualified name of the element, when its tag fragments were not cached.
+   *
+   * @param out the output to write to.
+   *
+   * @throws IOException if an error occurs whilst writing to the output.
+   */
+  private void writeQName(final Utf8Output out) throws IOException {
+    if (prefix != null) {
+      out.write(prefix);
+      out.write((byte) ':');
+    }
+    out.write(localName);
+  }
+}
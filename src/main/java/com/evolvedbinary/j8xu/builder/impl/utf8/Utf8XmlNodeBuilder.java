@@ -0,0 +1,176 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.utf8;
+
+import com.evolvedbinary.j8xu.builder.api.XmlBuilderException;
+import com.evolvedbinary.j8xu.builder.api.XmlNodeBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Interface for a builder class that builds a UTF-8 encoded representation of an XML Node.
+ *
+ * As well as building a byte array, the representation may be written directly
+ * to an {@link OutputStream}, a {@link WritableByteChannel}, or a {@link Utf8Output}, so that a whole tree of nodes
+ * is encoded once into a single buffer without creating any intermediate
+ * Strings or byte arrays for each node.
+ */
+public interface Utf8XmlNodeBuilder extends XmlNodeBuilder<byte[]> {
+
+  /**
+   * Build the node and write the result to a UTF-8 Output.
+   *
+   * The output is not flushed, so that further nodes may be written to it.
+   *
+   * @param out the output to write the built node to.
+   *
+   * @throws IOException if an error occurs whilst writing to the output.
+   */
+  void buildTo(final Utf8Output out) throws IOException;
+
+  /**
+   * Build the node and write the result to an OutputStream.
+   *
+   * If you are writing many nodes to the same stream, then you may instead wish to
+   * reuse a single {@link Utf8StreamOutput} and call {@link #buildTo(Utf8Output)}.
+   *
+   * @param out the output stream to write the built node to.
+   *
+   * @throws IOException if an error occurs whilst writing to the output stream.
+   */
+  default void buildTo(final OutputStream out) throws IOException {
+    final Utf8Output output = new Utf8StreamOutput(out);
+    buildTo(output);
+    output.flush();
+  }
+
+  /**
+   * Build the node and write the result to a Channel.
+   *
+   * If you are writing many nodes to the same channel, then you may instead wish to
+   * reuse a single {@link Utf8ChannelOutput} and call {@link #buildTo(Utf8Output)}.
+   *
+   * @param channel the channel to write the built node to, must be in blocking mode.
+   *
+   * @throws IOException if an error occurs whilst writing to the channel.
+   */
+  default void buildTo(final WritableByteChannel channel) throws IOException {
+    final Utf8Output output = new Utf8ChannelOutput(channel);
+    buildTo(output);
+    output.flush();
+  }
+
+  @Override
+  default byte[] build() {
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    try {
+      buildTo(buffer);
+    } catch (final IOException e) {
+      // NOTE(AR) a ByteArrayOutputStream never throws an IOException
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+    return buffer.toByteArray();
+  }
+
+  /**
+   * Measure the number of bytes that building the node produces, without keeping the result.
+   *
+   * Measuring is not a build, so any {@link com.evolvedbinary.j8xu.builder.api.XmlBuildListener} is not notified.
+   *
+   * @return the length of the built node.
+   */
+  default long measure() {
+    final Utf8LengthCounter counter = new Utf8LengthCounter();
+    try {
+      buildTo(counter);
+      counter.flush();
+    } catch (final IOException e) {
+      // NOTE(AR) a Utf8LengthCounter never throws an IOException
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+    return counter.getLength();
+  }
+
+  /**
+   * Build the node into a byte array of exactly the right size.
+   *
+   * The tree is built twice, first by {@link #measure()} and then directly into an array of the
+   * measured size which is returned without copying, which trades the extra work of the first pass for
+   * never having to grow and copy a buffer. This is worthwhile for large documents, but as the tree is built
+   * twice, it cannot contain elements whose children are provided by a single use source such as an Iterator or Stream.
+   *
+   * @return the built node.
+   *
+   * @throws XmlBuilderException if the node is too large to be built into a byte array.
+   */
+  default byte[] buildExactSize() {
+    final long length = measure();
+    if (length > Utf8LengthCounter.MAX_LENGTH) {
+      throw new XmlBuilderException("The node is too large to build into a byte array, its length is: " + length);
+    }
+    if (length < 4) {
+      // NOTE(AR) too small for a Utf8Output to use as its buffer
+      return build();
+    }
+
+    final byte[] array = new byte[(int) length];
+    final Utf8ArrayOutput output = new Utf8ArrayOutput(array);
+    try {
+      buildTo(output);
+      output.flush();
+    } catch (final IOException e) {
+      // NOTE(AR) a Utf8ArrayOutput never throws an IOException
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+    if (!output.isFull()) {
+      throw new IllegalStateException("Less was written than the measured length of " + length + " bytes");
+    }
+    return array;
+  }
+
+  /**
+   * Build any node that produces a byte array and write the result to a UTF-8 Output.
+   *
+   * Node builders from this implementation are written directly to the output,
+   * whereas node builders from any other implementation are built and then written.
+   *
+   * @param nodeBuilder the node builder to build.
+   * @param out the output to write the built node to.
+   *
+   * @throws IOException if an error occurs whilst writing to the output.
+   */
+  static void buildTo(final XmlNodeBuilder<byte[]> nodeBuilder, final Utf8Output out) throws IOException {
+    if (nodeBuilder instanceof Utf8XmlNodeBuilder) {
+      ((Utf8XmlNodeBuilder) nodeBuilder).buildTo(out);
+    } else {
+      out.write(nodeBuilder.build());
+    }
+  }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.utf8;
+
+import com.evolvedbinary.j8xu.builder.api.XmlNodeBuilder;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A Reactive Streams Publisher which renders a node as a sequence of fixed-size
+ * chunks of UTF-8 encoded bytes.
+ *
+ * Rendering is driven by the demand of the subscriber; it proceeds only whilst the subscriber
+ * has requested chunks, and is suspended once the demand is exhausted. While suspended, no thread
+ * is held, and rendering resumes on the thread that next calls {@link Subscription#request(long)}.
+ * At most one chunk, plus the content of a single text, comment, or CDATA node, is rendered
+ * ahead of the demand.
+ *
+ * Each subscriber receives its own rendering of the node. All chunks are {@code chunkSize}
+ * bytes in length, apart from the last one which may be shorter.
+ *
+ * This class requires the optional dependency {@code org.reactivestreams:reactive-streams}.
+ */
+public class Utf8XmlPublisher implements Publisher<ByteBuffer> {
+  public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+  private final XmlNodeBuilder<byte[]> nodeBuilder;
+  private final int chunkSize;
+
+  /**
+   * Constructor.
+   *
+   * @param nodeBuilder the node builder to render.
+   */
+  public Utf8XmlPublisher(final XmlNodeBuilder<byte[]> nodeBuilder) {
+    this(nodeBuilder, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param nodeBuilder the node builder to render.
+   * @param chunkSize the size in bytes of each chunk, must be at least 4.
+   */
+  public Utf8XmlPublisher(final XmlNodeBuilder<byte[]> nodeBuilder, final int chunkSize) {
+    if (chunkSize < 4) {
+      throw new IllegalArgumentException("Chunk size must be at least 4 bytes");
+    }
+    this.nodeBuilder = nodeBuilder;
+    this.chunkSize = chunkSize;
+  }
+
+  @Override
+  public void subscribe(final Subscriber<? super ByteBuffer> subscriber) {
+    if (subscriber == null) {
+      throw new NullPointerException("subscriber must not be null");
+    }
+    final ChunkSubscription subscription = new ChunkSubscription(subscriber, new Utf8XmlCursor(nodeBuilder), chunkSize);
+    subscriber.onSubscribe(subscription);
+  }
+
+  private static class ChunkSubscription implements Subscription {
+    private final Subscriber<? super ByteBuffer> subscriber;
+    private final Utf8XmlCursor cursor;
+    private final ChunkOutput out;
+
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile boolean cancelled;
+    @Nullable private volatile Throwable invalidRequest;
+
+    // NOTE(AR) only accessed by the thread that is currently draining
+    private boolean rendered;
+    private boolean terminated;
+
+    ChunkSubscription(final Subscriber<? super ByteBuffer> subscriber, final Utf8XmlCursor cursor, final int chunkSize) {
+      this.subscriber = subscriber;
+      this.cursor = cursor;
+      this.out = new ChunkOutput(chunkSize);
+    }
+
+    @Override
+    public void request(final long n) {
+      if (n <= 0) {
+        invalidRequest = new IllegalArgumentException("Reactive Streams rule 3.9: request must be positive, but was: " + n);
+      } else {
+        long current;
+        long next;
+        do {
+          current = requested.get();
+          next = current + n;
+          if (next < 0) {
+            // overflow, so treat as unbounded
+            next = Long.MAX_VALUE;
+          }
+        } while (!requested.compareAndSet(current, next));
+      }
+      drain();
+    }
+
+    @Override
+    public void cancel() {
+      cancelled = true;
+      drain();
+    }
+
+    /**
+     * Emit as many chunks as have been requested.
+     *
+     * Calls from other threads, or re-entrant calls from within {@link Subscriber#onNext(Object)},
+     * just record that there is more work, which is then done by the thread that is already draining.
+     */
+    private void drain() {
+      if (wip.getAndIncrement() != 0) {
+        return;
+      }
+
+      int missed = 1;
+      do {
+        if (terminated) {
+          return;
+        }
+
+        if (cancelled) {
+          release();
+          return;
+        }
+
+        @Nullable final Throwable error = invalidRequest;
+        if (error != null) {
+          release();
+          subscriber.onError(error);
+          return;
+        }
+
+        try {
+          final long r = requested.get();
+          long emitted = 0;
+          while (emitted != r && !cancelled) {
+            @Nullable final ByteBuffer chunk = nextChunk();
+            if (chunk == null) {
+              break;
+            }
+            subscriber.onNext(chunk);
+            emitted++;
+          }
+
+          if (!cancelled && !nextChunkAvailable() && rendered) {
+            release();
+            subscriber.onComplete();
+            return;
+          }
+
+          if (emitted != 0 && r != Long.MAX_VALUE) {
+            requested.addAndGet(-emitted);
+          }
+
+        } catch (final IOException | RuntimeException e) {
+          release();
+          subscriber.onError(e);
+          return;
+        }
+
+        missed = wip.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    @Nullable
+    private ByteBuffer nextChunk() throws IOException {
+      nextChunkAvailable();
+      return out.chunks.poll();
+    }
+
+    /**
+     * Render until a chunk is available, or rendering is complete.
+     *
+     * @return true if a chunk is available.
+     */
+    private boolean nextChunkAvailable() throws IOException {
+      while (out.chunks.isEmpty() && !rendered) {
+        if (!cursor.step(out)) {
+          out.flush();
+          rendered = true;
+        }
+      }
+      return !out.chunks.isEmpty();
+    }
+
+    private void release() {
+      terminated = true;
+      cursor.abandon();
+      out.chunks.clear();
+    }
+  }
+
+  /**
+   * Collects the output into a queue of fixed-size chunks.
+   */
+  private static class ChunkOutput extends Utf8Output {
+    final Queue<ByteBuffer> chunks = new ArrayDeque<>();
+    private final int chunkSize;
+    @Nullable private byte[] chunk;
+    private int chunkPos;
+
+    ChunkOutput(final int chunkSize) {
+      super(new byte[chunkSize]);
+      this.chunkSize = chunkSize;
+    }
+
+    @Override
+    protected void writeTarget(final byte[] b, int off, int len) {
+      while (len > 0) {
+        if (chunk == null) {
+          chunk = new byte[chunkSize];
+          chunkPos = 0;
+        }
+        final int copy = Math.min(len, chunkSize - chunkPos);
+        System.arraycopy(b, off, chunk, chunkPos, copy);
+        chunkPos += copy;
+        off += copy;
+        len -= copy;
+
+        if (chunkPos == chunkSize) {
+          chunks.add(ByteBuffer.wrap(chunk));
+          chunk = null;
+        }
+      }
+    }
+
+    @Override
+    protected void flushTarget() {
+      // last chunk, which may be partial
+      if (chunk != null && chunkPos > 0) {
+        chunks.add(ByteBuffer.wrap(chunk, 0, chunkPos));
+      }
+      chunk = null;
+    }
+  }
+}
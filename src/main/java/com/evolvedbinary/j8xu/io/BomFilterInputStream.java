@@ -51,10 +51,13 @@ public class BomFilterInputStream extends InputStream {
      * May end with a -1 value to indicate that {@link InputStream#read()}
      * returned -1 on the underling input stream {@link #in}.
      *
+     * NOTE(AR) this holds ints rather than bytes, so that the -1 which indicates the end
+     * of the stream cannot be confused with a byte of 0xFF, which many of the BOMs contain.
+     *
      * Otherwise, contains the BOM bytes, plus possibly one more byte
      * that we may have had to read to be certain of the BOM.
      */
-    private @Nullable byte[] buf = null;
+    private @Nullable int[] buf = null;
 
     /**
      * This indicates how many bytes have been read from {@link #buf}.
@@ -84,7 +87,7 @@ public class BomFilterInputStream extends InputStream {
 
         if (c1 == -1) {
             // No BOM
-            this.buf = new byte[] { (byte) c1 };
+            this.buf = new int[] { c1 };
 
         } else {
             // possible BOM
@@ -103,11 +106,11 @@ public class BomFilterInputStream extends InputStream {
                         // is UTF-8
                         bom = BOM.UTF_8;
                     }
-                    this.buf = new byte[]{(byte) c1, (byte) c2, (byte) c3};
+                    this.buf = new int[]{c1, c2, c3};
 
                 } else {
                     // Not UTF-8
-                    this.buf = new byte[]{(byte) c1, (byte) c2};
+                    this.buf = new int[]{c1, c2};
                 }
 
             } else if (c1 == BOM.UTF_16_BE.c1) {
@@ -117,7 +120,7 @@ public class BomFilterInputStream extends InputStream {
                     // is UTF-16-BE
                     bom = BOM.UTF_16_BE;
                 }
-                this.buf = new byte[]{(byte) c1, (byte) c2};
+                this.buf = new int[]{c1, c2};
 
             } else if (c1 == BOM.UTF_16_LE.c1) {
                 // possible UTF-16-LE, or UTF-32-LE
@@ -132,15 +135,15 @@ public class BomFilterInputStream extends InputStream {
                             // is UTF-32-LE
                             bom = BOM.UTF_32_LE;
                         }
-                        this.buf = new byte[]{(byte) c1, (byte) c2, (byte) c3, (byte) c4};
+                        this.buf = new int[]{c1, c2, c3, c4};
                     } else {
                         // is UTF-16-LE
                         bom = BOM.UTF_16_LE;
-                        this.buf = new byte[]{(byte) c1, (byte) c2, (byte) c3 };
+                        this.buf = new int[]{c1, c2, c3};
                     }
                 } else {
                     // Not UTF-16-LE and not UTF-32-LE
-                    this.buf = new byte[]{(byte) c1, (byte) c2};
+                    this.buf = new int[]{c1, c2};
                 }
 
             } else if(c1 == BOM.UTF_32_BE.c1) {
@@ -156,13 +159,13 @@ public class BomFilterInputStream extends InputStream {
                             // is UTF-32-BE
                             bom = BOM.UTF_32_BE;
                         }
-                        this.buf = new byte[]{(byte) c1, (byte) c2, (byte) c3, (byte) c4};
+                        this.buf = new int[]{c1, c2, c3, c4};
                     } else {
-                        this.buf = new byte[]{(byte) c1, (byte) c2, (byte) c3};
+                        this.buf = new int[]{c1, c2, c3};
                     }
                 } else {
                     // Not UTF-32-BE
-                    this.buf = new byte[]{(byte) c1, (byte) c2};
+                    this.buf = new int[]{c1, c2};
                 }
 
             } else if (c1 == BOM.SCSU.c1) {
@@ -175,10 +178,10 @@ public class BomFilterInputStream extends InputStream {
                         // is SCSU
                         bom = BOM.SCSU;
                     }
-                    this.buf = new byte[]{(byte) c1, (byte) c2, (byte) c3};
+                    this.buf = new int[]{c1, c2, c3};
                 } else {
                     // Not SCSU
-                    this.buf = new byte[]{(byte) c1, (byte) c2};
+                    this.buf = new int[]{c1, c2};
                 }
 
             } else if (c1 == BOM.BOCU_1.c1) {
@@ -191,10 +194,10 @@ public class BomFilterInputStream extends InputStream {
                         // is BOCU-1
                         bom = BOM.BOCU_1;
                     }
-                    this.buf = new byte[]{(byte) c1, (byte) c2, (byte) c3};
+                    this.buf = new int[]{c1, c2, c3};
                 } else {
                     // Not BOCU-1
-                    this.buf = new byte[]{(byte) c1, (byte) c2};
+                    this.buf = new int[]{c1, c2};
                 }
 
             } else if (c1 == BOM.GB_18030.c1) {
@@ -210,17 +213,17 @@ public class BomFilterInputStream extends InputStream {
                             // is GB 18030
                             bom = BOM.GB_18030;
                         }
-                        this.buf = new byte[]{(byte) c1, (byte) c2, (byte) c3, (byte) c4};
+                        this.buf = new int[]{c1, c2, c3, c4};
                     } else {
-                        this.buf = new byte[]{(byte) c1, (byte) c2, (byte) c3};
+                        this.buf = new int[]{c1, c2, c3};
                     }
                 } else {
-                    this.buf = new byte[]{(byte) c1, (byte) c2};
+                    this.buf = new int[]{c1, c2};
                 }
 
             } else {
                 // Not Bom
-                this.buf = new byte[]{(byte) c1};
+                this.buf = new int[]{c1};
             }
         }
 
@@ -232,7 +235,7 @@ public class BomFilterInputStream extends InputStream {
     public int read() throws IOException {
         if (buf != null && bufRead < buf.length) {
             // we have bytes in the buffer we have not yet returned, return a byte from there first.
-            return buf[bufRead++];
+            return buf[bufRead++];  // NOTE(AR) either an unsigned byte value, or -1 at the end of the stream
         }
 
         // nothing available in the buffer, so behave as a proxy to the underlying input stream
@@ -248,13 +251,15 @@ public class BomFilterInputStream extends InputStream {
            final int maxReadFromBuf = Math.min(len, bufAvailable);
 
            // NOTE(AR) we must check if we would read the last byte in buf, and if so, if that byte is -1, and if so we must not read that byte, and we can just return without that byte
-           if (bufRead + maxReadFromBuf == buf.length && buf[buf.length - 1] == (byte) -1) {
+           if (bufRead + maxReadFromBuf == buf.length && buf[buf.length - 1] == -1) {
                readFromBuf = maxReadFromBuf - 1;
            } else {
                readFromBuf = maxReadFromBuf;
            }
 
-           System.arraycopy(buf, bufRead, b, off, readFromBuf);
+           for (int i = 0; i < readFromBuf; i++) {
+               b[off + i] = (byte) buf[bufRead + i];
+           }
            bufRead += maxReadFromBuf;
 
            off += readFromBuf;
@@ -287,7 +292,7 @@ public class BomFilterInputStream extends InputStream {
             final long maxSkipFromBuf = Math.min(n, bufAvailable);
 
             // NOTE(AR) we must check if we would skip the last byte in buf, and if so, if that byte is -1
-            if (bufRead + maxSkipFromBuf == buf.length && buf[buf.length - 1] == (byte) -1) {
+            if (bufRead + maxSkipFromBuf == buf.length && buf[buf.length - 1] == -1) {
                 skipFromBuf = maxSkipFromBuf - 1;
             } else {
                 skipFromBuf = maxSkipFromBuf;
@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Utilities for measuring the number of bytes allocated on the heap
+ * by the current thread, for use in allocation regression tests.
+ *
+ * Measurements rely on {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)},
+ * tests that use them are skipped on JVMs which do not support it.
+ */
+public final class Allocations {
+
+  /**
+   * The number of times an action is run before it is measured,
+   * so that the measurement reflects the steady state after JIT compilation.
+   */
+  private static final int WARMUP_ITERATIONS = 2_000;
+
+  private Allocations() {
+  }
+
+  /**
+   * An action whose allocations are to be measured.
+   */
+  @FunctionalInterface
+  public interface Action {
+    void run() throws Exception;
+  }
+
+  /**
+   * Measure the average number of bytes allocated by the current thread each time an action is run.
+   *
+   * The action is first run repeatedly to warm up, and the test is skipped if the JVM
+   * cannot measure the allocations of a thread.
+   *
+   * @param iterations the number of times to run the action whilst measuring.
+   * @param action the action to measure.
+   *
+   * @return the average number of bytes allocated per run of the action.
+   *
+   * @throws Exception if the action throws an exception.
+   */
+  public static double bytesPerIteration(final int iterations, final Action action) throws Exception {
+    final com.sun.management.ThreadMXBean threadMXBean = threadMXBean();
+
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      action.run();
+    }
+
+    final long threadId = Thread.currentThread().getId();
+    final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < iterations; i++) {
+      action.run();
+    }
+    final long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - before;
+
+    return (double) allocated / iterations;
+  }
+
+  private static com.sun.management.ThreadMXBean threadMXBean() {
+    final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean, "Measuring the allocations of a thread is not supported by this JVM");
+    final com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+    assumeTrue(allocationMXBean.isThreadAllocatedMemorySupported() && allocationMXBean.isThreadAllocatedMemoryEnabled(), "Measuring the allocations of a thread is not enabled");
+    return allocationMXBean;
+  }
+}
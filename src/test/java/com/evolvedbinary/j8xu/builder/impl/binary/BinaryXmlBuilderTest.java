@@ -0,0 +1,255 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.binary;
+
+import com.evolvedbinary.j8xu.builder.api.*;
+import com.evolvedbinary.j8xu.builder.impl.string.StringXmlBuilder;
+import com.evolvedbinary.j8xu.builder.impl.utf8.Utf8StreamOutput;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.stream.IntStream;
+
+import static com.evolvedbinary.j8xu.builder.api.XmlBuilder.attribute;
+import static com.evolvedbinary.j8xu.builder.impl.binary.BinaryXmlFormat.ELEMENT;
+import static com.evolvedbinary.j8xu.builder.impl.binary.BinaryXmlFormat.TEXT;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BinaryXmlBuilderTest {
+
+  @Test
+  public void emptyElement() throws IOException {
+    final BinaryXmlBuilder x = new BinaryXmlBuilder();
+
+    assertEquals("<elem1/>", decodeToString(x.element("elem1").build()));
+    assertEquals("<elem1 xmlns=\"http://myns\"/>", decodeToString(x.element("http://myns", "elem1").build()));
+    assertEquals("<my:elem1 xmlns:my=\"http://myns\"/>", decodeToString(x.element("http://myns", "elem1", "my").build()));
+  }
+
+  @Test
+  public void emptyElementWithAttributes() throws IOException {
+    final BinaryXmlBuilder x = new BinaryXmlBuilder();
+
+    final XmlElementBuilder<ByteBuffer> elementBuilder =
+        x.element("http://myns", "elem1", "my", x.attributes(attribute("k1", "v1"), attribute("k2", 2)));
+
+    assertEquals("<my:elem1 xmlns:my=\"http://myns\" k1=\"v1\" k2=\"2\"/>", decodeToString(elementBuilder.build()));
+  }
+
+  @Test
+  public void elementWithChildNodes() throws IOException {
+    final BinaryXmlBuilder x = new BinaryXmlBuilder();
+
+    final XmlElementBuilder<ByteBuffer> elementBuilder =
+        x.element("elem1",
+            x.text("text1"),
+            x.comment("comment1"),
+            x.cdata("cdata1"),
+            x.element("elem2")
+        );
+
+    assertEquals("<elem1>text1<!-- comment1 --><![CDATA[cdata1]]><elem2/></elem1>", decodeToString(elementBuilder.build()));
+  }
+
+  @Test
+  public void sameAsStringXmlBuilder() throws IOException {
+    final String expected = people(new StringXmlBuilder("  ")).build();
+
+    final ByteBuffer binary = people(new BinaryXmlBuilder()).build();
+    final XmlNodeBuilder<String> decoded = new BinaryXmlDecoder(binary).next(new StringXmlBuilder("  "));
+
+    assertEquals(expected, decoded.build());
+  }
+
+  @Test
+  public void smallerThanUtf8() {
+    final StringXmlBuilder s = new StringXmlBuilder();
+    final BinaryXmlBuilder b = new BinaryXmlBuilder();
+
+    final int utf8Length = repetitive(s).build().getBytes(UTF_8).length;
+    final int binaryLength = repetitive(b).build().remaining();
+
+    // names, namespaces and attribute values are only written once
+    assertTrue(binaryLength * 3 < utf8Length, "binary: " + binaryLength + ", utf8: " + utf8Length);
+  }
+
+  @Test
+  public void streamMultipleNodes() throws IOException {
+    final BinaryXmlBuilder x = new BinaryXmlBuilder();
+
+    // write several nodes to the same output, so that they share a string table
+    final ByteArrayOutputStream os = new ByteArrayOutputStream();
+    final BinaryOutput out = new BinaryOutput(new Utf8StreamOutput(os));
+    x.element("http://myns", "elem1", "my", x.attributes(attribute("k1", "v1"))).buildTo(out);
+    x.text("text1").buildTo(out);
+    x.element("http://myns", "elem1", "my", x.attributes(attribute("k1", "v1"))).buildTo(out);
+    out.flush();
+
+    // NOTE(AR) deliver the input one byte at a time, to ensure that strings spanning reads are decoded
+    final BinaryXmlDecoder decoder = new BinaryXmlDecoder(new OneByteInputStream(new ByteArrayInputStream(os.toByteArray())));
+    final StringXmlBuilder s = new StringXmlBuilder();
+    assertEquals("<my:elem1 xmlns:my=\"http://myns\" k1=\"v1\"/>", decoder.next(s).build());
+    assertEquals("text1", decoder.next(s).build());
+    assertEquals("<my:elem1 xmlns:my=\"http://myns\" k1=\"v1\"/>", decoder.next(s).build());
+    assertNull(decoder.next(s));
+  }
+
+  @Test
+  public void decodeLargeDocumentFromStream() throws IOException {
+    final String expected = repetitive(new StringXmlBuilder()).build();
+
+    final ByteArrayOutputStream os = new ByteArrayOutputStream();
+    ((BinaryXmlElementBuilder) repetitive(new BinaryXmlBuilder())).buildTo(os);
+
+    final BinaryXmlDecoder decoder = new BinaryXmlDecoder(new ByteArrayInputStream(os.toByteArray()));
+    assertEquals(expected, decoder.next(new StringXmlBuilder()).build());
+    assertNull(decoder.next(new StringXmlBuilder()));
+  }
+
+  @Test
+  public void foreignNodeCannotBeEmbedded() {
+    final BinaryXmlBuilder x = new BinaryXmlBuilder();
+    final XmlChildNodeBuilder<ByteBuffer> foreign = new ForeignTextBuilder();
+
+    assertThrows(XmlBuilderException.class, () -> x.element("elem1", foreign).build());
+  }
+
+  @Test
+  public void notBinaryXml() {
+    final BinaryXmlDecoder decoder = new BinaryXmlDecoder(ByteBuffer.wrap("<elem1/>".getBytes(UTF_8)));
+    assertThrows(IOException.class, () -> decoder.next(new StringXmlBuilder()));
+  }
+
+  @Test
+  public void truncated() {
+    final ByteBuffer binary = new BinaryXmlBuilder().element("elem1", new BinaryXmlBuilder().text("text1")).build();
+    binary.limit(binary.limit() - 3);
+
+    final BinaryXmlDecoder decoder = new BinaryXmlDecoder(binary);
+    assertThrows(IOException.class, () -> decoder.next(new StringXmlBuilder()));
+
+    final byte[] bytes = new byte[binary.remaining()];
+    binary.duplicate().get(bytes);
+    final BinaryXmlDecoder streamDecoder = new BinaryXmlDecoder(new ByteArrayInputStream(bytes));
+    assertThrows(IOException.class, () -> streamDecoder.next(new StringXmlBuilder()));
+  }
+
+  @Test
+  public void corruptLength() {
+    // a text node whose length is -1
+    final byte[] negative = binary(TEXT, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0x0F, (byte) 't');
+    assertThrows(IOException.class, () -> new BinaryXmlDecoder(ByteBuffer.wrap(negative)).next(new StringXmlBuilder()));
+    assertThrows(IOException.class, () -> new BinaryXmlDecoder(new ByteArrayInputStream(negative)).next(new StringXmlBuilder()));
+
+    // a text node whose length is far larger than the input, which must not be allocated up-front
+    final byte[] huge = binary(TEXT, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0x07, (byte) 't');
+    assertThrows(IOException.class, () -> new BinaryXmlDecoder(ByteBuffer.wrap(huge)).next(new StringXmlBuilder()));
+    assertThrows(IOException.class, () -> new BinaryXmlDecoder(new ByteArrayInputStream(huge)).next(new StringXmlBuilder()));
+
+    // an element whose local name is longer than the input
+    final byte[] longName = binary(ELEMENT, (byte) 0, (byte) 0, (byte) 0x7E, (byte) 'e');
+    assertThrows(IOException.class, () -> new BinaryXmlDecoder(ByteBuffer.wrap(longName)).next(new StringXmlBuilder()));
+  }
+
+  private static byte[] binary(final byte... body) {
+    final byte[] bytes = new byte[BinaryXmlFormat.MAGIC.length + 1 + body.length];
+    System.arraycopy(BinaryXmlFormat.MAGIC, 0, bytes, 0, BinaryXmlFormat.MAGIC.length);
+    bytes[BinaryXmlFormat.MAGIC.length] = BinaryXmlFormat.VERSION;
+    System.arraycopy(body, 0, bytes, BinaryXmlFormat.MAGIC.length + 1, body.length);
+    return bytes;
+  }
+
+  @Test
+  public void lazyChildren() throws IOException {
+    final BinaryXmlBuilder x = new BinaryXmlBuilder();
+
+    final ByteBuffer binary = x.element("rows", IntStream.range(0, 3).mapToObj(i -> x.element("row", x.attributes(attribute("id", i))))).build();
+
+    assertEquals("<rows><row id=\"0\"/><row id=\"1\"/><row id=\"2\"/></rows>", decodeToString(binary));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> XmlDocumentBuilder<T> people(final XmlBuilder<T> x) {
+    return x.document(
+        x.element("http://people", "people", "p",
+            x.element("http://people", "person", "p", x.attributes(attribute("id", 1)),
+                x.element("firstName", x.text("Jöhn")),
+                x.element("lastName", x.text("Doë")),
+                x.element("note", x.comment("mañana"), x.cdata("𝄞 <clef>"))
+            ),
+            x.element("http://people", "person", "p", x.attributes(attribute("id", 2), attribute("xml:lang", "en")),
+                x.element("http://other", "firstName", x.text("Jane"))
+            )
+        )
+    );
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> XmlElementBuilder<T> repetitive(final XmlBuilder<T> x) {
+    final XmlChildNodeBuilder<T>[] rows = new XmlChildNodeBuilder[1000];
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = x.element("http://example.com/rows", "row", "r", x.attributes(attribute("status", "active"), attribute("category", "standard")),
+          x.element("http://example.com/rows", "value", "r", x.text(Integer.toString(i % 10)))
+      );
+    }
+    return x.element("http://example.com/rows", "rows", "r", rows);
+  }
+
+  private static String decodeToString(final ByteBuffer binary) throws IOException {
+    final BinaryXmlDecoder decoder = new BinaryXmlDecoder(binary);
+    final String result = decoder.next(new StringXmlBuilder()).build();
+    assertNull(decoder.next(new StringXmlBuilder()));
+    return result;
+  }
+
+  private static class OneByteInputStream extends FilterInputStream {
+    OneByteInputStream(final InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+      return super.read(b, off, Math.min(1, len));
+    }
+  }
+
+  private static class ForeignTextBuilder implements XmlTextBuilder<ByteBuffer> {
+    @Override
+    public ByteBuffer build() {
+      return ByteBuffer.allocate(0);
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.common;
+
+import com.evolvedbinary.j8xu.builder.impl.utf8.Utf8StreamOutput;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ElementTagTest {
+
+  @Test
+  public void fragments() throws IOException {
+    assertFragments("<elem1", "</elem1>", ElementTag.get(null, "elem1"));
+    assertFragments("<my:élem1", "</my:élem1>", ElementTag.get("my", "élem1"));
+  }
+
+  private static void assertFragments(final String expectedStartTag, final String expectedEndTag, final ElementTag tag) throws IOException {
+    final StringBuilder builder = new StringBuilder();
+    tag.appendStartTag(builder);
+    assertEquals(expectedStartTag, builder.toString());
+    builder.setLength(0);
+    tag.appendEndTag(builder);
+    assertEquals(expectedEndTag, builder.toString());
+
+    final ByteArrayOutputStream os = new ByteArrayOutputStream();
+    final Utf8StreamOutput out = new Utf8StreamOutput(os);
+    tag.writeStartTag(out);
+    out.flush();
+    assertArrayEquals(expectedStartTag.getBytes(UTF_8), os.toByteArray());
+    os.reset();
+    tag.writeEndTag(out);
+    out.flush();
+    assertArrayEquals(expectedEndTag.getBytes(UTF_8), os.toByteArray());
+  }
+
+  @Test
+  public void cached() {
+    assertSame(ElementTag.get(null, "elem2"), ElementTag.get(null, new String("elem2")));
+    assertSame(ElementTag.get("my", "elem2"), ElementTag.get(new String("my"), "elem2"));
+  }
+
+  @Test
+  public void cacheFull() {
+    final ElementTag.Cache cache = new ElementTag.Cache(2);
+    final ElementTag elem1 = cache.get(null, "elem1");
+    final ElementTag myElem1 = cache.get("my", "elem1");
+    assertNotNull(elem1);
+    assertNotNull(myElem1);
+    assertTrue(cache.isFull());
+
+    // tags that are already cached are still shared
+    assertSame(elem1, cache.get(null, "elem1"));
+    assertSame(myElem1, cache.get("my", "elem1"));
+
+    // other tags are not cached, nor created
+    assertNull(cache.get(null, "elem2"));
+    assertNull(cache.get("my", "elem2"));
+    assertNull(cache.get("other", "elem1"));
+  }
+
+  @Test
+  public void appendUncachedTag() throws IOException {
+    final StringBuilder out = new StringBuilder();
+    ElementTag.appendStartTag(out, null, null, "elem1");
+    out.append('>');
+    ElementTag.appendEndTag(out, null, null, "elem1");
+    ElementTag.appendStartTag(out, null, "my", "élem1");
+    out.append('>');
+    ElementTag.appendEndTag(out, null, "my", "élem1");
+    assertEquals("<elem1></elem1><my:élem1></my:élem1>", out.toString());
+
+    final ElementTag tag = ElementTag.get("my", "élem1");
+    assertNotNull(tag);
+    out.setLength(0);
+    ElementTag.appendStartTag(out, tag, "my", "élem1");
+    out.append('>');
+    ElementTag.appendEndTag(out, tag, "my", "élem1");
+    assertEquals("<my:élem1></my:élem1>", out.toString());
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InScopeNamespacesTest {
+
+  @Test
+  public void shadowing() {
+    final InScopeNamespaces namespaces = new InScopeNamespaces();
+    assertFalse(namespaces.isPrefixInScope("a", "http://ns1"));
+    assertFalse(namespaces.isNamespaceInScope("http://ns1"));
+
+    namespaces.push("http://ns1", "a");
+    assertTrue(namespaces.isPrefixInScope("a", "http://ns1"));
+    assertTrue(namespaces.isNamespaceInScope("http://ns1"));
+
+    // rebind the prefix
+    namespaces.push("http://ns2", "a");
+    assertFalse(namespaces.isPrefixInScope("a", "http://ns1"));
+    assertTrue(namespaces.isPrefixInScope("a", "http://ns2"));
+    assertTrue(namespaces.isNamespaceInScope("http://ns1"));
+
+    // the default namespace does not bind a prefix
+    namespaces.push("http://ns3", null);
+    assertTrue(namespaces.isNamespaceInScope("http://ns3"));
+    assertTrue(namespaces.isPrefixInScope("a", "http://ns2"));
+
+    namespaces.pop();
+    assertFalse(namespaces.isNamespaceInScope("http://ns3"));
+
+    namespaces.pop();
+    assertTrue(namespaces.isPrefixInScope("a", "http://ns1"));
+    assertFalse(namespaces.isNamespaceInScope("http://ns2"));
+
+    namespaces.pop();
+    assertFalse(namespaces.isPrefixInScope("a", "http://ns1"));
+    assertFalse(namespaces.isNamespaceInScope("http://ns1"));
+
+    assertThrows(IllegalStateException.class, namespaces::pop);
+  }
+
+  @Test
+  public void deep() {
+    final InScopeNamespaces namespaces = new InScopeNamespaces();
+    for (int i = 0; i < 100; i++) {
+      namespaces.push("http://ns" + (i % 3), "p" + (i % 5));
+    }
+    assertTrue(namespaces.isPrefixInScope("p4", "http://ns0"));  // i = 99
+
+    for (int i = 99; i >= 50; i--) {
+      namespaces.pop();
+    }
+    assertTrue(namespaces.isPrefixInScope("p4", "http://ns1"));  // i = 49
+    assertTrue(namespaces.isPrefixInScope("p0", "http://ns0"));  // i = 45
+  }
+
+  @Test
+  public void copy() {
+    final InScopeNamespaces namespaces = new InScopeNamespaces();
+    namespaces.push("http://ns1", "a");
+
+    final InScopeNamespaces copy = new InScopeNamespaces(namespaces);
+    copy.push("http://ns2", "a");
+    namespaces.pop();
+
+    assertTrue(copy.isPrefixInScope("a", "http://ns2"));
+    assertFalse(namespaces.isNamespaceInScope("http://ns1"));
+
+    copy.pop();
+    assertTrue(copy.isPrefixInScope("a", "http://ns1"));
+    assertTrue(copy.isNamespaceInScope("http://ns1"));
+  }
+}
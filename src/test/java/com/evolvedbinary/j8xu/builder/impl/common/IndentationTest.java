@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.common;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IndentationTest {
+
+  @Test
+  public void indentation() {
+    final Indentation indentation = new Indentation("  ", Indentation.LF);
+    assertEquals("\n", indentation.get(0));
+    assertEquals("\n    ", indentation.get(2));
+    assertArrayEquals("\n    ".getBytes(UTF_8), indentation.getBytes(2));
+
+    // grown lazily, and then reused
+    assertEquals("\n" + repeat("  ", 20), indentation.get(20));
+    assertSame(indentation.get(20), indentation.get(20));
+    assertArrayEquals(("\n" + repeat("  ", 30)).getBytes(UTF_8), indentation.getBytes(30));
+
+    // beyond the table
+    assertEquals("\n" + repeat("  ", Indentation.MAX_CACHED_DEPTH + 1), indentation.get(Indentation.MAX_CACHED_DEPTH + 1));
+  }
+
+  @Test
+  public void newLine() {
+    assertEquals("\r\n\t\t", new Indentation("\t", Indentation.CRLF).get(2));
+    assertArrayEquals("\r\t".getBytes(UTF_8), new Indentation("\t", Indentation.CR).getBytes(1));
+    assertThrows(IllegalArgumentException.class, () -> new Indentation("\t", "\n\n"));
+  }
+
+  private static String repeat(final String s, final int count) {
+    final StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      builder.append(s);
+    }
+    return builder.toString();
+  }
+}
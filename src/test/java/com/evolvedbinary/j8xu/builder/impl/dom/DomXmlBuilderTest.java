@@ -0,0 +1,196 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.dom;
+
+import com.evolvedbinary.j8xu.builder.api.XmlBuilderException;
+import com.evolvedbinary.j8xu.builder.impl.string.StringXmlBuilder;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.StringWriter;
+import java.util.stream.IntStream;
+
+import static com.evolvedbinary.j8xu.builder.api.XmlBuilder.attribute;
+import static com.evolvedbinary.j8xu.builder.impl.common.PreEscaped.preEscaped;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DomXmlBuilderTest {
+
+  @Test
+  public void element() {
+    final DomXmlBuilder x = new DomXmlBuilder();
+
+    final Element element = x.element("http://myns", "elem1", "my", x.attributes(attribute("k1", "v1"), attribute("xml:lang", "en")),
+        x.element("http://myns", "elem2", "my"),
+        x.element("elem3")
+    ).build();
+
+    assertEquals("http://myns", element.getNamespaceURI());
+    assertEquals("my", element.getPrefix());
+    assertEquals("elem1", element.getLocalName());
+    assertEquals("http://myns", element.getAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, "my"));
+    assertEquals("v1", element.getAttribute("k1"));
+    assertEquals("en", element.getAttributeNS(XMLConstants.XML_NS_URI, "lang"));
+    assertEquals(2, element.getChildNodes().getLength());
+
+    final Element child1 = (Element) element.getFirstChild();
+    assertEquals("http://myns", child1.getNamespaceURI());
+    assertEquals("elem2", child1.getLocalName());
+    assertEquals(0, child1.getAttributes().getLength());
+
+    final Element child2 = (Element) element.getLastChild();
+    assertNull(child2.getNamespaceURI());
+    assertEquals("elem3", child2.getLocalName());
+  }
+
+  @Test
+  public void prefixedAttribute() throws TransformerException {
+    final StringXmlBuilder s = new StringXmlBuilder();
+    final DomXmlBuilder x = new DomXmlBuilder();
+
+    // the prefix is declared
+    Element element = x.element("urn:x", "root", "x", x.attributes(attribute("x:a", "t"))).build();
+    assertEquals("t", element.getAttributeNS("urn:x", "a"));
+    assertEquals(s.element("urn:x", "root", "x", s.attributes(attribute("x:a", "t"))).build(), serialize(element));
+
+    // the prefix is not declared
+    element = x.element("urn:x", "root", "x", x.attributes(attribute("xsi:type", "t"))).build();
+    assertEquals("t", element.getAttribute("xsi:type"));
+
+    // an invalid name is reported as an XmlBuilderException
+    assertThrows(XmlBuilderException.class, () -> x.element("root", x.attributes(attribute("a<b", "t"))).build());
+  }
+
+  @Test
+  public void childNodes() {
+    final DomXmlBuilder x = new DomXmlBuilder();
+
+    final Element element = x.element("elem1", x.text("text1"), x.comment("comment1"), x.cdata("cdata1")).build();
+
+    assertEquals(Node.TEXT_NODE, element.getChildNodes().item(0).getNodeType());
+    assertEquals("text1", element.getChildNodes().item(0).getNodeValue());
+    assertEquals(Node.COMMENT_NODE, element.getChildNodes().item(1).getNodeType());
+    assertEquals("comment1", element.getChildNodes().item(1).getNodeValue());
+    assertEquals(Node.CDATA_SECTION_NODE, element.getChildNodes().item(2).getNodeType());
+    assertEquals("cdata1", element.getChildNodes().item(2).getNodeValue());
+  }
+
+  @Test
+  public void nodesOutsideOfDocumentShareOwnerDocument() {
+    final DomXmlBuilder x = new DomXmlBuilder();
+
+    final Element element1 = x.element("elem1").build();
+    final Element element2 = x.element("elem2").build();
+    assertSame(element1.getOwnerDocument(), element2.getOwnerDocument());
+
+    final Document document = x.document(x.element("elem3")).build();
+    assertSame(document, document.getDocumentElement().getOwnerDocument());
+
+    final Document document2 = x.document(x.element("elem4")).build();
+    assertSame(document2, document2.getDocumentElement().getOwnerDocument());
+  }
+
+  @Test
+  public void attributesOutsideOfElement() {
+    final DomXmlBuilder x = new DomXmlBuilder();
+
+    assertThrows(XmlBuilderException.class, () -> x.attributes(attribute("k1", "v1")).build());
+  }
+
+  @Test
+  public void sameAsStringXmlBuilder() throws TransformerException {
+    final DomXmlBuilder d = new DomXmlBuilder("\t");
+    final StringXmlBuilder s = new StringXmlBuilder("\t");
+
+    final String expected = s.document(
+        s.element("http://people", "people", "p",
+            s.element("http://people", "person", "p", s.attributes(attribute("id", 1)),
+                s.element("firstName", s.text("john")),
+                s.element("lastName", s.text("doe")),
+                s.element("bio", s.text("hello "), s.element("b", s.text("world")), s.text("!"))
+            ),
+            s.element("http://other", "other")
+        )
+    ).build();
+
+    final Document document = d.document(
+        d.element("http://people", "people", "p",
+            d.element("http://people", "person", "p", d.attributes(attribute("id", 1)),
+                d.element("firstName", d.text("john")),
+                d.element("lastName", d.text("doe")),
+                d.element("bio", d.text("hello "), d.element("b", d.text("world")), d.text("!"))
+            ),
+            d.element("http://other", "other")
+        )
+    ).build();
+
+    assertEquals(expected, serialize(document));
+  }
+
+  @Test
+  public void lazyChildren() throws TransformerException {
+    final DomXmlBuilder d = new DomXmlBuilder("\t");
+    final StringXmlBuilder s = new StringXmlBuilder("\t");
+
+    final String expected = s.element("rows",
+        s.element("row", s.text("0")),
+        s.element("row", s.text("1"))
+    ).build();
+
+    final Node element = d.element("rows", IntStream.range(0, 2).mapToObj(i -> d.element("row", d.text(Integer.toString(i))))).build();
+
+    assertEquals(expected, serialize(element));
+  }
+
+  @Test
+  public void preEscapedAttributeIsRejected() {
+    final DomXmlBuilder x = new DomXmlBuilder();
+
+    // NOTE(AR) a DOM attribute holds the unescaped value, which a serializer would then escape again
+    assertThrows(XmlBuilderException.class, () -> x.element("elem1", x.attributes(attribute("k1", preEscaped("&amp;")))).build());
+  }
+
+  private static String serialize(final Node node) throws TransformerException {
+    final Transformer transformer = TransformerFactory.newInstance().newTransformer();
+    transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+    final StringWriter writer = new StringWriter();
+    transformer.transform(new DOMSource(node), new StreamResult(writer));
+    return writer.toString();
+  }
+}
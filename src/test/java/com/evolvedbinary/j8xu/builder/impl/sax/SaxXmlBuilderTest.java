@@ -0,0 +1,250 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.sax;
+
+import com.evolvedbinary.j8xu.builder.api.XmlBuilderException;
+import org.junit.jupiter.api.Test;
+import org.xml.sax.Attributes;
+import org.xml.sax.ext.DefaultHandler2;
+
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.sax.SAXTransformerFactory;
+import javax.xml.transform.sax.TransformerHandler;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.evolvedbinary.j8xu.builder.api.XmlBuilder.attribute;
+import static com.evolvedbinary.j8xu.builder.impl.common.PreEscaped.preEscaped;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SaxXmlBuilderTest {
+
+  @Test
+  public void events() {
+    final RecordingHandler handler = new RecordingHandler();
+    final SaxXmlBuilder x = new SaxXmlBuilder(handler);
+
+    final String ns = "http://myns";
+    x.document(
+        x.comment("comment1"),
+        x.element(ns, "elem1", "my", x.attributes(attribute("k1", "v1"), attribute("xml:lang", "en")),
+            x.element(ns, "elem2", "my", x.text("text1")),
+            x.element("elem3", x.cdata("cdata1"))
+        )
+    ).build();
+
+    assertEquals(Arrays.asList(
+        "startDocument",
+        "comment(comment1)",
+        "startPrefixMapping(my, http://myns)",
+        "startElement(http://myns, elem1, my:elem1, [k1=v1, {http://www.w3.org/XML/1998/namespace}lang=en])",
+        "startElement(http://myns, elem2, my:elem2, [])",
+        "characters(text1)",
+        "endElement(http://myns, elem2, my:elem2)",
+        "startElement(, elem3, elem3, [])",
+        "startCDATA",
+        "characters(cdata1)",
+        "endCDATA",
+        "endElement(, elem3, elem3)",
+        "endElement(http://myns, elem1, my:elem1)",
+        "endPrefixMapping(my)",
+        "endDocument"
+    ), handler.events);
+  }
+
+  @Test
+  public void defaultNamespaceEvents() {
+    final RecordingHandler handler = new RecordingHandler();
+    final SaxXmlBuilder x = new SaxXmlBuilder(handler);
+
+    final String ns = "http://myns";
+    x.element(ns, "elem1", x.element(ns, "elem2")).build();
+
+    assertEquals(Arrays.asList(
+        "startPrefixMapping(, http://myns)",
+        "startElement(http://myns, elem1, elem1, [])",
+        "startElement(http://myns, elem2, elem2, [])",
+        "endElement(http://myns, elem2, elem2)",
+        "endElement(http://myns, elem1, elem1)",
+        "endPrefixMapping()"
+    ), handler.events);
+  }
+
+  @Test
+  public void withoutLexicalHandler() {
+    final RecordingHandler handler = new RecordingHandler();
+    final SaxXmlBuilder x = new SaxXmlBuilder(handler, null, null);
+
+    x.element("elem1", x.comment("comment1"), x.cdata("cdata1")).build();
+
+    assertEquals(Arrays.asList(
+        "startElement(, elem1, elem1, [])",
+        "characters(cdata1)",
+        "endElement(, elem1, elem1)"
+    ), handler.events);
+  }
+
+  @Test
+  public void largeText() {
+    final RecordingHandler handler = new RecordingHandler();
+    final SaxXmlBuilder x = new SaxXmlBuilder(handler);
+
+    final StringBuilder content = new StringBuilder();
+    for (int i = 0; i < 10_000; i++) {
+      content.append((char) ('a' + (i % 26)));
+    }
+
+    x.text(content.toString()).build();
+
+    final StringBuilder actual = new StringBuilder();
+    for (final String event : handler.events) {
+      actual.append(event, "characters(".length(), event.length() - 1);
+    }
+    assertEquals(content.toString(), actual.toString());
+  }
+
+  @Test
+  public void identityTransform() throws TransformerConfigurationException {
+    final StringWriter writer = new StringWriter();
+    final TransformerHandler transformerHandler = ((SAXTransformerFactory) SAXTransformerFactory.newInstance()).newTransformerHandler();
+    transformerHandler.getTransformer().setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+    transformerHandler.setResult(new StreamResult(writer));
+
+    final SaxXmlBuilder x = new SaxXmlBuilder(transformerHandler, transformerHandler, "\t");
+    x.document(
+        x.element("http://myns", "elem1", "my", x.attributes(attribute("k1", "v1")),
+            x.element("http://myns", "elem2", "my", x.text("text1 & text2")),
+            x.element("elem3", x.comment("comment1"))
+        )
+    ).build();
+
+    assertEquals(
+        "<my:elem1 xmlns:my=\"http://myns\" k1=\"v1\">\n" +
+        "\t<my:elem2>text1 &amp; text2</my:elem2>\n" +
+        "\t<elem3><!--comment1--></elem3>\n" +
+        "</my:elem1>",
+        writer.toString());
+  }
+
+  @Test
+  public void xsltTransform() throws TransformerConfigurationException {
+    final String xslt =
+        "<xsl:stylesheet version=\"1.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\" xmlns:p=\"http://people\">" +
+        "<xsl:output method=\"text\"/>" +
+        "<xsl:template match=\"/\"><xsl:for-each select=\"//p:person\"><xsl:value-of select=\"@id\"/>:<xsl:value-of select=\"p:name\"/>;</xsl:for-each></xsl:template>" +
+        "</xsl:stylesheet>";
+
+    final StringWriter writer = new StringWriter();
+    final TransformerHandler transformerHandler = ((SAXTransformerFactory) SAXTransformerFactory.newInstance()).newTransformerHandler(new StreamSource(new StringReader(xslt)));
+    transformerHandler.setResult(new StreamResult(writer));
+
+    final String ns = "http://people";
+    final SaxXmlBuilder x = new SaxXmlBuilder(transformerHandler);
+    x.document(
+        x.element(ns, "people",
+            x.element(ns, "person", x.attributes(attribute("id", 1)), x.element(ns, "name", x.text("john"))),
+            x.element(ns, "person", x.attributes(attribute("id", 2)), x.element(ns, "name", x.text("jane")))
+        )
+    ).build();
+
+    assertEquals("1:john;2:jane;", writer.toString());
+  }
+
+  @Test
+  public void preEscapedAttributeIsRejected() {
+    final SaxXmlBuilder x = new SaxXmlBuilder(new RecordingHandler());
+
+    // NOTE(AR) the handler would receive the escaped value, which a serializer would then escape again
+    assertThrows(XmlBuilderException.class, () -> x.element("elem1", x.attributes(attribute("k1", preEscaped("&amp;")))).build());
+  }
+
+  private static class RecordingHandler extends DefaultHandler2 {
+    final List<String> events = new ArrayList<>();
+
+    @Override
+    public void startDocument() {
+      events.add("startDocument");
+    }
+
+    @Override
+    public void endDocument() {
+      events.add("endDocument");
+    }
+
+    @Override
+    public void startPrefixMapping(final String prefix, final String uri) {
+      events.add("startPrefixMapping(" + prefix + ", " + uri + ")");
+    }
+
+    @Override
+    public void endPrefixMapping(final String prefix) {
+      events.add("endPrefixMapping(" + prefix + ")");
+    }
+
+    @Override
+    public void startElement(final String uri, final String localName, final String qName, final Attributes attributes) {
+      final List<String> attrs = new ArrayList<>();
+      for (int i = 0; i < attributes.getLength(); i++) {
+        final String attrUri = attributes.getURI(i);
+        attrs.add((attrUri.isEmpty() ? "" : "{" + attrUri + "}") + attributes.getLocalName(i) + "=" + attributes.getValue(i));
+      }
+      events.add("startElement(" + uri + ", " + localName + ", " + qName + ", " + attrs + ")");
+    }
+
+    @Override
+    public void endElement(final String uri, final String localName, final String qName) {
+      events.add("endElement(" + uri + ", " + localName + ", " + qName + ")");
+    }
+
+    @Override
+    public void characters(final char[] ch, final int start, final int length) {
+      events.add("characters(" + new String(ch, start, length) + ")");
+    }
+
+    @Override
+    public void comment(final char[] ch, final int start, final int length) {
+      events.add("comment(" + new String(ch, start, length) + ")");
+    }
+
+    @Override
+    public void startCDATA() {
+      events.add("startCDATA");
+    }
+
+    @Override
+    public void endCDATA() {
+      events.add("endCDATA");
+    }
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.stax;
+
+import com.evolvedbinary.j8xu.builder.api.XmlBuilderException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.StringWriter;
+
+import static com.evolvedbinary.j8xu.builder.api.XmlBuilder.attribute;
+import static com.evolvedbinary.j8xu.builder.impl.common.PreEscaped.preEscaped;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StaxXmlBuilderTest {
+
+  private StringWriter stringWriter;
+  private XMLStreamWriter writer;
+
+  @BeforeEach
+  public void setup() throws XMLStreamException {
+    stringWriter = new StringWriter();
+    writer = XMLOutputFactory.newInstance().createXMLStreamWriter(stringWriter);
+  }
+
+  @Test
+  public void emptyElement() throws XMLStreamException {
+    final StaxXmlBuilder x = new StaxXmlBuilder(writer);
+
+    assertNull(x.element("elem1").build());
+    x.element("http://myns", "elem2").build();
+    x.element("http://myns", "elem3", "my").build();
+    writer.writeEndDocument();
+    writer.flush();
+
+    assertEquals("<elem1/><elem2 xmlns=\"http://myns\"/><my:elem3 xmlns:my=\"http://myns\"/>", stringWriter.toString());
+  }
+
+  @Test
+  public void elementWithAttributesAndChildren() throws XMLStreamException {
+    final StaxXmlBuilder x = new StaxXmlBuilder(writer);
+
+    x.element("http://myns", "elem1", "my", x.attributes(attribute("k1", "v1"), attribute("k2", 2)),
+        x.text("text1"),
+        x.comment("comment1"),
+        x.cdata("cdata1"),
+        x.element("elem2")
+    ).build();
+    writer.flush();
+
+    assertEquals("<my:elem1 xmlns:my=\"http://myns\" k1=\"v1\" k2=\"2\">text1<!--comment1--><![CDATA[cdata1]]><elem2/></my:elem1>", stringWriter.toString());
+  }
+
+  @Test
+  public void namespacesOnlyDeclaredWhenNotInScope() throws XMLStreamException {
+    final StaxXmlBuilder x = new StaxXmlBuilder(writer);
+
+    final String ns = "http://myns";
+    final String ns2 = "http://myns2";
+    x.element(ns, "elem1", x.element(ns, "elem2", x.element(ns2, "elem3", x.element(ns2, "elem4")))).build();
+    x.element(ns, "elem1", "my", x.element(ns, "elem2", "my", x.element(ns2, "elem3", "my"))).build();
+    writer.flush();
+
+    assertEquals(
+        "<elem1 xmlns=\"" + ns + "\"><elem2><elem3 xmlns=\"" + ns2 + "\"><elem4/></elem3></elem2></elem1>" +
+        "<my:elem1 xmlns:my=\"" + ns + "\"><my:elem2><my:elem3 xmlns:my=\"" + ns2 + "\"/></my:elem2></my:elem1>",
+        stringWriter.toString());
+  }
+
+  @Test
+  public void document() {
+    final StaxXmlBuilder x = new StaxXmlBuilder(writer, "\t");
+
+    x.document(
+        x.element("div",
+            x.element("p", x.text("hello "),
+                x.element("b", x.text("world")),
+                x.text("!")
+            ),
+            x.element("hr")
+        )
+    ).build();
+
+    assertEquals(
+        "<?xml version=\"1.0\" ?>" +
+        "<div>\n" +
+        "\t<p>hello <b>world</b>!</p>\n" +
+        "\t<hr/>\n" +
+        "</div>",
+        stringWriter.toString());
+  }
+
+  @Test
+  public void writerErrorIsThrown() {
+    final StaxXmlBuilder x = new StaxXmlBuilder(writer);
+
+    // attributes cannot be written when there is no element
+    assertThrows(XmlBuilderException.class, () -> x.attributes(attribute("k1", "v1")).build());
+  }
+
+  @Test
+  public void preEscapedAttributeIsRejected() {
+    final StaxXmlBuilder x = new StaxXmlBuilder(writer);
+
+    // NOTE(AR) the writer would escape the value again
+    assertThrows(XmlBuilderException.class, () -> x.element("elem1", x.attributes(attribute("k1", preEscaped("&amp;")))).build());
+  }
+}
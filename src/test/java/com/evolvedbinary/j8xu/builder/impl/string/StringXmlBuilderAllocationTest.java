@@ -0,0 +1,143 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.string;
+
+import com.evolvedbinary.j8xu.builder.impl.common.PreEscaped;
+import org.junit.jupiter.api.Test;
+
+import static com.evolvedbinary.j8xu.Allocations.bytesPerIteration;
+import static com.evolvedbinary.j8xu.builder.api.XmlBuilder.attribute;
+import static com.evolvedbinary.j8xu.builder.impl.common.PreEscaped.preEscaped;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Allocation regression tests for {@link StringXmlBuilder}.
+ *
+ * Each test asserts an upper bound on the number of bytes allocated per element
+ * rendered. The bounds are set with some headroom over the measured steady-state
+ * allocation, so that they catch regressions such as per-element garbage,
+ * without failing because of differences between JVMs.
+ */
+public class StringXmlBuilderAllocationTest {
+
+  private static final int ELEMENTS = 100;
+  private static final int ITERATIONS = 1_000;
+
+  @Test
+  public void buildToReusedBuffer() throws Exception {
+    final StringXmlBuilder x = new StringXmlBuilder("  ");
+    final StringXmlDocumentBuilder document = document(x);
+    final StringBuilder buffer = new StringBuilder(64 * 1024);
+
+    final double bytesPerElement = bytesPerIteration(ITERATIONS, () -> {
+      buffer.setLength(0);
+      document.buildTo(buffer);
+    }) / ELEMENTS;
+
+    // NOTE(AR) only the per-build context should be allocated, which is shared by all elements
+    assertBytesPerElement(16, bytesPerElement);
+  }
+
+  @Test
+  public void build() throws Exception {
+    final StringXmlBuilder x = new StringXmlBuilder("  ");
+    final StringXmlDocumentBuilder document = document(x);
+
+    final double bytesPerElement = bytesPerIteration(ITERATIONS, document::build) / ELEMENTS;
+
+    // NOTE(AR) dominated by growing the StringBuilder and copying it into the resulting String
+    assertBytesPerElement(512, bytesPerElement);
+  }
+
+  @Test
+  public void buildExactSize() throws Exception {
+    final StringXmlBuilder x = new StringXmlBuilder("  ");
+    final StringXmlDocumentBuilder document = document(x);
+
+    final double bytesPerElement = bytesPerIteration(ITERATIONS, document::buildExactSize) / ELEMENTS;
+
+    // NOTE(AR) should allocate less than build(), as the buffer is allocated once at its exact size
+    assertBytesPerElement(384, bytesPerElement);
+  }
+
+  @Test
+  public void constructAndBuild() throws Exception {
+    final StringXmlBuilder x = new StringXmlBuilder("  ");
+
+    final double bytesPerElement = bytesPerIteration(ITERATIONS, () -> document(x).build()) / ELEMENTS;
+
+    // NOTE(AR) includes the allocation of the builders themselves
+    assertBytesPerElement(1024, bytesPerElement);
+  }
+
+  @Test
+  public void templateBinding() throws Exception {
+    final StringXmlBuilder x = new StringXmlBuilder("  ");
+    final StringXmlTemplate template = StringXmlTemplate.compile(
+        x.element("http://myns", "order", "my", x.attributes(attribute("id", x.hole("id"))),
+            x.element("http://myns", "customer", "my", x.hole("customer")),
+            x.element("http://myns", "quantity", "my", x.hole("quantity")),
+            x.element("http://myns", "note", "my", x.hole("note"))
+        )
+    );
+
+    final String[] customers = { "John", "Jane & Joe" };
+    final PreEscaped note = preEscaped("<b>urgent</b>");
+    final StringBuilder buffer = new StringBuilder(1024);
+    final StringXmlTemplate.Binding binding = template.newBinding();
+    final int[] i = { 0 };
+
+    final double bytesPerRender = bytesPerIteration(10_000, () -> {
+      buffer.setLength(0);
+      binding.reset()
+          .set(0, i[0])
+          .set(1, customers[i[0] & 1])
+          .set(2, i[0] * 10L)
+          .set(3, note)
+          .renderTo(buffer);
+      i[0]++;
+    });
+
+    // NOTE(AR) allow a little for the measurement itself, but much less than one object per render
+    assertTrue(bytesPerRender < 1, "Expected steady-state rendering not to allocate, but allocated " + bytesPerRender + " bytes per render");
+  }
+
+  /**
+   * Creates a document of {@link #ELEMENTS} elements, with attributes, text, and a namespace.
+   */
+  private static StringXmlDocumentBuilder document(final StringXmlBuilder x) {
+    final StringXmlElementBuilder[] rows = new StringXmlElementBuilder[ELEMENTS - 1];
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = x.element("http://myns", "row", "my", x.attributes(attribute("id", i), attribute("type", "order")), x.text("some text & more"));
+    }
+    return x.document(x.element("http://myns", "rows", "my", rows));
+  }
+
+  private static void assertBytesPerElement(final double maxBytesPerElement, final double bytesPerElement) {
+    assertTrue(bytesPerElement <= maxBytesPerElement, "Expected at most " + maxBytesPerElement + " bytes allocated per element, but allocated " + bytesPerElement);
+  }
+}
@@ -27,10 +27,30 @@
 package com.evolvedbinary.j8xu.builder.impl.string;
 
 import com.evolvedbinary.j8xu.builder.api.*;
+import com.evolvedbinary.j8xu.builder.impl.common.PreEscaped;
 import org.junit.jupiter.api.Test;
 
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
 import static com.evolvedbinary.j8xu.builder.api.XmlBuilder.attribute;
+import static com.evolvedbinary.j8xu.builder.api.XmlBuilder.children;
+import static com.evolvedbinary.j8xu.builder.impl.common.PreEscaped.preEscaped;
+import static java.util.Arrays.asList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class StringXmlBuilderTest {
 
@@ -294,4 +314,693 @@ public class StringXmlBuilderTest {
 
     assertEquals("<![CDATA[" + content + "]]>", cdataBuilder.build());
   }
+
+  @Test
+  public void buildToWriter() throws IOException {
+    final StringXmlBuilder x = new StringXmlBuilder("\t");
+
+    final StringXmlDocumentBuilder documentBuilder = x.document(
+        x.element("http://myns", "elem1", "my", x.attributes(attribute("k1", "v1")),
+            x.element("http://myns", "elem2", "my", x.text("text1")),
+            x.element("elem3", x.cdata("cdata1"))
+        )
+    );
+
+    final StringWriter writer = new StringWriter();
+    documentBuilder.buildTo(writer);
+
+    assertEquals(
+        "<my:elem1 xmlns:my=\"http://myns\" k1=\"v1\">\n" +
+        "\t<my:elem2>text1</my:elem2>\n" +
+        "\t<elem3><![CDATA[cdata1]]></elem3>\n" +
+        "</my:elem1>",
+        writer.toString());
+    assertEquals(writer.toString(), documentBuilder.build());
+  }
+
+  @Test
+  public void buildToExistingBuffer() throws IOException {
+    final StringXmlBuilder x = new StringXmlBuilder();
+
+    final StringBuilder buffer = new StringBuilder("<?xml version=\"1.0\"?>");
+    x.element("elem1", x.attributes(attribute("k1", 1)), x.text("text1")).buildTo(buffer);
+    x.comment("comment1").buildTo(buffer);
+
+    assertEquals("<?xml version=\"1.0\"?><elem1 k1=\"1\">text1</elem1><!-- comment1 -->", buffer.toString());
+  }
+
+  @Test
+  public void template() {
+    final StringXmlBuilder x = new StringXmlBuilder("  ");
+
+    final StringXmlTemplate template = StringXmlTemplate.compile(
+        x.element("http://people", "people", "p",
+            x.element("http://people", "person", "p", x.attributes(attribute("id", x.hole("id"))),
+                x.element("firstName", x.hole("firstName")),
+                x.element("lastName", x.hole("lastName"))
+            ),
+            x.element("http://people", "person", "p", x.attributes(attribute("id", 2)),
+                x.element("firstName", x.text("Jane")),
+                x.element("lastName", x.hole("lastName"))
+            )
+        )
+    );
+
+    assertEquals(asList("id", "firstName", "lastName"), template.getParameterNames());
+
+    final String expected =
+        "<p:people xmlns:p=\"http://people\">\n" +
+        "  <p:person id=\"1\">\n" +
+        "    <firstName>John</firstName>\n" +
+        "    <lastName>Doe</lastName>\n" +
+        "  </p:person>\n" +
+        "  <p:person id=\"2\">\n" +
+        "    <firstName>Jane</firstName>\n" +
+        "    <lastName>Doe</lastName>\n" +
+        "  </p:person>\n" +
+        "</p:people>";
+    assertEquals(expected, template.render(1, "John", "Doe"));
+
+    // same result as building the tree directly
+    assertEquals(expected,
+        x.element("http://people", "people", "p",
+            x.element("http://people", "person", "p", x.attributes(attribute("id", 1)),
+                x.element("firstName", x.text("John")),
+                x.element("lastName", x.text("Doe"))
+            ),
+            x.element("http://people", "person", "p", x.attributes(attribute("id", 2)),
+                x.element("firstName", x.text("Jane")),
+                x.element("lastName", x.text("Doe"))
+            )
+        ).build());
+
+    // the template may be rendered repeatedly
+    assertEquals(expected.replace("John", "Jim"), template.render(1, "Jim", "Doe"));
+  }
+
+  @Test
+  public void templateRenderTo() throws IOException {
+    final StringXmlBuilder x = new StringXmlBuilder();
+
+    final StringXmlTemplate template = StringXmlTemplate.compile(x.element("elem1", x.hole("h1")));
+
+    final StringWriter writer = new StringWriter();
+    template.renderTo(writer, "text1");
+    assertEquals("<elem1>text1</elem1>", writer.toString());
+  }
+
+  @Test
+  public void templateWrongNumberOfValues() {
+    final StringXmlBuilder x = new StringXmlBuilder();
+
+    final StringXmlTemplate template = StringXmlTemplate.compile(x.element("elem1", x.hole("h1")));
+
+    assertThrows(IllegalArgumentException.class, () -> template.render());
+    assertThrows(IllegalArgumentException.class, () -> template.render("text1", "text2"));
+  }
+
+  @Test
+  public void templateBinding() throws IOException {
+    final StringXmlBuilder x = new StringXmlBuilder();
+
+    final StringXmlTemplate template = StringXmlTemplate.compile(
+        x.element("person", x.attributes(attribute("id", x.hole("id"))),
+            x.element("name", x.hole("name"))
+        )
+    );
+
+    final StringXmlTemplate.Binding binding = template.newBinding();
+    assertEquals("<person id=\"1\"><name>John &amp; Jane</name></person>", binding.set("id", 1).set("name", "John & Jane").render());
+
+    // the binding may be reset and refilled
+    final StringBuilder name = new StringBuilder("Ji");
+    name.append('m');
+    final StringBuilder buffer = new StringBuilder();
+    binding.reset().set(0, 2L).set(1, name).renderTo(buffer);
+    assertEquals("<person id=\"2\"><name>Jim</name></person>", buffer.toString());
+
+    binding.reset().set(0, 3);
+    assertThrows(IllegalStateException.class, binding::render);
+    assertThrows(IllegalArgumentException.class, () -> binding.set("other", "value"));
+
+    // each binding is independent
+    assertNotSame(binding, template.newBinding());
+    assertThrows(IllegalStateException.class, () -> template.newBinding().render());
+  }
+
+  @Test
+  public void holeOutsideOfTemplate() {
+    final StringXmlBuilder x = new StringXmlBuilder();
+
+    assertThrows(XmlBuilderException.class, () -> x.element("elem1", x.hole("h1")).build());
+    assertThrows(XmlBuilderException.class, () -> x.element("elem1", x.attributes(attribute("k1", x.hole("h1")))).build());
+  }
+
+  @Test
+  public void escaping() {
+    final StringXmlBuilder x = new StringXmlBuilder();
+
+    assertEquals("<elem1 k1=\"a &lt; b &amp;&amp; c &gt; &quot;d&quot;&#x9;&#xA;\">a &lt; b &amp;&amp; c &gt; &quot;d&quot;\t\n\uFFFD</elem1>",
+        x.element("elem1", x.attributes(attribute("k1", "a < b && c > \"d\"\t\n")), x.text("a < b && c > \"d\"\t\n\u0001")).build());
+
+    // nothing to escape
+    assertEquals("<elem1 k1=\"v1\">text1</elem1>", x.element("elem1", x.attributes(attribute("k1", "v1")), x.text("text1")).build());
+
+    // control characters that are not allowed in XML 1.0 are replaced
+    assertEquals("<elem1 k1=\"a\uFFFDb\">\uFFFDa\uFFFD</elem1>",
+        x.element("elem1", x.attributes(attribute("k1", "a\u0001b")), x.text("\u0000a\u001F")).build());
+
+    // namespaces are escaped
+    assertEquals("<my:elem1 xmlns:my=\"http://myns?a=1&amp;b=&quot;2&quot;\"><elem2 xmlns=\"http://other?&lt;\"/></my:elem1>",
+        x.element("http://myns?a=1&b=\"2\"", "elem1", "my", x.element("http://other?<", "elem2")).build());
+
+    // comments and cdata are not escaped
+    assertEquals("<elem1><!-- a < b --><![CDATA[a < b]]></elem1>", x.element("elem1", x.comment("a < b"), x.cdata("a < b")).build());
+  }
+
+  @Test
+  public void preEscapedValues() {
+    final StringXmlBuilder x = new StringXmlBuilder();
+
+    assertEquals("<elem1 href=\"a?b=1&amp;c=2\"><b>bold</b> &amp; text</elem1>",
+        x.element("elem1", x.attributes(attribute("href", preEscaped("a?b=1&amp;c=2"))), x.preEscapedText("<b>bold</b> &amp; text")).build());
+  }
+
+  @Test
+  public void templateEscaping() {
+    final StringXmlBuilder x = new StringXmlBuilder();
+
+    final StringXmlTemplate template = StringXmlTemplate.compile(
+        x.element("elem1", x.attributes(attribute("k1", x.hole("h1"))), x.hole("h1"), x.hole("h2"))
+    );
+
+    assertEquals("<elem1 k1=\"&quot;a&#x9;b&quot;\">&quot;a\tb&quot;<b/></elem1>",
+        template.render("\"a\tb\"", preEscaped("<b/>")));
+  }
+
+  @Test
+  public void lazyChildren() {
+    final StringXmlBuilder x = new StringXmlBuilder("  ");
+
+    final String expected =
+        "<rows>\n" +
+        "  <row id=\"0\"/>\n" +
+        "  <row id=\"1\"/>\n" +
+        "  <row id=\"2\"/>\n" +
+        "</rows>";
+
+    // Iterable
+    final List<XmlChildNodeBuilder<String>> rows = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      rows.add(x.element("row", x.attributes(attribute("id", i))));
+    }
+    final XmlElementBuilder<String> fromIterable = x.element("rows", rows);
+    assertEquals(expected, fromIterable.build());
+    // an Iterable may be built repeatedly
+    assertEquals(expected, fromIterable.build());
+
+    // Iterator
+    assertEquals(expected, x.element("rows", rows.iterator()).build());
+
+    // Stream
+    assertEquals(expected, x.element("rows", IntStream.range(0, 3).mapToObj(i -> x.element("row", x.attributes(attribute("id", i))))).build());
+
+    // Supplier
+    final AtomicInteger count = new AtomicInteger();
+    assertEquals(expected, x.element(null, "rows", null, null, children(() -> {
+      final int i = count.getAndIncrement();
+      return i < 3 ? x.element("row", x.attributes(attribute("id", i))) : null;
+    })).build());
+  }
+
+  @Test
+  public void lazyChildrenPulledWhilstBuilding() {
+    final StringXmlBuilder x = new StringXmlBuilder();
+
+    final AtomicInteger created = new AtomicInteger();
+    final XmlElementBuilder<String> elementBuilder = x.element("rows", IntStream.range(0, 3).mapToObj(i -> {
+      created.incrementAndGet();
+      return x.text(Integer.toString(i));
+    }));
+
+    assertEquals(0, created.get());
+    assertEquals("<rows>012</rows>", elementBuilder.build());
+    assertEquals(3, created.get());
+
+    // the stream has been consumed
+    assertThrows(IllegalStateException.class, elementBuilder::build);
+  }
+
+  @Test
+  public void lazyChildrenEmpty() {
+    final StringXmlBuilder x = new StringXmlBuilder();
+
+    assertEquals("<rows/>", x.element("rows", new ArrayList<XmlChildNodeBuilder<String>>()).build());
+    assertEquals("<my:rows xmlns:my=\"http://myns\" k1=\"v1\"/>", x.element("http://myns", "rows", "my", x.attributes(attribute("k1", "v1")), new ArrayList<XmlChildNodeBuilder<String>>().iterator()).build());
+  }
+
+  @Test
+  public void parallel() {
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (final String indent : new String[] { null, "  " }) {
+        final String expected = wide(new StringXmlBuilder(indent)).build();
+        assertEquals(expected, wide(new StringXmlBuilder(indent, pool, 8)).build());
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void parallelTemplate() {
+    final ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      final StringXmlBuilder x = new StringXmlBuilder(null, pool, 2);
+      final StringXmlTemplate template = StringXmlTemplate.compile(
+          x.element("rows", x.element("row", x.hole("h1")), x.element("row", x.hole("h2")))
+      );
+      assertEquals("<rows><row>1</row><row>2</row></rows>", template.render(1, 2));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static XmlElementBuilder<String> wide(final StringXmlBuilder x) {
+    final XmlChildNodeBuilder<String>[] rows = new XmlChildNodeBuilder[1000];
+    for (int i = 0; i < rows.length; i++) {
+      final XmlChildNodeBuilder<String>[] cells = new XmlChildNodeBuilder[i % 20];
+      for (int j = 0; j < cells.length; j++) {
+        cells[j] = j % 3 == 0
+            ? x.element("http://other", "cell", "o", x.text("mixed "), x.element("b", x.text(Integer.toString(j))))
+            : x.element("http://rows", "cell", "r", x.attributes(attribute("j", j)));
+      }
+      rows[i] = x.element("http://rows", "row", "r", x.attributes(attribute("i", i)), cells);
+    }
+    return x.element("http://rows", "rows", "r", rows);
+  }
+
+  @Test
+  public void buildExactSize() {
+    final StringXmlBuilder x = new StringXmlBuilder("  ");
+
+    final XmlElementBuilder<String> elementBuilder = wide(x);
+    final String expected = elementBuilder.build();
+    assertEquals(expected.length(), ((StringXmlElementBuilder) elementBuilder).measure());
+    assertEquals(expected, ((StringXmlElementBuilder) elementBuilder).buildExactSize());
+
+    final StringXmlElementBuilder namespaced = x.element("http://myns", "elem1", "my", x.attributes(attribute("a", "<&>")),
+        x.element("http://myns", "elem2", "my", x.text("text & more")),
+        x.comment("c")
+    );
+    assertEquals(namespaced.build(), namespaced.buildExactSize());
+  }
+
+  @Test
+  public void sharedBetweenThreads() throws Exception {
+    final StringXmlBuilder x = new StringXmlBuilder("  ");
+    final XmlElementBuilder<String> shared = wide(x);
+    final String expected = shared.build();
+
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      final List<Future<String>> results = new ArrayList<>();
+      for (int i = 0; i < 32; i++) {
+        // half build the same shared tree, the other half build new trees from the shared builder
+        final boolean buildShared = i % 2 == 0;
+        results.add(executor.submit(() -> buildShared ? shared.build() : wide(x).build()));
+      }
+      for (final Future<String> result : results) {
+        assertEquals(expected, result.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void failedBuildDoesNotAffectLaterBuilds() {
+    final StringXmlBuilder x = new StringXmlBuilder("  ");
+
+    assertThrows(XmlBuilderException.class, () -> x.element("http://myns", "elem1", "my", x.element("elem2", x.hole("h1"))).build());
+
+    assertEquals("<my:elem1 xmlns:my=\"http://myns\">\n  <elem2/>\n</my:elem1>", x.element("http://myns", "elem1", "my", x.element("elem2")).build());
+  }
+
+  @Test
+  public void listener() throws IOException {
+    final RecordingListener listener = new RecordingListener();
+    final StringXmlBuilder x = new StringXmlBuilder("  ").withListener(listener);
+
+    final String xml = listenerDocument(x).build();
+
+    assertEquals(asList(
+        "startBuild",
+        "startDocument",
+        "startElement elem1 0",
+        "namespaceDeclared my http://myns",
+        "startElement elem2 1",
+        "text",
+        "endElement elem2 1",
+        "comment",
+        "cdata",
+        "endElement elem1 0",
+        "endDocument",
+        "endBuild"
+    ), listener.events);
+    assertEquals(xml.length(), listener.length);
+
+    // the listener does not affect the output
+    assertEquals(listenerDocument(new StringXmlBuilder("  ")).build(), xml);
+
+    // measuring is not a build, so building to the exact size notifies only once
+    final List<String> expectedEvents = new ArrayList<>(listener.events);
+    listener.events.clear();
+    assertEquals(xml, listenerDocument(x).buildExactSize());
+    assertEquals(expectedEvents, listener.events);
+    assertEquals(xml.length(), listener.length);
+
+    listener.events.clear();
+    listenerDocument(x).measure();
+    assertTrue(listener.events.isEmpty());
+
+    // the length is counted when building to any appendable
+    listener.length = -1;
+    listenerDocument(x).buildTo(new StringWriter());
+    assertEquals(xml.length(), listener.length);
+
+    listener.length = -1;
+    listenerDocument(x.withFlushPolicy(FlushPolicy.atDepth(0))).buildTo(new StringWriter());
+    assertEquals(xml.length(), listener.length);
+  }
+
+  private static StringXmlDocumentBuilder listenerDocument(final StringXmlBuilder x) {
+    return x.document(
+        x.element("http://myns", "elem1", "my",
+            x.element("elem2", x.text("text1")),
+            x.comment("comment1"),
+            x.cdata("cdata1")
+        )
+    );
+  }
+
+  @Test
+  public void writer() throws IOException {
+    final StringXmlBuilder x = new StringXmlBuilder("\t");
+    final String ns = "http://myns";
+
+    final StringBuilder buffer = new StringBuilder();
+    x.writer(buffer)
+        .startDocument()
+        .startElement(ns, "elem1", "my").attribute("k1", "a < b").attribute("k2", 2)
+          .startElement(ns, "elem2", "my").text("text1").endElement()
+          .startElement("elem3").endElement()
+          .startElement("p").text("hello ").startElement("b").text("world").endElement().text("!").endElement()
+          .comment("comment1")
+          .cdata("cdata1")
+        .endDocument();
+
+    // the writer produces the same output as the node builders
+    assertEquals(
+        x.document(
+            x.element(ns, "elem1", "my", x.attributes(attribute("k1", "a < b"), attribute("k2", 2)),
+                x.element(ns, "elem2", "my", x.text("text1")),
+                x.element("elem3"),
+                x.element("p", x.text("hello "), x.element("b", x.text("world")), x.text("!")),
+                x.comment("comment1"),
+                x.cdata("cdata1")
+            )
+        ).build(),
+        buffer.toString());
+    assertEquals(
+        "<my:elem1 xmlns:my=\"http://myns\" k1=\"a &lt; b\" k2=\"2\">\n" +
+        "\t<my:elem2>text1</my:elem2>\n" +
+        "\t<elem3/>\n" +
+        "\t<p>hello <b>world</b>!</p><!-- comment1 --><![CDATA[cdata1]]></my:elem1>",
+        buffer.toString());
+  }
+
+  @Test
+  public void writerNode() throws IOException {
+    final StringXmlBuilder x = new StringXmlBuilder("  ");
+    final String ns = "http://myns";
+
+    final StringWriter out = new StringWriter();
+    final StringXmlWriter writer = x.writer(out);
+    writer.startElement(ns, "rows", "my");
+    for (int i = 0; i < 2; i++) {
+      writer.node(x.element(ns, "row", "my", x.attributes(attribute("id", i))));
+    }
+    writer.endElement();
+
+    // nodes are indented and do not redeclare the namespaces that are in scope
+    assertEquals(
+        "<my:rows xmlns:my=\"http://myns\">\n" +
+        "  <my:row id=\"0\"/>\n" +
+        "  <my:row id=\"1\"/>\n" +
+        "</my:rows>",
+        out.toString());
+  }
+
+  @Test
+  public void writerMisuse() throws IOException {
+    final StringXmlBuilder x = new StringXmlBuilder();
+
+    assertThrows(XmlBuilderException.class, () -> x.writer(new StringBuilder()).endElement());
+    assertThrows(XmlBuilderException.class, () -> x.writer(new StringBuilder()).endDocument());
+    assertThrows(XmlBuilderException.class, () -> x.writer(new StringBuilder()).attribute("k1", "v1"));
+    assertThrows(XmlBuilderException.class, () -> x.writer(new StringBuilder()).startElement("elem1").text("text1").attribute("k1", "v1"));
+    assertThrows(XmlBuilderException.class, () -> x.writer(new StringBuilder()).startElement("elem1").startDocument());
+
+    final StringXmlWriter writer = x.writer(new StringBuilder()).startElement("elem1").startElement("elem2");
+    assertEquals(2, writer.getOpenElements());
+    writer.endElement();
+    assertEquals(1, writer.getOpenElements());
+  }
+
+  @Test
+  public void writerManyElements() throws IOException {
+    final StringXmlBuilder x = new StringXmlBuilder("  ");
+    final int count = 100_000;
+    final StringLengthCounter counter = new StringLengthCounter();
+
+    // NOTE(AR) the elements are never held in memory, only their length is counted
+    final StringXmlWriter writer = x.writer(counter).startDocument().startElement("log");
+    for (int i = 0; i < count; i++) {
+      writer.startElement("entry").attribute("seq", i).text("message").endElement();
+    }
+    writer.endDocument();
+
+    long expectedLength = "<log>".length() + "\n</log>".length();
+    for (int i = 0; i < count; i++) {
+      expectedLength += ("\n  <entry seq=\"" + i + "\">message</entry>").length();
+    }
+    assertEquals(expectedLength, counter.getLength());
+  }
+
+  @Test
+  public void writerListener() throws IOException {
+    final RecordingListener listener = new RecordingListener();
+    final StringXmlBuilder x = new StringXmlBuilder("  ").withListener(listener);
+
+    x.writer(new StringBuilder())
+        .startDocument()
+        .startElement("http://myns", "elem1", "my")
+          .startElement("elem2").text("text1").endElement()
+          .comment("comment1")
+          .cdata("cdata1")
+        .endDocument();
+
+    // the same events as the node builders, except for those of the build
+    assertEquals(asList(
+        "startDocument",
+        "startElement elem1 0",
+        "namespaceDeclared my http://myns",
+        "startElement elem2 1",
+        "text",
+        "endElement elem2 1",
+        "comment",
+        "cdata",
+        "endElement elem1 0",
+        "endDocument"
+    ), listener.events);
+  }
+
+  @Test
+  public void flushPolicyAtDepth() throws IOException {
+    final StringXmlBuilder x = new StringXmlBuilder().withFlushPolicy(FlushPolicy.atDepth(1));
+
+    final RecordingWriter writer = new RecordingWriter();
+    x.document(x.element("rows", x.element("row", x.element("a")), x.element("row"))).buildTo(writer);
+
+    // flushed after each child of the root, but not after the deeper element
+    assertEquals(asList(
+        "<rows><row><a/></row>",
+        "<rows><row><a/></row><row/>",
+        "<rows><row><a/></row><row/></rows>"
+    ), writer.flushes);
+  }
+
+  @Test
+  public void flushPolicyAfterLength() throws IOException {
+    final StringXmlBuilder x = new StringXmlBuilder().withFlushPolicy(FlushPolicy.afterLength(10));
+
+    final RecordingWriter writer = new RecordingWriter();
+    x.element("rows", x.element("row"), x.element("row"), x.element("row")).buildTo(writer);
+
+    // flushed when at least 10 chars are unflushed as an element ends, and once more at the end of the build
+    assertEquals(asList(
+        "<rows><row/>",
+        "<rows><row/><row/><row/>",
+        "<rows><row/><row/><row/></rows>"
+    ), writer.flushes);
+  }
+
+  @Test
+  public void flushPolicyAfterTime() throws IOException {
+    final StringXmlBuilder x = new StringXmlBuilder().withFlushPolicy(FlushPolicy.afterTime(1, TimeUnit.HOURS).or(FlushPolicy.atDepth(0)));
+
+    final RecordingWriter writer = new RecordingWriter();
+    x.element("rows", x.element("row"), x.element("row")).buildTo(writer);
+
+    // the time has not elapsed, so only flushed when the root ends
+    assertEquals(asList("<rows><row/><row/></rows>"), writer.flushes);
+
+    final StringXmlBuilder always = new StringXmlBuilder().withFlushPolicy(FlushPolicy.afterTime(0, TimeUnit.MILLISECONDS));
+    final RecordingWriter alwaysWriter = new RecordingWriter();
+    always.element("rows", always.element("row"), always.element("row")).buildTo(alwaysWriter);
+    assertEquals(3, alwaysWriter.flushes.size());
+  }
+
+  @Test
+  public void flushPolicyDoesNotAffectOutput() throws IOException {
+    final StringXmlBuilder x = new StringXmlBuilder("  ");
+    final StringXmlBuilder flushing = x.withFlushPolicy(FlushPolicy.atDepth(1));
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      final StringXmlBuilder parallel = new StringXmlBuilder("  ", pool, 8).withFlushPolicy(FlushPolicy.atDepth(1));
+
+      final String expected = listenerDocument(x).build();
+      assertEquals(expected, listenerDocument(flushing).build());
+
+      RecordingWriter writer = new RecordingWriter();
+      listenerDocument(flushing).buildTo(writer);
+      assertEquals(expected, writer.toString());
+
+      // NOTE(AR) children built in parallel are flushed as each slice is written, here each slice is a single row
+      final StringXmlElementBuilder[] rows = new StringXmlElementBuilder[16];
+      for (int i = 0; i < rows.length; i++) {
+        rows[i] = parallel.element("row", parallel.attributes(attribute("id", i)));
+      }
+      writer = new RecordingWriter();
+      parallel.element("rows", rows).buildTo(writer);
+      assertEquals(x.element("rows", rows).build(), writer.toString());
+
+      final RecordingWriter sequentialWriter = new RecordingWriter();
+      flushing.element("rows", rows).buildTo(sequentialWriter);
+      assertEquals(sequentialWriter.flushes, writer.flushes);
+      assertTrue(writer.flushes.size() > rows.length);
+    } finally {
+      pool.shutdown();
+    }
+
+    // no flush without a policy
+    final RecordingWriter writer = new RecordingWriter();
+    listenerDocument(x).buildTo(writer);
+    assertTrue(writer.flushes.isEmpty());
+  }
+
+  @Test
+  public void flushPolicyWriter() throws IOException {
+    final StringXmlBuilder x = new StringXmlBuilder().withFlushPolicy(FlushPolicy.atDepth(1));
+
+    final RecordingWriter out = new RecordingWriter();
+    final StringXmlWriter writer = x.writer(out).startDocument().startElement("log");
+    writer.startElement("entry").text("one").endElement();
+    assertEquals(asList("<log><entry>one</entry>"), out.flushes);
+    writer.startElement("entry").text("two").endElement();
+    writer.endDocument();
+
+    assertEquals(asList(
+        "<log><entry>one</entry>",
+        "<log><entry>one</entry><entry>two</entry>",
+        "<log><entry>one</entry><entry>two</entry></log>"
+    ), out.flushes);
+  }
+
+  @Test
+  public void flushPolicyInvalid() {
+    assertThrows(IllegalArgumentException.class, () -> FlushPolicy.afterLength(0));
+    assertThrows(IllegalArgumentException.class, () -> FlushPolicy.atDepth(-1));
+  }
+
+  /**
+   * A Writer which records its content each time that it is flushed.
+   */
+  private static class RecordingWriter extends StringWriter {
+    final List<String> flushes = new ArrayList<>();
+
+    @Override
+    public void flush() {
+      super.flush();
+      flushes.add(toString());
+    }
+  }
+
+  private static class RecordingListener implements XmlBuildListener {
+    final List<String> events = new ArrayList<>();
+    long length;
+
+    @Override
+    public void startBuild() {
+      events.add("startBuild");
+    }
+
+    @Override
+    public void endBuild(final long length, final long nanos) {
+      this.length = length;
+      events.add("endBuild");
+    }
+
+    @Override
+    public void startDocument() {
+      events.add("startDocument");
+    }
+
+    @Override
+    public void endDocument() {
+      events.add("endDocument");
+    }
+
+    @Override
+    public void startElement(@Nullable final String namespace, final String localName, @Nullable final String prefix, final int depth) {
+      events.add("startElement " + localName + " " + depth);
+    }
+
+    @Override
+    public void endElement(@Nullable final String namespace, final String localName, @Nullable final String prefix, final int depth) {
+      events.add("endElement " + localName + " " + depth);
+    }
+
+    @Override
+    public void namespaceDeclared(final String namespace, @Nullable final String prefix) {
+      events.add("namespaceDeclared " + prefix + " " + namespace);
+    }
+
+    @Override
+    public void text() {
+      events.add("text");
+    }
+
+    @Override
+    public void comment() {
+      events.add("comment");
+    }
+
+    @Override
+    public void cdata() {
+      events.add("cdata");
+    }
+  }
 }
@@ -0,0 +1,669 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.builder.impl.utf8;
+
+import com.evolvedbinary.j8xu.builder.api.*;
+import com.evolvedbinary.j8xu.builder.impl.common.Indentation;
+import com.evolvedbinary.j8xu.builder.impl.string.StringXmlBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.evolvedbinary.j8xu.builder.api.XmlBuilder.attribute;
+import static com.evolvedbinary.j8xu.builder.impl.common.PreEscaped.preEscaped;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+public class Utf8XmlBuilderTest {
+
+  @Test
+  public void emptyElement() {
+    final Utf8XmlBuilder x = new Utf8XmlBuilder();
+
+    assertEquals("<elem1/>", string(x.element("elem1").build()));
+    assertEquals("<elem1 xmlns=\"http://myns\"/>", string(x.element("http://myns", "elem1").build()));
+    assertEquals("<my:elem1 xmlns:my=\"http://myns\"/>", string(x.element("http://myns", "elem1", "my").build()));
+  }
+
+  @Test
+  public void emptyElementWithAttributes() {
+    final Utf8XmlBuilder x = new Utf8XmlBuilder();
+
+    final XmlElementBuilder<byte[]> elementBuilder =
+        x.element("http://myns", "elem1", "my", x.attributes(attribute("k1", "v1"), attribute("k2", 2)));
+
+    assertEquals("<my:elem1 xmlns:my=\"http://myns\" k1=\"v1\" k2=\"2\"/>", string(elementBuilder.build()));
+  }
+
+  @Test
+  public void elementWithChildNodes() {
+    final Utf8XmlBuilder x = new Utf8XmlBuilder();
+
+    final XmlElementBuilder<byte[]> elementBuilder =
+        x.element("elem1",
+            x.text("text1"),
+            x.comment("comment1"),
+            x.cdata("cdata1"),
+            x.element("elem2")
+        );
+
+    assertEquals("<elem1>text1<!-- comment1 --><![CDATA[cdata1]]><elem2/></elem1>", string(elementBuilder.build()));
+  }
+
+  @Test
+  public void elementWithChildElementsIndent() {
+    final Utf8XmlBuilder x = new Utf8XmlBuilder("\t");
+
+    final String ns = "http://myns";
+    final String prefix = "my";
+
+    final XmlElementBuilder<byte[]> elementBuilder =
+        x.element(ns, "elem1", prefix,  x.element(ns, "elem2", prefix, x.element(ns, "elem3", prefix)));
+
+    assertEquals(
+        "<" + prefix + ":elem1 xmlns:my=\"" + ns + "\">\n" +
+        "\t<" + prefix + ":elem2>\n" +
+        "\t\t<" + prefix + ":elem3/>\n" +
+        "\t</" + prefix + ":elem2>\n" +
+        "</" + prefix + ":elem1>",
+        string(elementBuilder.build()));
+  }
+
+  @Test
+  public void elementWithMixedContentIndent() {
+    final Utf8XmlBuilder x = new Utf8XmlBuilder("\t");
+
+    final XmlElementBuilder<byte[]> elementBuilder =
+        x.element("div",
+            x.element("p", x.text("hello "),
+                x.element("b", x.text("world")),
+                x.text("!")
+            )
+        );
+
+    assertEquals(
+        "<div>\n" +
+            "\t<p>hello <b>world</b>!</p>\n" +
+            "</div>",
+        string(elementBuilder.build()));
+  }
+
+  @Test
+  public void nonAsciiContent() {
+    final String content = "café € 中文 😀 \ud800 end";
+
+    final Utf8XmlBuilder x = new Utf8XmlBuilder();
+    final XmlElementBuilder<byte[]> elementBuilder =
+        x.element("élément", x.attributes(attribute("clé", content)), x.text(content));
+
+    final String expected = "<élément clé=\"" + content + "\">" + content + "</élément>";
+    assertArrayEquals(expected.getBytes(UTF_8), elementBuilder.build());
+  }
+
+  @Test
+  public void deepIndentWithNewLine() {
+    final Utf8XmlBuilder u = new Utf8XmlBuilder("\t", Indentation.CRLF);
+    final StringXmlBuilder s = new StringXmlBuilder("\t", Indentation.CRLF);
+
+    // deeper than the cached indentation
+    XmlElementBuilder<byte[]> uElement = u.element("leaf", u.text("x"));
+    XmlElementBuilder<String> sElement = s.element("leaf", s.text("x"));
+    for (int i = 0; i < 100; i++) {
+      uElement = u.element("elem" + i, uElement);
+      sElement = s.element("elem" + i, sElement);
+    }
+
+    final String expected = sElement.build();
+    assertTrue(expected.startsWith("<elem99>\r\n\t<elem98>\r\n\t\t<elem97>"));
+    assertTrue(expected.endsWith("</elem97>\r\n\t</elem98>\r\n</elem99>"));
+    assertArrayEquals(expected.getBytes(UTF_8), uElement.build());
+  }
+
+  @Test
+  public void buildExactSize() {
+    final Utf8XmlBuilder u = new Utf8XmlBuilder("  ");
+
+    final Utf8XmlDocumentBuilder documentBuilder = u.document(
+        u.element("http://people", "people", "p", u.attributes(),
+            IntStream.range(0, 1000).mapToObj(i ->
+                u.element("http://people", "person", "p", u.attributes(attribute("id", i)),
+                    u.element("name", u.text("Jöhn \uD83D\uDE00 & Doë"))
+                )
+            ).collect(toList())
+        )
+    );
+    final byte[] expected = documentBuilder.build();
+    assertEquals(expected.length, documentBuilder.measure());
+    assertArrayEquals(expected, documentBuilder.buildExactSize());
+
+    // ends with characters that encode to more than one byte, and a malformed surrogate
+    final Utf8XmlTextBuilder text = u.text("abc\u00e9\u20ac\uD83D\uDE00\uD83D");
+    assertArrayEquals(text.build(), text.buildExactSize());
+
+    // smaller than a buffer
+    assertArrayEquals("ab".getBytes(UTF_8), u.text("ab").buildExactSize());
+
+    // lazy children from a single use source cannot be built twice
+    final Utf8XmlElementBuilder lazy = (Utf8XmlElementBuilder) u.element("elem1", Stream.of(u.element("elem2")));
+    assertThrows(IllegalStateException.class, lazy::buildExactSize);
+  }
+
+  @Test
+  public void sameAsStringXmlBuilder() throws IOException {
+    final Utf8XmlBuilder u = new Utf8XmlBuilder("  ");
+    final StringXmlBuilder s = new StringXmlBuilder("  ");
+
+    final byte[] expected = s.document(
+        s.element("http://people", "people", "p",
+            s.element("http://people", "person", "p", s.attributes(attribute("id", 1)),
+                s.element("firstName", s.text("Jöhn")),
+                s.element("lastName", s.text("Doë"))
+            )
+        )
+    ).build().getBytes(UTF_8);
+
+    final Utf8XmlDocumentBuilder documentBuilder = u.document(
+        u.element("http://people", "people", "p",
+            u.element("http://people", "person", "p", u.attributes(attribute("id", 1)),
+                u.element("firstName", u.text("Jöhn")),
+                u.element("lastName", u.text("Doë"))
+            )
+        )
+    );
+
+    assertArrayEquals(expected, documentBuilder.build());
+
+    final ByteArrayOutputStream os = new ByteArrayOutputStream();
+    documentBuilder.buildTo(os);
+    assertArrayEquals(expected, os.toByteArray());
+
+    // the smallest possible buffer forces a drain for almost every write
+    for (int bufferSize = 4; bufferSize < 16; bufferSize++) {
+      os.reset();
+      final Utf8Output out = new Utf8StreamOutput(os, new byte[bufferSize]);
+      documentBuilder.buildTo(out);
+      out.flush();
+      assertArrayEquals(expected, os.toByteArray());
+    }
+  }
+
+  @Test
+  public void reuseOutput() throws IOException {
+    final Utf8XmlBuilder x = new Utf8XmlBuilder();
+
+    final ByteArrayOutputStream os = new ByteArrayOutputStream();
+    final Utf8Output out = new Utf8StreamOutput(os);
+    x.element("elem1").buildTo(out);
+    x.comment("comment1").buildTo(out);
+    x.element("elem2", x.text("text2")).buildTo(out);
+
+    // nothing is written until the output is flushed
+    assertEquals(0, os.size());
+
+    out.flush();
+    assertEquals("<elem1/><!-- comment1 --><elem2>text2</elem2>", string(os.toByteArray()));
+  }
+
+  @Test
+  public void bufferTooSmall() {
+    assertThrows(IllegalArgumentException.class, () -> new Utf8StreamOutput(new ByteArrayOutputStream(), new byte[3]));
+  }
+
+  @Test
+  public void buildToFileChannel(@TempDir final Path tempDir) throws IOException {
+    final Utf8XmlBuilder x = new Utf8XmlBuilder("\t");
+
+    final Utf8XmlDocumentBuilder documentBuilder = x.document(
+        x.element("http://myns", "elem1", "my", x.attributes(attribute("k1", "v1")),
+            x.element("http://myns", "elem2", "my", x.text("tëxt1")),
+            x.element("elem3", x.cdata("cdata1"))
+        )
+    );
+
+    final Path file = tempDir.resolve("doc.xml");
+    try (final FileChannel channel = FileChannel.open(file, CREATE_NEW, WRITE)) {
+      documentBuilder.buildTo(channel);
+    }
+
+    assertArrayEquals(documentBuilder.build(), Files.readAllBytes(file));
+  }
+
+  @Test
+  public void buildToGatheringChannel() throws IOException {
+    final Utf8XmlBuilder x = new Utf8XmlBuilder();
+
+    // a child from another implementation, whose bytes are too large to be worth copying
+    final byte[] large = new byte[Utf8Output.DEFAULT_BUFFER_SIZE];
+    Arrays.fill(large, (byte) 'a');
+    final XmlTextBuilder<byte[]> foreignText = () -> large;
+
+    final Utf8XmlElementBuilder elementBuilder = x.element("elem1", foreignText);
+
+    final RecordingGatheringByteChannel channel = new RecordingGatheringByteChannel();
+    elementBuilder.buildTo(channel);
+
+    assertArrayEquals(elementBuilder.build(), channel.written.toByteArray());
+    assertEquals(1, channel.gatheringWrites);
+  }
+
+  @Test
+  public void buildToMappedFile(@TempDir final Path tempDir) throws IOException {
+    final Utf8XmlBuilder x = new Utf8XmlBuilder("\t");
+
+    final Utf8XmlDocumentBuilder documentBuilder = x.document(
+        x.element("http://myns", "elem1", "my", x.attributes(attribute("k1", "v1")),
+            x.element("http://myns", "elem2", "my", x.text("tëxt1")),
+            x.element("elem3", x.cdata("cdata1"))
+        )
+    );
+    final byte[] expected = documentBuilder.build();
+
+    final Path file = tempDir.resolve("doc.xml");
+    try (final Utf8MappedFileOutput out = new Utf8MappedFileOutput(file)) {
+      documentBuilder.buildTo(out);
+    }
+    assertArrayEquals(expected, Files.readAllBytes(file));
+
+    // a small window forces the file to be remapped many times, and written after existing content
+    final Path file2 = tempDir.resolve("doc2.xml");
+    try (final FileChannel channel = FileChannel.open(file2, CREATE_NEW, READ, WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] { 'x', 'y', 'z' }));
+      try (final Utf8MappedFileOutput out = new Utf8MappedFileOutput(channel, 7, new byte[5])) {
+        documentBuilder.buildTo(out);
+        out.flush();
+        assertEquals(expected.length, out.getWritten());
+
+        // forces the bytes of every window, not just the current one
+        out.force();
+        assertEquals(expected.length, out.getWritten());
+      }
+      assertEquals(3 + expected.length, channel.position());
+      assertEquals(3 + expected.length, channel.size());
+    }
+    final byte[] actual = Files.readAllBytes(file2);
+    assertEquals("xyz", new String(actual, 0, 3, UTF_8));
+    assertArrayEquals(expected, Arrays.copyOfRange(actual, 3, actual.length));
+  }
+
+  @Test
+  public void mappedFileClose(@TempDir final Path tempDir) throws IOException {
+    final Path file = tempDir.resolve("doc.xml");
+    final Utf8MappedFileOutput out = new Utf8MappedFileOutput(file);
+    out.write("<a/>");
+    out.close();
+
+    // closing again has no effect
+    out.close();
+    assertArrayEquals("<a/>".getBytes(UTF_8), Files.readAllBytes(file));
+
+    // writes after close are rejected when they reach the file
+    out.write("<b/>");
+    assertThrows(ClosedChannelException.class, out::flush);
+    assertThrows(ClosedChannelException.class, out::force);
+    assertArrayEquals("<a/>".getBytes(UTF_8), Files.readAllBytes(file));
+
+    // the same for a channel which is not closed by the output
+    final Path file2 = tempDir.resolve("doc2.xml");
+    try (final FileChannel channel = FileChannel.open(file2, CREATE_NEW, READ, WRITE)) {
+      final Utf8MappedFileOutput out2 = new Utf8MappedFileOutput(channel, 7, new byte[5]);
+      out2.write("<a/>");
+      out2.close();
+      out2.close();
+      assertEquals(4, channel.position());
+      assertEquals(4, channel.size());
+
+      assertThrows(ClosedChannelException.class, () -> out2.write("<b></b>"));
+      assertEquals(4, channel.size());
+    }
+  }
+
+  @Test
+  public void escaping() throws IOException {
+    final String content = "a < b && c > \"d\"\t\n\u0001 café € 😀 <end>";
+    final String ns = "http://myns?a=1&b=\"2\"";
+
+    final StringXmlBuilder s = new StringXmlBuilder();
+    final byte[] expected = s.element(ns, "elem1", "my", s.attributes(attribute("k1", content), attribute("k2", preEscaped("&amp;"))),
+        s.text(content),
+        s.preEscapedText("<b/>")
+    ).build().getBytes(UTF_8);
+
+    final Utf8XmlBuilder u = new Utf8XmlBuilder();
+    final Utf8XmlElementBuilder elementBuilder = u.element(ns, "elem1", "my", u.attributes(attribute("k1", content), attribute("k2", preEscaped("&amp;"))),
+        u.text(content),
+        u.preEscapedText("<b/>")
+    );
+
+    assertArrayEquals(expected, elementBuilder.build());
+
+    for (int bufferSize = 4; bufferSize < 16; bufferSize++) {
+      final ByteArrayOutputStream os = new ByteArrayOutputStream();
+      final Utf8StreamOutput out = new Utf8StreamOutput(os, new byte[bufferSize]);
+      elementBuilder.buildTo(out);
+      out.flush();
+      assertArrayEquals(expected, os.toByteArray(), "bufferSize: " + bufferSize);
+    }
+  }
+
+  @Test
+  public void publisher() {
+    final Utf8XmlBuilder u = new Utf8XmlBuilder("  ");
+    final Utf8XmlDocumentBuilder documentBuilder = u.document(
+        u.comment("rows"),
+        u.element("http://rows", "rows", "r",
+            u.element(null, "row", null, u.attributes(attribute("id", "é")), () -> IntStream.range(0, 500).mapToObj(i -> (XmlChildNodeBuilder<byte[]>) u.element("http://rows", "cell", "r", u.text("cell " + i))).iterator()),
+            u.element("empty")
+        )
+    );
+    final byte[] expected = documentBuilder.build();
+
+    for (final int chunkSize : new int[] { 4, 7, 100, 8192 }) {
+      // request one chunk at a time from within onNext
+      final RecordingSubscriber subscriber = new RecordingSubscriber(1);
+      new Utf8XmlPublisher(documentBuilder, chunkSize).subscribe(subscriber);
+
+      assertTrue(subscriber.completed);
+      assertNull(subscriber.error);
+      assertArrayEquals(expected, subscriber.bytes(), "chunkSize: " + chunkSize);
+      for (int i = 0; i < subscriber.chunks.size() - 1; i++) {
+        assertEquals(chunkSize, subscriber.chunks.get(i).remaining());
+      }
+    }
+  }
+
+  @Test
+  public void listener() {
+    final RecordingListener listener = new RecordingListener();
+    final Utf8XmlBuilder u = new Utf8XmlBuilder("  ").withListener(listener);
+    final Utf8XmlDocumentBuilder documentBuilder = u.document(
+        u.element("http://myns", "elem1", "my",
+            u.element("elem2", u.text("text1")),
+            u.comment("comment1"),
+            u.cdata("cdata1")
+        )
+    );
+    final List<String> expectedEvents = Arrays.asList(
+        "startBuild",
+        "startDocument",
+        "startElement elem1 0",
+        "namespaceDeclared my http://myns",
+        "startElement elem2 1",
+        "text",
+        "endElement elem2 1",
+        "comment",
+        "cdata",
+        "endElement elem1 0",
+        "endDocument",
+        "endBuild"
+    );
+
+    final byte[] expected = documentBuilder.build();
+    assertEquals(expectedEvents, listener.events);
+    assertEquals(expected.length, listener.length);
+
+    // the same notifications are made when publishing
+    listener.events.clear();
+    final RecordingSubscriber subscriber = new RecordingSubscriber(1);
+    new Utf8XmlPublisher(documentBuilder, 7).subscribe(subscriber);
+    assertArrayEquals(expected, subscriber.bytes());
+    assertEquals(expectedEvents, listener.events);
+    assertEquals(expected.length, listener.length);
+
+    // measuring is not a build, so building to the exact size notifies only once
+    listener.events.clear();
+    assertArrayEquals(expected, documentBuilder.buildExactSize());
+    assertEquals(expectedEvents, listener.events);
+    assertEquals(expected.length, listener.length);
+
+    listener.events.clear();
+    documentBuilder.measure();
+    assertTrue(listener.events.isEmpty());
+  }
+
+  @Test
+  public void publisherSuspendsWithoutDemand() {
+    final Utf8XmlBuilder u = new Utf8XmlBuilder();
+    final AtomicInteger created = new AtomicInteger();
+    final Utf8XmlElementBuilder elementBuilder = u.element(null, "rows", null, null, () -> IntStream.range(0, 1000).mapToObj(i -> {
+      created.incrementAndGet();
+      return (XmlChildNodeBuilder<byte[]>) u.element("row", u.text(Integer.toString(i)));
+    }).iterator());
+    final byte[] expected = elementBuilder.build();
+    created.set(0);
+
+    final RecordingSubscriber subscriber = new RecordingSubscriber(0);
+    new Utf8XmlPublisher(elementBuilder, 16).subscribe(subscriber);
+    assertTrue(subscriber.chunks.isEmpty());
+
+    subscriber.subscription.request(2);
+    assertEquals(2, subscriber.chunks.size());
+    assertFalse(subscriber.completed);
+    // only enough of the document to fill the requested chunks, plus one more, has been rendered
+    assertTrue(created.get() < 10, "created: " + created.get());
+
+    subscriber.subscription.request(Long.MAX_VALUE);
+    assertTrue(subscriber.completed);
+    assertEquals(1000, created.get());
+    assertArrayEquals(expected, subscriber.bytes());
+  }
+
+  @Test
+  public void publisherInvalidRequest() {
+    final Utf8XmlBuilder u = new Utf8XmlBuilder();
+
+    final RecordingSubscriber subscriber = new RecordingSubscriber(0);
+    new Utf8XmlPublisher(u.element("elem1")).subscribe(subscriber);
+    subscriber.subscription.request(0);
+
+    assertTrue(subscriber.error instanceof IllegalArgumentException);
+    assertFalse(subscriber.completed);
+  }
+
+  @Test
+  public void publisherCancel() {
+    final Utf8XmlBuilder u = new Utf8XmlBuilder();
+
+    final RecordingSubscriber subscriber = new RecordingSubscriber(0);
+    new Utf8XmlPublisher(u.element("elem1", u.text("some text which is longer than a chunk")), 8).subscribe(subscriber);
+    subscriber.subscription.request(1);
+    subscriber.subscription.cancel();
+    subscriber.subscription.request(1);
+
+    assertEquals(1, subscriber.chunks.size());
+    assertFalse(subscriber.completed);
+    assertNull(subscriber.error);
+  }
+
+  private static class RecordingListener implements XmlBuildListener {
+    final List<String> events = new ArrayList<>();
+    long length;
+
+    @Override
+    public void startBuild() {
+      events.add("startBuild");
+    }
+
+    @Override
+    public void endBuild(final long length, final long nanos) {
+      this.length = length;
+      events.add("endBuild");
+    }
+
+    @Override
+    public void startDocument() {
+      events.add("startDocument");
+    }
+
+    @Override
+    public void endDocument() {
+      events.add("endDocument");
+    }
+
+    @Override
+    public void startElement(@Nullable final String namespace, final String localName, @Nullable final String prefix, final int depth) {
+      events.add("startElement " + localName + " " + depth);
+    }
+
+    @Override
+    public void endElement(@Nullable final String namespace, final String localName, @Nullable final String prefix, final int depth) {
+      events.add("endElement " + localName + " " + depth);
+    }
+
+    @Override
+    public void namespaceDeclared(final String namespace, @Nullable final String prefix) {
+      events.add("namespaceDeclared " + prefix + " " + namespace);
+    }
+
+    @Override
+    public void text() {
+      events.add("text");
+    }
+
+    @Override
+    public void comment() {
+      events.add("comment");
+    }
+
+    @Override
+    public void cdata() {
+      events.add("cdata");
+    }
+  }
+
+  private static class RecordingSubscriber implements Subscriber<ByteBuffer> {
+    private final long requestOnNext;
+    final List<ByteBuffer> chunks = new ArrayList<>();
+    Subscription subscription;
+    boolean completed;
+    Throwable error;
+
+    RecordingSubscriber(final long requestOnNext) {
+      this.requestOnNext = requestOnNext;
+    }
+
+    @Override
+    public void onSubscribe(final Subscription subscription) {
+      this.subscription = subscription;
+      if (requestOnNext > 0) {
+        subscription.request(requestOnNext);
+      }
+    }
+
+    @Override
+    public void onNext(final ByteBuffer chunk) {
+      chunks.add(chunk);
+      if (requestOnNext > 0) {
+        subscription.request(requestOnNext);
+      }
+    }
+
+    @Override
+    public void onError(final Throwable t) {
+      error = t;
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+    }
+
+    byte[] bytes() {
+      final ByteArrayOutputStream os = new ByteArrayOutputStream();
+      for (final ByteBuffer chunk : chunks) {
+        os.write(chunk.array(), chunk.arrayOffset() + chunk.position(), chunk.remaining());
+      }
+      return os.toByteArray();
+    }
+  }
+
+  private static class RecordingGatheringByteChannel implements GatheringByteChannel {
+    final ByteArrayOutputStream written = new ByteArrayOutputStream();
+    int gatheringWrites = 0;
+
+    @Override
+    public int write(final ByteBuffer src) {
+      final int len = src.remaining();
+      written.write(src.array(), src.arrayOffset() + src.position(), len);
+      src.position(src.position() + len);
+      return len;
+    }
+
+    @Override
+    public long write(final ByteBuffer[] srcs, final int offset, final int length) {
+      gatheringWrites++;
+      long len = 0;
+      for (int i = offset; i < offset + length; i++) {
+        len += write(srcs[i]);
+      }
+      return len;
+    }
+
+    @Override
+    public long write(final ByteBuffer[] srcs) {
+      return write(srcs, 0, srcs.length);
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
+  private static String string(final byte[] bytes) {
+    return new String(bytes, UTF_8);
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2024, Evolved Binary Ltd. <tech@evolvedbinary.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.evolvedbinary.j8xu.io;
+
+import com.evolvedbinary.j8xu.BOM;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static com.evolvedbinary.j8xu.Allocations.bytesPerIteration;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Allocation regression tests for {@link BomFilterInputStream}.
+ *
+ * Each test asserts an upper bound on the number of bytes allocated per byte read,
+ * including the allocation of the stream itself and of any buffered BOM bytes.
+ */
+class BomFilterInputStreamAllocationTest {
+
+    private static final int INPUT_SIZE = 64 * 1024;
+    private static final int ITERATIONS = 200;
+
+    private static final byte[] INPUT_WITH_BOM = input(BOM.UTF_8.getBomBytes());
+    private static final byte[] INPUT_WITHOUT_BOM = input(new byte[] { '<', '?' });
+
+    @Test
+    void readWithBom() throws Exception {
+        final ByteArrayInputStream in = new ByteArrayInputStream(INPUT_WITH_BOM);
+        final byte[] b = new byte[8192];
+
+        final double bytesPerByteRead = bytesPerIteration(ITERATIONS, () -> {
+            in.reset();
+            final BomFilterInputStream filtered = new BomFilterInputStream(in);
+            filtered.parseBom();
+            assertEquals(INPUT_SIZE, readFully(filtered, b));
+        }) / INPUT_SIZE;
+
+        assertBytesPerByteRead(0.01, bytesPerByteRead);
+    }
+
+    @Test
+    void readWithoutBom() throws Exception {
+        final ByteArrayInputStream in = new ByteArrayInputStream(INPUT_WITHOUT_BOM);
+        final byte[] b = new byte[8192];
+
+        final double bytesPerByteRead = bytesPerIteration(ITERATIONS, () -> {
+            in.reset();
+            final BomFilterInputStream filtered = new BomFilterInputStream(in);
+            filtered.parseBom();
+            assertEquals(INPUT_SIZE, readFully(filtered, b));
+        }) / INPUT_SIZE;
+
+        assertBytesPerByteRead(0.01, bytesPerByteRead);
+    }
+
+    @Test
+    void readSingleBytes() throws Exception {
+        final ByteArrayInputStream in = new ByteArrayInputStream(INPUT_WITHOUT_BOM);
+
+        final double bytesPerByteRead = bytesPerIteration(ITERATIONS, () -> {
+            in.reset();
+            final BomFilterInputStream filtered = new BomFilterInputStream(in);
+            filtered.parseBom();
+            int count = 0;
+            while (filtered.read() != -1) {
+                count++;
+            }
+            assertEquals(INPUT_SIZE, count);
+        }) / INPUT_SIZE;
+
+        assertBytesPerByteRead(0.01, bytesPerByteRead);
+    }
+
+    private static byte[] input(final byte[] prefix) {
+        final byte[] input = new byte[INPUT_SIZE];
+        System.arraycopy(prefix, 0, input, 0, prefix.length);
+        for (int i = prefix.length; i < input.length; i++) {
+            input[i] = (byte) ('a' + (i % 26));
+        }
+        return input;
+    }
+
+    private static int readFully(final InputStream is, final byte[] b) throws IOException {
+        int count = 0;
+        int read;
+        while ((read = is.read(b)) != -1) {
+            count += read;
+        }
+        return count;
+    }
+
+    private static void assertBytesPerByteRead(final double maxBytesPerByteRead, final double bytesPerByteRead) {
+        assertTrue(bytesPerByteRead <= maxBytesPerByteRead, "Expected at most " + maxBytesPerByteRead + " bytes allocated per byte read, but allocated " + bytesPerByteRead);
+    }
+}
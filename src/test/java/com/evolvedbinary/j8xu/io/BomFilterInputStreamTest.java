@@ -255,4 +255,36 @@ class BomFilterInputStreamTest {
             baIs.close();
         }
     }
+
+    @ParameterizedTest
+    @EnumSource(BOM.class)
+    void readBomBytesAfterParseBom(final BOM bom) throws IOException {
+        final byte[] bomBytes = bom.getBomBytes();
+        final byte[] input = Arrays.copyOf(bomBytes, bomBytes.length + 1);
+        input[bomBytes.length] = 'h';
+
+        // read a byte at a time, bytes of 0xFF must not be confused with the end of the stream
+        try (final BomFilterInputStream bomIs = new BomFilterInputStream(new ByteArrayInputStream(input))) {
+            assertEquals(bom, bomIs.parseBom());
+            for (final byte b : input) {
+                assertEquals(b & 0xFF, bomIs.read());
+            }
+            assertEquals(-1, bomIs.read());
+        }
+
+        // read into an array
+        try (final BomFilterInputStream bomIs = new BomFilterInputStream(new ByteArrayInputStream(input))) {
+            assertEquals(bom, bomIs.parseBom());
+            final byte[] buf = new byte[input.length + 1];
+            assertEquals(input.length, bomIs.read(buf, 0, buf.length));
+            assertArrayEquals(input, Arrays.copyOf(buf, input.length));
+        }
+
+        // skip
+        try (final BomFilterInputStream bomIs = new BomFilterInputStream(new ByteArrayInputStream(input))) {
+            assertEquals(bom, bomIs.parseBom());
+            assertEquals(bomBytes.length, bomIs.skip(bomBytes.length));
+            assertEquals('h', bomIs.read());
+        }
+    }
 }